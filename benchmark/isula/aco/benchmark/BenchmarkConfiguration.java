@@ -0,0 +1,73 @@
+package isula.aco.benchmark;
+
+import isula.aco.algorithms.acs.AcsConfigurationProvider;
+import isula.aco.algorithms.antsystem.AntSystemConfigurationProvider;
+import isula.aco.algorithms.maxmin.MaxMinConfigurationProvider;
+
+/**
+ * A single configuration for all the benchmarked algorithms, so results are comparable between them.
+ */
+public class BenchmarkConfiguration implements AntSystemConfigurationProvider, AcsConfigurationProvider,
+        MaxMinConfigurationProvider {
+
+    private final int numberOfAnts;
+
+    public BenchmarkConfiguration(int numberOfAnts) {
+        this.numberOfAnts = numberOfAnts;
+    }
+
+    @Override
+    public int getNumberOfAnts() {
+        return numberOfAnts;
+    }
+
+    @Override
+    public double getEvaporationRatio() {
+        return 0.9;
+    }
+
+    @Override
+    public int getNumberOfIterations() {
+        return 1;
+    }
+
+    @Override
+    public double getInitialPheromoneValue() {
+        return 1.0;
+    }
+
+    @Override
+    public double getHeuristicImportance() {
+        return 2.0;
+    }
+
+    @Override
+    public double getPheromoneImportance() {
+        return 1.0;
+    }
+
+    @Override
+    public double getPheromoneDepositFactor() {
+        return 1.0;
+    }
+
+    @Override
+    public double getBestChoiceProbability() {
+        return 0.9;
+    }
+
+    @Override
+    public double getPheromoneDecayCoefficient() {
+        return 0.1;
+    }
+
+    @Override
+    public double getMaximumPheromoneValue() {
+        return 10.0;
+    }
+
+    @Override
+    public double getMinimumPheromoneValue() {
+        return 0.01;
+    }
+}
@@ -0,0 +1,70 @@
+package isula.aco.benchmark;
+
+import isula.aco.AntPolicy;
+import isula.aco.algorithms.acs.PseudoRandomNodeSelection;
+import isula.aco.algorithms.antsystem.RandomNodeSelection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tsp.AntForTsp;
+import tsp.TspEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node selection steps of the Ant System and Ant Colony System policies. Each invocation builds a complete tour, so
+ * the time per step is the score divided by numberOfCities - 1.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NodeSelectionBenchmark {
+
+    @Param({"50", "200", "500"})
+    private int numberOfCities;
+
+    @Param({"random", "pseudoRandom"})
+    private String nodeSelection;
+
+    private TspEnvironment environment;
+    private BenchmarkConfiguration configuration;
+    private AntForTsp ant;
+
+    @Setup
+    public void setUp() {
+        TspBenchmarkProblem.silenceLogging();
+
+        environment = TspBenchmarkProblem.createEnvironment(numberOfCities);
+        configuration = new BenchmarkConfiguration(1);
+        environment.populatePheromoneMatrix(configuration.getInitialPheromoneValue());
+
+        AntPolicy<String, TspEnvironment> policy = "random".equals(nodeSelection)
+                ? new RandomNodeSelection<>() : new PseudoRandomNodeSelection<>();
+
+        ant = new AntForTsp(environment.getAllCities());
+        ant.setComponentIndexer(environment);
+        ant.addPolicy(policy);
+        policy.setAnt(ant);
+    }
+
+    @Benchmark
+    public void buildTour(Blackhole blackhole) {
+        ant.clear();
+        while (!ant.isSolutionReady(environment)) {
+            ant.selectNextNode(environment, configuration);
+        }
+        blackhole.consume(ant.getSolution());
+    }
+}
@@ -0,0 +1,109 @@
+package isula.aco.benchmark;
+
+import isula.aco.Ant;
+import isula.aco.AntColony;
+import isula.aco.DaemonAction;
+import isula.aco.algorithms.antsystem.OfflinePheromoneUpdate;
+import isula.aco.algorithms.antsystem.RandomNodeSelection;
+import isula.aco.algorithms.maxmin.MaxMinConfigurationProvider;
+import isula.aco.algorithms.maxmin.UpdatePheromoneMatrixForMaxMin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tsp.TspEnvironment;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pheromone matrix updates over the solutions of a colony: evaporation, Ant System deposit and the Max-Min Ant
+ * System update. Solutions are built once per trial, and the pheromone matrix is reset on every iteration so values
+ * don't drift between measurements.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PheromoneUpdateBenchmark {
+
+    @Param({"50", "200", "500"})
+    private int numberOfCities;
+
+    @Param({"10", "50"})
+    private int numberOfAnts;
+
+    private TspEnvironment environment;
+    private BenchmarkConfiguration configuration;
+
+    private DaemonAction<String, TspEnvironment> offlinePheromoneUpdate;
+    private DaemonAction<String, TspEnvironment> maxMinPheromoneUpdate;
+
+    @Setup(Level.Trial)
+    public void buildSolutions() {
+        TspBenchmarkProblem.silenceLogging();
+
+        environment = TspBenchmarkProblem.createEnvironment(numberOfCities);
+        configuration = new BenchmarkConfiguration(numberOfAnts);
+        environment.populatePheromoneMatrix(configuration.getInitialPheromoneValue());
+
+        AntColony<String, TspEnvironment> antColony = TspBenchmarkProblem.createColony(environment, numberOfAnts);
+        antColony.addAntPolicies(RandomNodeSelection::new);
+        antColony.clearAntSolutions();
+        antColony.buildSolutions(environment, configuration, Instant.now());
+
+        offlinePheromoneUpdate = new OfflinePheromoneUpdate<>();
+        maxMinPheromoneUpdate = new UpdatePheromoneMatrixForMaxMin<>() {
+            @Override
+            protected double getNewPheromoneValue(Ant<String, TspEnvironment> ant, int positionInSolution,
+                                                  String solutionComponent,
+                                                  MaxMinConfigurationProvider configurationProvider) {
+                return ant.getPheromoneTrailValue(solutionComponent, positionInSolution, environment)
+                        + 1 / ant.getSolutionCost(environment);
+            }
+        };
+
+        for (DaemonAction<String, TspEnvironment> daemonAction : new DaemonAction[]{offlinePheromoneUpdate,
+                maxMinPheromoneUpdate}) {
+            daemonAction.setAntColony(antColony);
+            daemonAction.setEnvironment(environment);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPheromoneMatrix() {
+        environment.populatePheromoneMatrix(configuration.getInitialPheromoneValue());
+    }
+
+    /**
+     * Two passes over the matrix: evaporation, and its inverse so values stay in the same range across calls.
+     */
+    @Benchmark
+    public double[][] applyFactorToPheromoneMatrix() {
+        environment.applyFactorToPheromoneMatrix(configuration.getEvaporationRatio());
+        environment.applyFactorToPheromoneMatrix(1 / configuration.getEvaporationRatio());
+        return environment.getPheromoneMatrix();
+    }
+
+    @Benchmark
+    public double[][] offlinePheromoneUpdate() {
+        offlinePheromoneUpdate.applyDaemonAction(configuration);
+        return environment.getPheromoneMatrix();
+    }
+
+    @Benchmark
+    public double[][] maxMinPheromoneUpdate() {
+        maxMinPheromoneUpdate.applyDaemonAction(configuration);
+        return environment.getPheromoneMatrix();
+    }
+}
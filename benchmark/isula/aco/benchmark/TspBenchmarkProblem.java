@@ -0,0 +1,59 @@
+package isula.aco.benchmark;
+
+import isula.aco.AntColony;
+import tsp.AntColonyForTsp;
+import tsp.TspEnvironment;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Random symmetric TSP instances of a given size, built over the TSP classes used in the test suite.
+ */
+public final class TspBenchmarkProblem {
+
+    private static final long SEED = 42L;
+    private static final int MAXIMUM_DISTANCE = 1000;
+
+    // Keeps a strong reference, so the level isn't lost when the logger is garbage collected.
+    private static final Logger FRAMEWORK_LOGGER = Logger.getLogger("isula");
+
+    private TspBenchmarkProblem() {
+    }
+
+    /**
+     * Per-iteration INFO messages would dominate the measurements.
+     */
+    public static void silenceLogging() {
+        FRAMEWORK_LOGGER.setLevel(Level.WARNING);
+    }
+
+    public static TspEnvironment createEnvironment(int numberOfCities) {
+        Random random = new Random(SEED);
+
+        Map<String, Map<String, Integer>> distanceMap = new HashMap<>();
+        for (int origin = 0; origin < numberOfCities; origin++) {
+            distanceMap.put(String.valueOf(origin), new HashMap<>());
+        }
+
+        for (int origin = 0; origin < numberOfCities; origin++) {
+            distanceMap.get(String.valueOf(origin)).put(String.valueOf(origin), 0);
+            for (int destination = origin + 1; destination < numberOfCities; destination++) {
+                int distance = 1 + random.nextInt(MAXIMUM_DISTANCE);
+                distanceMap.get(String.valueOf(origin)).put(String.valueOf(destination), distance);
+                distanceMap.get(String.valueOf(destination)).put(String.valueOf(origin), distance);
+            }
+        }
+
+        return new TspEnvironment(distanceMap);
+    }
+
+    public static AntColony<String, TspEnvironment> createColony(TspEnvironment environment, int numberOfAnts) {
+        AntColony<String, TspEnvironment> antColony = new AntColonyForTsp(numberOfAnts);
+        antColony.buildColony(environment);
+        return antColony;
+    }
+}
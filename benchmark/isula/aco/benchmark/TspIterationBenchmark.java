@@ -0,0 +1,65 @@
+package isula.aco.benchmark;
+
+import isula.aco.AcoProblemSolver;
+import isula.aco.AntColony;
+import isula.aco.algorithms.antsystem.OfflinePheromoneUpdate;
+import isula.aco.algorithms.antsystem.PerformEvaporation;
+import isula.aco.algorithms.antsystem.RandomNodeSelection;
+import isula.aco.algorithms.antsystem.StartPheromoneMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tsp.AntColonyForTsp;
+import tsp.TspEnvironment;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A complete Ant System iteration over a TSP instance: solution construction, evaporation, pheromone deposit and
+ * performance tracking.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TspIterationBenchmark {
+
+    @Param({"50", "200"})
+    private int numberOfCities;
+
+    @Param({"10", "50"})
+    private int numberOfAnts;
+
+    private AcoProblemSolver<String, TspEnvironment> solver;
+
+    @Setup
+    public void setUp() {
+        TspBenchmarkProblem.silenceLogging();
+
+        TspEnvironment environment = TspBenchmarkProblem.createEnvironment(numberOfCities);
+        BenchmarkConfiguration configuration = new BenchmarkConfiguration(numberOfAnts);
+
+        solver = new AcoProblemSolver<>();
+        solver.initialize(environment, new AntColonyForTsp(numberOfAnts), configuration);
+        solver.addDaemonActions(new StartPheromoneMatrix<>(), new PerformEvaporation<>(),
+                new OfflinePheromoneUpdate<>());
+        solver.getAntColony().addAntPolicies(RandomNodeSelection::new);
+    }
+
+    @Benchmark
+    public double fullIteration() {
+        AntColony<String, TspEnvironment> antColony = solver.getAntColony();
+        return solver.kickOffColony(antColony, solver.getEnvironment(), Instant.now()).getBestSolutionCost();
+    }
+}
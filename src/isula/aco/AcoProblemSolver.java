@@ -1,7 +1,16 @@
 package isula.aco;
 
+import isula.aco.event.ColonyFinishedEvent;
+import isula.aco.event.IterationFinishedEvent;
+import isula.aco.event.NewBestSolutionEvent;
+import isula.aco.event.SolverEventPublisher;
 import isula.aco.exception.ConfigurationException;
+import isula.aco.termination.TerminationCriterion;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -17,6 +26,16 @@ import java.util.logging.Logger;
  * <p>The solveProblem() method is the one that starts the optimization process.
  * Previously, you have to properly configure your solver by assigning it a
  * Colony, an Environment and Daemon Actions (if required).
+ * <p>
+ * <p>Long executions can write periodic checkpoints with enableCheckpoints(), and
+ * continue from the last one with resumeFromCheckpoint().
+ * <p>
+ * <p>To follow the progress of the execution, subscribe to getEventPublisher()
+ * before calling solveProblem().
+ * <p>
+ * <p>To stop an execution from another thread, or after a deadline, assign a
+ * CancellationToken with setCancellationToken(): solveProblem() returns the best
+ * solution found so far.
  *
  * @param <C> Class for components of a solution.
  * @param <E> Class representing the Environment.
@@ -30,6 +49,7 @@ public class AcoProblemSolver<C, E extends Environment> {
     private List<C> bestSolution;
     private double bestSolutionCost = 0.0;
     private double executionTime = 0.0;
+    private PerformanceMetrics metrics;
     private String bestSolutionAsString = "";
 
     private E environment;
@@ -41,6 +61,18 @@ public class AcoProblemSolver<C, E extends Environment> {
     private List<DaemonAction<C, E>> daemonActions = new ArrayList<>();
     private long totalGeneratedSolutions;
 
+    private TerminationCriterion<C, E> terminationCriterion;
+
+    private Path checkpointFile;
+    private int checkpointInterval;
+    private Path resumeCheckpointFile;
+
+    private RandomSource randomSource;
+
+    private volatile SolverEventPublisher eventPublisher;
+
+    private CancellationToken cancellationToken;
+
     /**
      * Prepares the solver for problem resolution.
      *
@@ -119,14 +151,17 @@ public class AcoProblemSolver<C, E extends Environment> {
                 executionStartTime);
 
         this.updateGlobalMetrics(executionStartTime, performanceTracker);
-
+        this.closeEventPublisher();
 
     }
 
     public PerformanceTracker<C, E> kickOffColony(AntColony<C, E> antColony, E environment,
                                                   Instant executionStartTime)
             throws ConfigurationException {
-        applyDaemonActions(antColony, DaemonActionType.INITIAL_CONFIGURATION);
+        PerformanceTracker<C, E> performanceTracker = new PerformanceTracker<>();
+        CancellationToken colonyCancellationToken = antColony.createCancellationToken(
+                cancellationToken != null ? cancellationToken : new CancellationToken(), executionStartTime);
+        applyInitialConfiguration(antColony, performanceTracker.getMetrics());
 
         logger.info(" Colony index: " + antColony.getColonyIndex() + " STARTING ITERATIONS");
         int numberOfIterations = configurationProvider.getNumberOfIterations();
@@ -139,40 +174,271 @@ public class AcoProblemSolver<C, E extends Environment> {
         logger.log(Level.INFO, " Colony index: {0}  Number of iterations: {1}",
                 new Object[]{antColony.getColonyIndex(), numberOfIterations});
 
-        int iteration = 0;
-        PerformanceTracker<C, E> performanceTracker = new PerformanceTracker<>();
+        SolverCheckpoint checkpoint = restoreCheckpoint(antColony, environment, performanceTracker);
+        int iteration = checkpoint == null ? 0 : checkpoint.getCompletedIterations();
+
+        RandomSource colonyRandomSource = randomSource;
+        if (colonyRandomSource == null && checkpoint != null && checkpoint.getSeed() != null) {
+            colonyRandomSource = new RandomSource(checkpoint.getSeed());
+        }
+
         while (iteration < numberOfIterations) {
-            Instant iterationStart = Instant.now();
+            long iterationStart = System.nanoTime();
 
+            if (colonyRandomSource != null) {
+                assignRandomStreams(antColony, colonyRandomSource, iteration);
+            }
             antColony.clearAntSolutions();
-            boolean terminateExecution = antColony.buildSolutions(environment, configurationProvider,
-                    executionStartTime);
+            boolean terminateExecution = antColony.buildSolutionsUntilCancelled(environment,
+                    configurationProvider, colonyCancellationToken);
+            performanceTracker.getMetrics().addConstructionTime(System.nanoTime() - iterationStart);
+            afterSolutionConstruction(antColony, environment, iteration);
 
             // TODO(cgavidia): This should reference the Update Pheromone routine. Maybe with the Policy hierarchy.
-            applyDaemonActions(antColony, DaemonActionType.AFTER_ITERATION_CONSTRUCTION);
-            Instant iterationEnd = Instant.now();
-            long iterationTime = Duration.between(iterationStart, iterationEnd).getSeconds();
+            if (!terminateExecution) {
+                applyDaemonActions(antColony, DaemonActionType.AFTER_ITERATION_CONSTRUCTION,
+                        performanceTracker.getMetrics(), colonyCancellationToken);
+                terminateExecution = colonyCancellationToken.isCancelled();
+            }
+            Duration iterationTime = Duration.ofNanos(System.nanoTime() - iterationStart);
 
+            List<C> previousBestSolution = performanceTracker.getBestSolution();
             performanceTracker.updateIterationPerformance(antColony, iteration, iterationTime, environment);
+            afterIteration(antColony, environment, iteration, performanceTracker);
+
+            SolverEventPublisher publisher = this.eventPublisher;
+            if (publisher != null && publisher.hasSubscribers()) {
+                publishIterationEvents(publisher, antColony, iteration, executionStartTime, iterationTime,
+                        performanceTracker, previousBestSolution);
+            }
+
+            // A cancelled iteration is incomplete, so it's not stored in a checkpoint.
+            if (!terminateExecution && checkpointFile != null && (iteration + 1) % checkpointInterval == 0) {
+                writeCheckpoint(antColony, environment, iteration + 1, performanceTracker, colonyRandomSource);
+            }
+
+            if (terminationCriterion != null && terminationCriterion.shouldTerminate(iteration, performanceTracker,
+                    environment)) {
+                logger.log(Level.INFO, " Colony index: {0} Termination criterion met at iteration {1}: {2}",
+                        new Object[]{antColony.getColonyIndex(), iteration, terminationCriterion});
+                terminateExecution = true;
+            }
             iteration++;
 
             if (terminateExecution) {
                 break;
             }
         }
+
+        SolverEventPublisher publisher = this.eventPublisher;
+        if (publisher != null && publisher.hasSubscribers()) {
+            publisher.publish(new ColonyFinishedEvent(antColony.getColonyIndex(), iteration,
+                    Duration.between(executionStartTime, Instant.now()), performanceTracker.getBestSolutionCost(),
+                    performanceTracker.getGeneratedSolutions()));
+        }
         return performanceTracker;
     }
 
+    private void publishIterationEvents(SolverEventPublisher publisher, AntColony<C, E> antColony, int iteration,
+                                        Instant executionStartTime, Duration iterationTime,
+                                        PerformanceTracker<C, E> performanceTracker,
+                                        List<C> previousBestSolution) {
+        Duration elapsedTime = Duration.between(executionStartTime, Instant.now());
+
+        if (performanceTracker.getBestSolution() != previousBestSolution) {
+            publisher.publish(new NewBestSolutionEvent<>(antColony.getColonyIndex(), iteration, elapsedTime,
+                    performanceTracker.getBestSolution(), performanceTracker.getBestSolutionCost()));
+        }
+
+        publisher.publish(new IterationFinishedEvent(antColony.getColonyIndex(), iteration, elapsedTime,
+                performanceTracker.getIterationBestCost(), performanceTracker.getBestSolutionCost(), iterationTime,
+                performanceTracker.getGeneratedSolutions()));
+    }
+
+    /**
+     * Returns the publisher of the events of this solver: iteration finished, new best solution and colony
+     * finished. Events are buffered for each subscriber and delivered asynchronously, so slow subscribers don't slow
+     * the solver down: if their buffer is full, events are dropped. Subscribers are completed when solveProblem()
+     * finishes, and a new publisher is created for the next execution.
+     *
+     * @return Event publisher.
+     */
+    public synchronized SolverEventPublisher getEventPublisher() {
+        if (eventPublisher == null || eventPublisher.isClosed()) {
+            eventPublisher = new SolverEventPublisher();
+        }
+        return eventPublisher;
+    }
+
+    /**
+     * Assigns a publisher for the events of this solver, to configure its executor or its buffer capacity.
+     *
+     * @param eventPublisher Event publisher.
+     */
+    public synchronized void setEventPublisher(SolverEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Completes the subscriptions to the events of this solver. It's called when solveProblem() finishes.
+     */
+    protected synchronized void closeEventPublisher() {
+        if (eventPublisher != null) {
+            eventPublisher.close();
+        }
+    }
+
+    /**
+     * Makes the solver write the state of the colony to a file every few iterations: the number of completed
+     * iterations, the best solution so far and the pheromone matrix. Solution components are stored by index, so
+     * the ants or the environment need to provide a ComponentIndexer.
+     *
+     * @param checkpointFile     Checkpoint file. It is replaced on every checkpoint.
+     * @param checkpointInterval Number of iterations between checkpoints.
+     */
+    public void enableCheckpoints(Path checkpointFile, int checkpointInterval) {
+        if (checkpointInterval < 1) {
+            throw new ConfigurationException("The checkpoint interval should be at least 1. Current value: " +
+                    checkpointInterval);
+        }
+
+        this.checkpointFile = checkpointFile;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Makes the next call to solveProblem() continue from a checkpoint, instead of starting from scratch. The
+     * pheromone matrix is restored after the initial configuration daemon actions are applied, and the execution
+     * continues until the number of iterations of the configuration provider is reached. If the file doesn't
+     * exist, the execution starts from the first iteration.
+     *
+     * @param checkpointFile Checkpoint file, written by a solver configured with enableCheckpoints().
+     */
+    public void resumeFromCheckpoint(Path checkpointFile) {
+        this.resumeCheckpointFile = checkpointFile;
+    }
+
+    /**
+     * The checkpoint file of a colony. By default, all colonies use the same file.
+     *
+     * @param checkpointFile File provided to enableCheckpoints() or resumeFromCheckpoint().
+     * @param antColony      Colony to checkpoint.
+     * @return Checkpoint file for the colony.
+     */
+    protected Path getColonyCheckpointFile(Path checkpointFile, AntColony<C, E> antColony) {
+        return checkpointFile;
+    }
+
+    private static <C, E extends Environment> void assignRandomStreams(AntColony<C, E> antColony,
+                                                                       RandomSource randomSource, int iteration) {
+        List<Ant<C, E>> hive = antColony.getHive();
+        for (int antIndex = 0; antIndex < hive.size(); antIndex++) {
+            hive.get(antIndex).setRandom(randomSource.getAntStream(antColony.getColonyIndex(), iteration, antIndex));
+        }
+    }
+
+    private SolverCheckpoint restoreCheckpoint(AntColony<C, E> antColony, E environment,
+                                               PerformanceTracker<C, E> performanceTracker) {
+        if (resumeCheckpointFile == null) {
+            return null;
+        }
+
+        Path colonyCheckpointFile = getColonyCheckpointFile(resumeCheckpointFile, antColony);
+        if (!Files.exists(colonyCheckpointFile)) {
+            logger.log(Level.WARNING, " Colony index: {0} No checkpoint found at {1}. Starting from scratch.",
+                    new Object[]{antColony.getColonyIndex(), colonyCheckpointFile});
+            return null;
+        }
+
+        try {
+            SolverCheckpoint checkpoint = SolverCheckpoint.read(colonyCheckpointFile);
+            checkpoint.restorePheromones(environment.getPheromones());
+            environment.invalidateChoiceInformation();
+            checkpoint.restorePerformance(performanceTracker, getComponentIndexer(antColony, environment),
+                    antColony.getHive().get(0));
+
+            logger.log(Level.INFO, " Colony index: {0} Resuming from checkpoint: {1}",
+                    new Object[]{antColony.getColonyIndex(), checkpoint});
+            return checkpoint;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the checkpoint " + colonyCheckpointFile, e);
+        }
+    }
+
+    private void writeCheckpoint(AntColony<C, E> antColony, E environment, int completedIterations,
+                                 PerformanceTracker<C, E> performanceTracker, RandomSource randomSource) {
+        Path colonyCheckpointFile = getColonyCheckpointFile(checkpointFile, antColony);
+        try {
+            SolverCheckpoint.write(colonyCheckpointFile, antColony.getColonyIndex(), completedIterations,
+                    performanceTracker, getComponentIndexer(antColony, environment), environment.getPheromones(),
+                    randomSource);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the checkpoint " + colonyCheckpointFile, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ComponentIndexer<C> getComponentIndexer(AntColony<C, E> antColony, E environment) {
+        ComponentIndexer<C> componentIndexer = antColony.getHive().get(0).getComponentIndexer();
+        if (componentIndexer != null) {
+            return componentIndexer;
+        }
+
+        if (environment instanceof ComponentIndexer) {
+            return (ComponentIndexer<C>) environment;
+        }
+
+        throw new ConfigurationException("Checkpoints need a ComponentIndexer, provided by the ants or by the " +
+                "environment.");
+    }
+
+    /**
+     * Applies the INITIAL_CONFIGURATION daemon actions of a colony, before its first iteration.
+     *
+     * @param antColony Colony to initialize.
+     * @param metrics   Metrics where the time spent on each action is registered.
+     */
+    protected void applyInitialConfiguration(AntColony<C, E> antColony, PerformanceMetrics metrics) {
+        applyDaemonActions(antColony, DaemonActionType.INITIAL_CONFIGURATION, metrics, null);
+    }
+
+    /**
+     * Called after the ants have built their solutions, and before the daemon actions of the iteration are applied.
+     * By default, it does nothing.
+     *
+     * @param antColony   Colony that built the solutions.
+     * @param environment Environment of the colony.
+     * @param iteration   Current iteration, starting from zero.
+     */
+    protected void afterSolutionConstruction(AntColony<C, E> antColony, E environment, int iteration) {
+    }
+
+    /**
+     * Called at the end of every iteration, once the performance tracker is updated. By default, it does nothing.
+     *
+     * @param antColony          Colony that built the solutions.
+     * @param environment        Environment of the colony.
+     * @param iteration          Current iteration, starting from zero.
+     * @param performanceTracker Performance of the colony so far.
+     */
+    protected void afterIteration(AntColony<C, E> antColony, E environment, int iteration,
+                                  PerformanceTracker<C, E> performanceTracker) {
+    }
+
     protected void updateGlobalMetrics(Instant executionStartTime, PerformanceTracker<C, E> performanceTracker) {
         this.bestSolution = performanceTracker.getBestSolution();
         this.bestSolutionCost = performanceTracker.getBestSolutionCost();
         this.bestSolutionAsString = performanceTracker.getBestSolutionAsString();
         this.totalGeneratedSolutions = performanceTracker.getGeneratedSolutions();
+        this.metrics = performanceTracker.getMetrics();
 
         logger.log(Level.INFO, "Finishing computation at: {0}", new Date());
         Instant executionEndTime = Instant.now();
-        executionTime = Duration.between(executionStartTime, executionEndTime).getSeconds();
+        long executionNanos = Duration.between(executionStartTime, executionEndTime).toNanos();
+        executionTime = executionNanos / 1_000_000_000.0;
+        metrics.setWallClockTime(executionNanos);
         logger.log(Level.INFO, "Duration (in seconds): {0}", executionTime);
+        logger.log(Level.INFO, "Performance metrics: {0}", metrics);
 
         logger.info("EXECUTION FINISHED");
         logger.log(Level.INFO, "Solutions generated: {0}", totalGeneratedSolutions);
@@ -182,12 +448,22 @@ public class AcoProblemSolver<C, E extends Environment> {
     }
 
     /**
-     * Applies all daemon actions of a specific type.
+     * Applies all daemon actions of a specific type, registering the time spent on each one. If the token is
+     * cancelled, the remaining actions are skipped.
      */
-    private void applyDaemonActions(AntColony<C, E> antColony, DaemonActionType daemonActionType) {
+    private void applyDaemonActions(AntColony<C, E> antColony, DaemonActionType daemonActionType,
+                                    PerformanceMetrics metrics, CancellationToken cancellationToken) {
         for (DaemonAction<C, E> daemonAction : daemonActions) {
+            if (cancellationToken != null && cancellationToken.isCancelled()) {
+                logger.log(Level.WARNING, " Colony index: {0} Execution cancelled: Skipping daemon actions.",
+                        antColony.getColonyIndex());
+                return;
+            }
+
             if (daemonAction.getAntColony().equals(antColony) && daemonActionType.equals(daemonAction.getAcoPhase())) {
+                long daemonActionStart = System.nanoTime();
                 daemonAction.applyDaemonAction(this.getConfigurationProvider());
+                metrics.addDaemonActionTime(daemonAction, System.nanoTime() - daemonActionStart);
             }
         }
     }
@@ -235,6 +511,59 @@ public class AcoProblemSolver<C, E extends Environment> {
         return bestSolutionAsString;
     }
 
+    /**
+     * Assigns a criterion for stopping the process before reaching the number of iterations of the configuration
+     * provider. It is evaluated after every iteration.
+     *
+     * @param terminationCriterion Termination criterion, or null to run all iterations.
+     */
+    public void setTerminationCriterion(TerminationCriterion<C, E> terminationCriterion) {
+        this.terminationCriterion = terminationCriterion;
+    }
+
+    public TerminationCriterion<C, E> getTerminationCriterion() {
+        return terminationCriterion;
+    }
+
+    /**
+     * Makes the execution reproducible: every ant gets a random number stream derived from the source seed before
+     * each iteration, and the built-in policies draw from it. The seed is also stored in checkpoints, so a resumed
+     * execution continues with the same streams.
+     *
+     * @param randomSource Source of random number streams, or null to give ants unseeded streams.
+     */
+    public void setRandomSource(RandomSource randomSource) {
+        this.randomSource = randomSource;
+    }
+
+    public RandomSource getRandomSource() {
+        return randomSource;
+    }
+
+    /**
+     * Assigns a token to stop the execution from another thread, or once a deadline passes. When cancelled, the ants
+     * stop building solutions, the remaining daemon actions are skipped and solveProblem() returns the best solution
+     * found so far. The time limit provided to initialize() still applies.
+     *
+     * @param cancellationToken Cancellation token, or null to run until the end.
+     */
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    /**
+     * Returns the timings and throughput of the last execution of solveProblem().
+     *
+     * @return Performance metrics, or null if the solver hasn't been executed.
+     */
+    public PerformanceMetrics getMetrics() {
+        return metrics;
+    }
+
     public List<DaemonAction<C, E>> getDaemonActions() {
         return daemonActions;
     }
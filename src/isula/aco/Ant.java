@@ -1,9 +1,11 @@
 package isula.aco;
 
 import isula.aco.exception.ConfigurationException;
+import isula.aco.exception.MethodNotImplementedException;
 import isula.aco.exception.SolutionConstructionException;
 
 import java.util.*;
+import java.util.function.DoubleUnaryOperator;
 
 /**
  * The little workers that build solutions: They belong to a colony. This is an
@@ -26,6 +28,11 @@ import java.util.*;
  * <li>setPheromoneTrailValue(), to assign a pheromone value to a Solution
  * Component.
  * </ul>
+ * <p>
+ * <p>
+ * For objectives that can be calculated component by component, like routing or scheduling costs, override
+ * supportsIncrementalCost() and getCostIncrement(). The ant then keeps a running total while visiting nodes, and
+ * getSolutionCost(environment) doesn't need to traverse the solution.
  *
  * @param <C> Class for components of a solution.
  * @param <E> Class representing the Environment.
@@ -33,19 +40,39 @@ import java.util.*;
  */
 public abstract class Ant<C, E extends Environment> {
 
-    private static final int DONT_CHECK_NUMBERS = -1;
     private static final int ONE_POLICY = 1;
 
     private int currentIndex = 0;
 
     private List<AntPolicy<C, E>> policies = new ArrayList<>();
+    private EnumMap<AntPolicyType, AntPolicy<C, E>[]> policiesByType;
+
+    // Policies used on every node selection, resolved by compilePolicies().
+    private AntPolicy<C, E> nodeSelectionPolicy;
+    private AntPolicy<C, E>[] afterNodeSelectionPolicies;
 
     private List<C> solution;
 
-    // TODO(cgavidia): This is redundant. Or it should be implemented as another
-    // data structure.
+    // Visited components are tracked in a bit set when a component indexer is available, and in this map otherwise.
     private Map<C, Boolean> visitedComponents = new HashMap<>();
 
+    private ComponentIndexer<C> componentIndexer;
+    private BitSet visitedIndexes;
+
+    private long solutionEvaluations;
+    private long nodeSelections;
+
+    // Cost of the current solution, valid until the solution changes.
+    private boolean solutionCostValid;
+    private double solutionCost;
+    private E evaluatedEnvironment;
+
+    // Running total of cost increments, for ants that support incremental costs.
+    private boolean partialCostValid = true;
+    private double partialCost;
+
+    private SplittableRandom random = new SplittableRandom();
+
 
     /**
      * Mark a node as visited.
@@ -55,9 +82,13 @@ public abstract class Ant<C, E extends Environment> {
      */
     public void visitNode(C visitedNode, E environment) {
         if (getSolution() != null) {
+            if (partialCostValid && supportsIncrementalCost()) {
+                partialCost += getCostIncrement(visitedNode, currentIndex, environment);
+            }
             getSolution().add(visitedNode);
-            visitedComponents.put(visitedNode, true);
+            markAsVisited(visitedNode);
             currentIndex++;
+            discardCachedCost();
         } else {
             throw new SolutionConstructionException("Couldn't add component "
                     + visitedNode.toString() + " at index " + currentIndex
@@ -71,6 +102,10 @@ public abstract class Ant<C, E extends Environment> {
      * index to 0.
      */
     public void clear() {
+        resetSolution();
+    }
+
+    private void resetSolution() {
 
         this.setCurrentIndex(0);
 
@@ -80,7 +115,41 @@ public abstract class Ant<C, E extends Environment> {
         }
 
         getSolution().clear();
+        discardCachedCost();
+        partialCost = 0.0;
+        partialCostValid = true;
         visitedComponents.clear();
+        if (visitedIndexes != null) {
+            visitedIndexes.clear();
+        }
+    }
+
+    /**
+     * Replaces the current solution with the components provided, visiting them in order. Unlike clear(), this
+     * doesn't trigger any problem-specific initialization defined by subclasses.
+     *
+     * @param components  Components of the new solution.
+     * @param environment Environment instance.
+     */
+    public void replaceSolution(List<C> components, E environment) {
+        resetSolution();
+        for (C component : components) {
+            visitNode(component, environment);
+        }
+    }
+
+    private void markAsVisited(C visitedNode) {
+        if (visitedIndexes == null) {
+            visitedComponents.put(visitedNode, true);
+            return;
+        }
+
+        int componentIndex = componentIndexer.getIndex(visitedNode);
+        if (componentIndex < 0) {
+            throw new ConfigurationException("The component " + visitedNode + " has no index, so it can't be " +
+                    "tracked as visited.");
+        }
+        visitedIndexes.set(componentIndex);
     }
 
     /**
@@ -92,6 +161,13 @@ public abstract class Ant<C, E extends Environment> {
         return getSolutionAsString(this.solution);
     }
 
+    /**
+     * Gets a solution as a String. It's used by getSolutionAsString() and by PerformanceTracker, that formats the
+     * best solution only when requested: override this method to customize the representation.
+     *
+     * @param solution Solution to format.
+     * @return Solution as a String.
+     */
     public String getSolutionAsString(List<C> solution) {
         StringBuilder solutionString = new StringBuilder();
         for (C c : solution) {
@@ -104,24 +180,62 @@ public abstract class Ant<C, E extends Environment> {
 
     public void addPolicy(AntPolicy<C, E> antPolicy) {
         this.policies.add(antPolicy);
+        this.policiesByType = null;
+        this.nodeSelectionPolicy = null;
     }
 
-    List<AntPolicy<C, E>> getAntPolicies(AntPolicyType policyType, int expectedNumber) {
-        List<AntPolicy<C, E>> selectedPolicies = new ArrayList<>();
+    /**
+     * Groups the policies of this ant by type, so the construction process can iterate them without filtering or
+     * allocating memory, verifies that there's exactly one node selection policy and binds every policy to this ant.
+     * <p>
+     * <p>
+     * If it wasn't called after adding policies, the first node selection calls it. Policies shared between ants -like
+     * the ones added through AntColony.addAntPolicies()- are bound again whenever another ant used them last.
+     */
+    public void compilePolicies() {
+        AntPolicy<C, E>[] nodeSelectionPolicies = getPoliciesByType(AntPolicyType.NODE_SELECTION);
+        checkNumberOfPolicies(AntPolicyType.NODE_SELECTION, nodeSelectionPolicies, ONE_POLICY);
 
-        for (AntPolicy<C, E> policy : policies) {
-            if (policyType.equals(policy.getPolicyType())) {
-                selectedPolicies.add(policy);
+        for (AntPolicy<C, E> antPolicy : policies) {
+            antPolicy.setAnt(this);
+        }
+        afterNodeSelectionPolicies = getPoliciesByType(AntPolicyType.AFTER_NODE_SELECTION);
+        nodeSelectionPolicy = nodeSelectionPolicies[0];
+    }
+
+    private AntPolicy<C, E>[] getPoliciesByType(AntPolicyType policyType) {
+        if (policiesByType == null) {
+            EnumMap<AntPolicyType, AntPolicy<C, E>[]> compiledPolicies = new EnumMap<>(AntPolicyType.class);
+            for (AntPolicyType type : AntPolicyType.values()) {
+                compiledPolicies.put(type, selectPolicies(type));
             }
+            policiesByType = compiledPolicies;
         }
 
-        if (expectedNumber > 0 && selectedPolicies.size() != expectedNumber) {
+        return policiesByType.get(policyType);
+    }
+
+    @SuppressWarnings("unchecked")
+    private AntPolicy<C, E>[] selectPolicies(AntPolicyType policyType) {
+        return policies.stream()
+                .filter(policy -> policyType.equals(policy.getPolicyType()))
+                .toArray(AntPolicy[]::new);
+    }
+
+    private static void checkNumberOfPolicies(AntPolicyType policyType, AntPolicy<?, ?>[] selectedPolicies,
+                                              int expectedNumber) {
+        if (expectedNumber > 0 && selectedPolicies.length != expectedNumber) {
             throw new ConfigurationException("The number of " + policyType
-                    + " policies was " + selectedPolicies.size() + ". We were expecting "
+                    + " policies was " + selectedPolicies.length + ". We were expecting "
                     + expectedNumber);
         }
+    }
+
+    List<AntPolicy<C, E>> getAntPolicies(AntPolicyType policyType, int expectedNumber) {
+        AntPolicy<C, E>[] selectedPolicies = getPoliciesByType(policyType);
+        checkNumberOfPolicies(policyType, selectedPolicies, expectedNumber);
 
-        return selectedPolicies;
+        return Arrays.asList(selectedPolicies);
     }
 
     /**
@@ -133,22 +247,25 @@ public abstract class Ant<C, E extends Environment> {
     public void selectNextNode(E environment,
                                ConfigurationProvider configurationProvider) {
 
-        AntPolicy<C, E> selectNodePolicity = getAntPolicies(
-                AntPolicyType.NODE_SELECTION, ONE_POLICY).get(0);
+        if (nodeSelectionPolicy == null) {
+            compilePolicies();
+        }
 
-        // TODO(cgavidia): With this approach, the policy is a shared resource between ants. This doesn't allow parallelism.
-        selectNodePolicity.setAnt(this);
-        boolean policyResult = selectNodePolicity.applyPolicy(environment, configurationProvider);
-        if (!policyResult) {
-            throw new ConfigurationException("The node selection policy " + selectNodePolicity.getClass().getName() +
+        nodeSelections++;
+        if (nodeSelectionPolicy.getAnt() != this) {
+            nodeSelectionPolicy.setAnt(this);
+        }
+        if (!nodeSelectionPolicy.applyPolicy(environment, configurationProvider)) {
+            throw new ConfigurationException("The node selection policy " + nodeSelectionPolicy.getClass().getName() +
                     " wasn't able to select a node.");
         }
 
-        List<AntPolicy<C, E>> afterNodeSelection = getAntPolicies(AntPolicyType.AFTER_NODE_SELECTION, DONT_CHECK_NUMBERS);
-        afterNodeSelection.forEach(antPolicy -> {
-            antPolicy.setAnt(this);
+        for (AntPolicy<C, E> antPolicy : afterNodeSelectionPolicies) {
+            if (antPolicy.getAnt() != this) {
+                antPolicy.setAnt(this);
+            }
             antPolicy.applyPolicy(environment, configurationProvider);
-        });
+        }
 
     }
 
@@ -160,13 +277,10 @@ public abstract class Ant<C, E extends Environment> {
      */
     public void doAfterSolutionIsReady(E environment,
                                        ConfigurationProvider configurationProvider) {
-        List<AntPolicy<C, E>> antPolicies = getAntPolicies(
-                AntPolicyType.AFTER_SOLUTION_IS_READY, DONT_CHECK_NUMBERS);
-        // TODO(cgavidia): With this approach, the policy is a shared resource between ants. This doesn't allow parallelism.
-        antPolicies.forEach(antPolicy -> {
+        for (AntPolicy<C, E> antPolicy : getPoliciesByType(AntPolicyType.AFTER_SOLUTION_IS_READY)) {
             antPolicy.setAnt(this);
             antPolicy.applyPolicy(environment, configurationProvider);
-        });
+        }
 
     }
 
@@ -178,6 +292,11 @@ public abstract class Ant<C, E extends Environment> {
      */
 
     public boolean isNodeVisited(C component) {
+        if (visitedIndexes != null) {
+            int componentIndex = componentIndexer.getIndex(component);
+            return componentIndex >= 0 && visitedIndexes.get(componentIndex);
+        }
+
         boolean visited = false;
 
         Boolean inVisitedMap = visitedComponents.get(component);
@@ -189,9 +308,90 @@ public abstract class Ant<C, E extends Environment> {
         return visited;
     }
 
+    /**
+     * Returns the cost of the current solution. The cost is calculated once, with getSolutionCost(environment,
+     * solution), and reused until the solution changes through visitNode(), clear(), replaceSolution() or
+     * setSolution(), or until it's requested for a different environment.
+     * <p>
+     * <p>
+     * If the solution list is modified directly, or the environment changes in a way that affects the cost, call
+     * invalidateSolutionCost().
+     *
+     * @param environment Environment instance with problem information.
+     * @return The cost of the current solution.
+     */
     public double getSolutionCost(E environment) {
-        return this.getSolutionCost(environment, this.solution);
+        if (!solutionCostValid || environment != evaluatedEnvironment) {
+            solutionEvaluations++;
+            if (supportsIncrementalCost()) {
+                solutionCost = getPartialSolutionCost(environment) + getClosingCost(environment);
+            } else {
+                solutionCost = this.getSolutionCost(environment, this.solution);
+            }
+            evaluatedEnvironment = environment;
+            solutionCostValid = true;
+        }
+
+        return solutionCost;
+    }
+
+    /**
+     * Discards the cached cost of the current solution, so the next call to getSolutionCost(environment) calculates
+     * it again.
+     */
+    public void invalidateSolutionCost() {
+        discardCachedCost();
+        this.partialCostValid = false;
+    }
+
+    private void discardCachedCost() {
+        this.solutionCostValid = false;
+        this.evaluatedEnvironment = null;
+    }
+
+    /**
+     * Returns the sum of the cost increments of the components visited so far, without the closing cost. It can be
+     * used as a bound while the solution is under construction. If the running total was discarded -for example,
+     * after setSolution()- it's rebuilt by replaying the increments of the current solution.
+     *
+     * @param environment Environment instance with problem information.
+     * @return Cost of the partial solution.
+     */
+    public double getPartialSolutionCost(E environment) {
+        if (!supportsIncrementalCost()) {
+            throw new MethodNotImplementedException();
+        }
+
+        if (!partialCostValid) {
+            double replayedCost = 0.0;
+            for (int position = 0; position < solution.size(); position++) {
+                replayedCost += getCostIncrement(solution.get(position), position, environment);
+            }
+            partialCost = replayedCost;
+            partialCostValid = true;
+        }
 
+        return partialCost;
+    }
+
+    /**
+     * Returns the number of times this ant has calculated the cost of its solution, via getSolutionCost(environment).
+     * Requests served from the cached cost are not counted. The counter is not reset between iterations.
+     *
+     * @return Number of solution evaluations.
+     */
+    public long getSolutionEvaluations() {
+        return solutionEvaluations;
+    }
+
+    /**
+     * Returns the number of calls to selectNextNode() performed by this ant. The counter is not reset between
+     * iterations.
+     *
+     * @return Number of node selections.
+     */
+    public long getNodeSelections() {
+        return nodeSelections;
     }
 
     /**
@@ -232,12 +432,50 @@ public abstract class Ant<C, E extends Environment> {
 
     /**
      * Calculates the cost associated to the solution build, which is needed to determine the performance of the Ant.
+     * The framework calls it through getSolutionCost(environment), that caches the cost of the current solution.
      *
      * @param environment Environment instance with problem information.
      * @return The cost of the solution built.
      */
     public abstract double getSolutionCost(E environment, List<C> solution);
 
+    /**
+     * Returns true if this ant calculates its cost incrementally, with getCostIncrement() and getClosingCost(). In that
+     * case, getSolutionCost(environment) returns the running total instead of calling getSolutionCost(environment,
+     * solution).
+     *
+     * @return True if incremental costs are supported. False by default.
+     */
+    public boolean supportsIncrementalCost() {
+        return false;
+    }
+
+    /**
+     * Calculates the cost added by appending a component to the solution. It's called by visitNode() before adding
+     * the component, and only when supportsIncrementalCost() returns true. The solution contains the previous
+     * components: use the ones at positions lower than positionInSolution, since the rest of the solution can be
+     * present when the running total is rebuilt.
+     *
+     * @param solutionComponent  Solution component.
+     * @param positionInSolution Position of this component in the solution.
+     * @param environment        Environment instance with problem information.
+     * @return Cost increment.
+     */
+    protected double getCostIncrement(C solutionComponent, int positionInSolution, E environment) {
+        throw new MethodNotImplementedException();
+    }
+
+    /**
+     * The cost that depends on the complete solution and is not covered by the increments, like the edge that closes
+     * a tour. It's added to the running total by getSolutionCost(environment).
+     *
+     * @param environment Environment instance with problem information.
+     * @return Closing cost. Zero by default.
+     */
+    protected double getClosingCost(E environment) {
+        return 0.0;
+    }
+
     /**
      * Calculates the heuristic contribution for the cost of the solution by adding a component at an specific position.
      *
@@ -271,6 +509,20 @@ public abstract class Ant<C, E extends Environment> {
     public abstract Double getPheromoneTrailValue(C solutionComponent,
                                                   Integer positionInSolution, E environment);
 
+    /**
+     * Returns the cached choice information (see Environment.getChoiceInformation()) associated to a solution
+     * component at an specific position. This is only required when the environment has the choice information cache
+     * enabled: it should read the same cell than getPheromoneTrailValue().
+     *
+     * @param solutionComponent  Solution component.
+     * @param positionInSolution Position of this component in the solution.
+     * @param environment        Environment instance with problem information.
+     * @return Choice information value.
+     */
+    public double getChoiceInformationValue(C solutionComponent, Integer positionInSolution, E environment) {
+        throw new MethodNotImplementedException();
+    }
+
     /**
      * Updates the value of a cell on the pheromone matrix.
      *
@@ -282,6 +534,43 @@ public abstract class Ant<C, E extends Environment> {
     public abstract void setPheromoneTrailValue(C solutionComponent,
                                                 Integer positionInSolution, E environment, Double value);
 
+    /**
+     * Updates the value of a cell on the pheromone matrix, as a function of its current value. Built-in pheromone
+     * deposits and local updates use this method.
+     * <p>
+     * <p>
+     * By default, it reads the value with getPheromoneTrailValue() and writes it with setPheromoneTrailValue(), which
+     * is not atomic. When several threads update the same environment, override it using
+     * Environment.updatePheromoneValue() so concurrent updates are not lost.
+     *
+     * @param solutionComponent  Solution component.
+     * @param positionInSolution Position of this component in the solution.
+     * @param environment        Environment instance with problem information.
+     * @param update             Function that calculates the new value from the current one.
+     */
+    public void updatePheromoneTrailValue(C solutionComponent, Integer positionInSolution, E environment,
+                                          DoubleUnaryOperator update) {
+        double currentValue = getPheromoneTrailValue(solutionComponent, positionInSolution, environment);
+        setPheromoneTrailValue(solutionComponent, positionInSolution, environment,
+                update.applyAsDouble(currentValue));
+    }
+
+    /**
+     * Marks as outdated the cached choice information of the pheromone cell associated to a solution component at an
+     * specific position, after updating it with setPheromoneTrailValue() or updatePheromoneTrailValue().
+     * <p>
+     * <p>
+     * By default, it invalidates the whole cache. Override it with Environment.invalidateChoiceInformation(int) to
+     * only invalidate the rows that changed -for symmetric problems, the row of each end of the edge.
+     *
+     * @param solutionComponent  Solution component.
+     * @param positionInSolution Position of this component in the solution.
+     * @param environment        Environment instance with problem information.
+     */
+    public void invalidateChoiceInformation(C solutionComponent, Integer positionInSolution, E environment) {
+        environment.invalidateChoiceInformation();
+    }
+
 
     public List<C> getSolution() {
         return solution;
@@ -289,8 +578,18 @@ public abstract class Ant<C, E extends Environment> {
 
     public void setSolution(List<C> solution) {
         this.solution = solution;
+        invalidateSolutionCost();
+        if (solution != null && solution.isEmpty()) {
+            this.partialCost = 0.0;
+            this.partialCostValid = true;
+        }
     }
 
+    /**
+     * Returns the map of visited components. It is only populated when the ant has no component indexer.
+     *
+     * @return Visited components.
+     */
     public Map<C, Boolean> getVisited() {
         return visitedComponents;
     }
@@ -299,5 +598,43 @@ public abstract class Ant<C, E extends Environment> {
         this.visitedComponents = visited;
     }
 
+    /**
+     * Assigns a component indexer to this ant. From now on, visited components are tracked in a bit set instead of a
+     * hash map. Components already in the solution are marked as visited. Every visited component needs an index:
+     * visiting a component without one throws a ConfigurationException.
+     *
+     * @param componentIndexer Component indexer, or null to track visited components in a map.
+     */
+    public void setComponentIndexer(ComponentIndexer<C> componentIndexer) {
+        this.componentIndexer = componentIndexer;
+        this.visitedComponents.clear();
+        this.visitedIndexes = null;
+
+        if (componentIndexer != null) {
+            this.visitedIndexes = new BitSet(componentIndexer.getNumberOfComponents());
+        }
+
+        if (getSolution() != null) {
+            getSolution().forEach(this::markAsVisited);
+        }
+    }
+
+    public ComponentIndexer<C> getComponentIndexer() {
+        return componentIndexer;
+    }
+
+    /**
+     * The random number stream of this ant, used by the built-in policies. When the solver has a RandomSource, a new
+     * stream is assigned before every iteration. Otherwise, the ant keeps an unseeded stream.
+     *
+     * @return Random number stream.
+     */
+    public SplittableRandom getRandom() {
+        return random;
+    }
+
+    public void setRandom(SplittableRandom random) {
+        this.random = random;
+    }
 
 }
@@ -1,12 +1,18 @@
 package isula.aco;
 
 import isula.aco.exception.ConfigurationException;
+import isula.aco.exception.SolutionConstructionException;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -22,12 +28,17 @@ public class AntColony<C, E extends Environment> {
 
     private static Logger logger = Logger.getLogger(AntColony.class.getName());
 
+    private static final int DEFAULT_CANCELLATION_CHECK_INTERVAL = 64;
+
     private int numberOfAnts;
     private List<Ant<C, E>> hive = new ArrayList<>();
     private List<AntPolicy<C, E>> antPolicies = new ArrayList<>();
+    private List<Supplier<AntPolicy<C, E>>> antPolicyFactories = new ArrayList<>();
 
+    private ExecutorService constructionExecutor;
     private Duration timeLimit;
     private int colonyIndex;
+    private int cancellationCheckInterval = DEFAULT_CANCELLATION_CHECK_INTERVAL;
 
     /**
      * Creates a colony of ants
@@ -42,13 +53,21 @@ public class AntColony<C, E extends Environment> {
 
     /**
      * Initialization code for the colony. The main responsibility is Ant
-     * instantiation.
+     * instantiation. Policies registered before calling this method are added
+     * to the new ants.
      *
      * @param environment Environment where the Ants are building solutions.
      */
     public void buildColony(E environment) {
         for (int j = 0; j < numberOfAnts; j++) {
-            hive.add(this.createAnt(environment));
+            Ant<C, E> ant = this.createAnt(environment);
+            for (AntPolicy<C, E> antPolicy : antPolicies) {
+                ant.addPolicy(antPolicy);
+            }
+            for (Supplier<AntPolicy<C, E>> antPolicyFactory : antPolicyFactories) {
+                addPolicyInstance(ant, antPolicyFactory);
+            }
+            hive.add(ant);
         }
     }
 
@@ -64,23 +83,24 @@ public class AntColony<C, E extends Environment> {
     }
 
     /**
-     * Returns the ant with the best performance so far, that is the one with the lowest cost.
+     * Returns the ant with the best performance so far, that is the one with the lowest cost. Only ants with a
+     * complete solution are considered.
      *
      * @param environment Environment where the Ants are building solutions.
-     * @return Best performing Ant.
+     * @return Best performing Ant, or the first ant of the colony if no solution is complete.
      */
     public Ant<C, E> getBestPerformingAnt(E environment) {
-        Ant<C, E> bestAnt = hive.get(0);
+        Ant<C, E> bestAnt = null;
 
         for (Ant<C, E> ant : hive) {
 
             if (ant.isSolutionReady(environment) &&
-                    (ant.getSolutionCost(environment) < bestAnt.getSolutionCost(environment))) {
+                    (bestAnt == null || ant.getSolutionCost(environment) < bestAnt.getSolutionCost(environment))) {
                 bestAnt = ant;
             }
         }
 
-        return bestAnt;
+        return bestAnt != null ? bestAnt : hive.get(0);
     }
 
     /**
@@ -96,7 +116,7 @@ public class AntColony<C, E extends Environment> {
      * Clears solution build for every Ant in the colony.
      */
     public void clearAntSolutions() {
-        logger.log(Level.FINE, "CLEARING ANT SOLUTIONS");
+        Trace.trace(AntColony.class, "CLEARING ANT SOLUTIONS");
 
         for (Ant<C, E> ant : hive) {
             ant.clear();
@@ -109,11 +129,50 @@ public class AntColony<C, E extends Environment> {
      *
      * @param environment           Environment that represents the problem.
      * @param configurationProvider Configuration provider.
+     * @param executionStartTime    Start time of the execution, used to enforce the time limit.
+     * @return True if the time limit was reached, false otherwise.
      */
     public boolean buildSolutions(E environment,
                                   ConfigurationProvider configurationProvider,
                                   Instant executionStartTime) {
-        logger.log(Level.FINE, "BUILDING ANT SOLUTIONS");
+        return buildSolutionsUntilCancelled(environment, configurationProvider,
+                createCancellationToken(new CancellationToken(), executionStartTime));
+    }
+
+    /**
+     * Creates the token that stops the construction of this colony: it's cancelled with the token provided, or when
+     * the time limit of the colony passes.
+     *
+     * @param cancellationToken  Token of the solver.
+     * @param executionStartTime Start time of the execution, or null to count the time limit from now.
+     * @return Cancellation token for the colony.
+     */
+    public CancellationToken createCancellationToken(CancellationToken cancellationToken,
+                                                     Instant executionStartTime) {
+        if (timeLimit == null) {
+            return cancellationToken;
+        }
+
+        Duration remainingTime = timeLimit;
+        if (executionStartTime != null) {
+            remainingTime = timeLimit.minus(Duration.between(executionStartTime, Instant.now()));
+        }
+        return cancellationToken.createChild(remainingTime);
+    }
+
+    /**
+     * Puts every ant in the colony to build a solution, until the token is cancelled. Ants check the token every
+     * few node selections, so a cancelled construction leaves some ants with incomplete solutions. These solutions
+     * are ignored by the performance tracker and the pheromone update.
+     *
+     * @param environment           Environment that represents the problem.
+     * @param configurationProvider Configuration provider.
+     * @param cancellationToken     Stops the construction when cancelled.
+     * @return True if the token was cancelled, false otherwise.
+     */
+    public boolean buildSolutionsUntilCancelled(E environment, ConfigurationProvider configurationProvider,
+                                                CancellationToken cancellationToken) {
+        Trace.trace(AntColony.class, "BUILDING ANT SOLUTIONS");
 
         int antCounter = 0;
 
@@ -124,19 +183,16 @@ public class AntColony<C, E extends Environment> {
                             configurationProvider.getNumberOfAnts());
         }
 
-        for (Ant<C, E> ant : hive) {
-            logger.log(Level.FINE, "Current ant: {0}", antCounter);
-
-            while (!ant.isSolutionReady(environment)) {
-                ant.selectNextNode(environment, configurationProvider);
-            }
+        if (constructionExecutor != null) {
+            return buildSolutionsInParallel(environment, configurationProvider, cancellationToken);
+        }
 
-            ant.doAfterSolutionIsReady(environment, configurationProvider);
-            logger.log(Level.FINE,
-                    "Solution is ready > Cost: {0} , Solution: {1}", new Object[]{ant.getSolutionCost(environment)
-                            , ant.getSolutionAsString()});
+        for (Ant<C, E> ant : hive) {
+            int currentAnt = antCounter;
+            Trace.trace(AntColony.class, () -> "Current ant: " + currentAnt);
 
-            if (shouldTerminateExecution(executionStartTime)) {
+            if (!buildSolution(ant, environment, configurationProvider, cancellationToken)) {
+                logCancellation(cancellationToken);
                 return true;
             }
             antCounter++;
@@ -145,21 +201,87 @@ public class AntColony<C, E extends Environment> {
         return false;
     }
 
-    private boolean shouldTerminateExecution(Instant executionStartTime) {
+    /**
+     * Makes the ants of the colony build their solutions concurrently, using the construction executor. Every ant
+     * needs its own policy instances, so policies should be registered through factories.
+     *
+     * @param environment           Environment that represents the problem.
+     * @param configurationProvider Configuration provider.
+     * @param cancellationToken     Stops the construction when cancelled.
+     * @return True if the token was cancelled, false otherwise.
+     */
+    private boolean buildSolutionsInParallel(E environment, ConfigurationProvider configurationProvider,
+                                             CancellationToken cancellationToken) {
+        if (!antPolicies.isEmpty()) {
+            throw new ConfigurationException("Parallel construction requires a policy instance per ant, but the " +
+                    "policies " + antPolicies + " are shared by the whole colony. Register them through " +
+                    "policy factories instead.");
+        }
 
-        if (timeLimit != null && executionStartTime != null) {
-            Duration elapsedTime = Duration.between(executionStartTime, Instant.now());
+        List<Callable<Boolean>> constructionTasks = new ArrayList<>();
+        for (Ant<C, E> ant : hive) {
+            constructionTasks.add(() -> buildSolution(ant, environment, configurationProvider, cancellationToken));
+        }
 
-            if (elapsedTime.compareTo(timeLimit) > 0) {
-                logger.warning("TIMEOUT: Finishing solution generation after " + elapsedTime.getSeconds() +
-                        " seconds.");
-                return true;
+        try {
+            for (Future<Boolean> constructionResult : constructionExecutor.invokeAll(constructionTasks)) {
+                constructionResult.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SolutionConstructionException("Solution construction was interrupted for colony " +
+                    colonyIndex);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
+            throw new SolutionConstructionException("An ant failed to build its solution: " + e.getCause());
         }
 
+        if (cancellationToken.isCancelled()) {
+            logCancellation(cancellationToken);
+            return true;
+        }
         return false;
     }
 
+    /**
+     * Makes an ant build its solution, checking the token every few node selections.
+     *
+     * @return True if the solution was completed, false if the token was cancelled.
+     */
+    private boolean buildSolution(Ant<C, E> ant, E environment, ConfigurationProvider configurationProvider,
+                                  CancellationToken cancellationToken) {
+        if (cancellationToken.isCancelled()) {
+            return false;
+        }
+
+        ant.compilePolicies();
+        int selections = 0;
+        while (!ant.isSolutionReady(environment)) {
+            ant.selectNextNode(environment, configurationProvider);
+
+            selections++;
+            if (selections % cancellationCheckInterval == 0 && cancellationToken.isCancelled()) {
+                return false;
+            }
+        }
+
+        if (cancellationToken.isCancelled()) {
+            return false;
+        }
+
+        ant.doAfterSolutionIsReady(environment, configurationProvider);
+        Trace.trace(AntColony.class, () -> "Solution is ready > Cost: " + ant.getSolutionCost(environment) +
+                " , Solution: " + ant.getSolutionAsString());
+        return !cancellationToken.isCancelled();
+    }
+
+    private void logCancellation(CancellationToken cancellationToken) {
+        logger.log(Level.WARNING, " Colony index: {0} Execution cancelled: Finishing solution generation. {1}",
+                new Object[]{colonyIndex, cancellationToken});
+    }
+
     /**
      * Adds a list of policies to every Ant in the Colony. This are ant-specific behaviours, like component selection
      * while building solutions.
@@ -179,10 +301,66 @@ public class AntColony<C, E extends Environment> {
         }
     }
 
+    /**
+     * Adds a list of policy factories to the Colony. Every Ant gets its own policy instances, so ants don't share
+     * state while building solutions. This is required for parallel solution construction.
+     *
+     * @param antPolicyFactories List of policy factories.
+     */
+    @SafeVarargs
+    public final void addAntPolicies(Supplier<AntPolicy<C, E>>... antPolicyFactories) {
+
+        Collections.addAll(this.antPolicyFactories, antPolicyFactories);
+
+        for (Ant<C, E> ant : getHive()) {
+            for (Supplier<AntPolicy<C, E>> antPolicyFactory : antPolicyFactories) {
+                addPolicyInstance(ant, antPolicyFactory);
+            }
+        }
+    }
+
+    private void addPolicyInstance(Ant<C, E> ant, Supplier<AntPolicy<C, E>> antPolicyFactory) {
+        AntPolicy<C, E> antPolicy = antPolicyFactory.get();
+        antPolicy.setAnt(ant);
+        ant.addPolicy(antPolicy);
+    }
+
+    /**
+     * Enables parallel solution construction: ants build their solutions concurrently on the executor provided.
+     * Ants share the environment, so pheromone updates performed while constructing (like in Ant Colony System)
+     * need to be safe for concurrent access. Use null to go back to sequential construction.
+     *
+     * @param constructionExecutor Executor for solution construction.
+     */
+    public void setConstructionExecutor(ExecutorService constructionExecutor) {
+        this.constructionExecutor = constructionExecutor;
+    }
+
+    public ExecutorService getConstructionExecutor() {
+        return constructionExecutor;
+    }
+
     public void setTimeLimit(Duration timeLimit) {
         this.timeLimit = timeLimit;
     }
 
+    public Duration getTimeLimit() {
+        return timeLimit;
+    }
+
+    /**
+     * Sets how often ants check the cancellation token while building their solutions.
+     *
+     * @param cancellationCheckInterval Number of node selections between checks.
+     */
+    public void setCancellationCheckInterval(int cancellationCheckInterval) {
+        if (cancellationCheckInterval < 1) {
+            throw new ConfigurationException("The cancellation check interval should be at least 1. Current value: " +
+                    cancellationCheckInterval);
+        }
+        this.cancellationCheckInterval = cancellationCheckInterval;
+    }
+
     public void setColonyIndex(int colonyIndex) {
         this.colonyIndex = colonyIndex;
     }
@@ -204,6 +382,7 @@ public class AntColony<C, E extends Environment> {
         return "AntColony{" +
                 "numberOfAnts=" + numberOfAnts +
                 ", antPolicies=" + antPolicies +
+                ", antPolicyFactories=" + antPolicyFactories.size() +
                 ", colonyIndex=" + colonyIndex +
                 '}';
     }
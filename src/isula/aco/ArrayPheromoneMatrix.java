@@ -0,0 +1,135 @@
+package isula.aco;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A pheromone matrix backed by a double[][] array. Changes on the array are visible through this matrix, and the
+ * other way around. This is the storage used by Environments that create their pheromone matrix with
+ * createPheromoneMatrix().
+ *
+ * @author Carlos G. Gavidia
+ */
+public class ArrayPheromoneMatrix implements PheromoneMatrix {
+
+    private static final VarHandle CELL = MethodHandles.arrayElementVarHandle(double[].class);
+
+    private final double[][] values;
+
+    public ArrayPheromoneMatrix(double[][] values) {
+        this.values = values;
+    }
+
+    /**
+     * The backing array, not a copy.
+     *
+     * @return Pheromone values.
+     */
+    public double[][] getValues() {
+        return values;
+    }
+
+    @Override
+    public int getRows() {
+        return values.length;
+    }
+
+    @Override
+    public int getColumns() {
+        if (values.length == 0) {
+            return 0;
+        }
+        return values[0].length;
+    }
+
+    @Override
+    public int getColumns(int row) {
+        return values[row].length;
+    }
+
+    @Override
+    public double get(int row, int column) {
+        return values[row][column];
+    }
+
+    @Override
+    public void set(int row, int column, double value) {
+        values[row][column] = value;
+    }
+
+    @Override
+    public double getVolatile(int row, int column) {
+        return (double) CELL.getVolatile(values[row], column);
+    }
+
+    @Override
+    public double update(int row, int column, DoubleUnaryOperator update) {
+        double[] valuesRow = values[row];
+
+        double currentValue;
+        double newValue;
+        do {
+            currentValue = (double) CELL.getVolatile(valuesRow, column);
+            newValue = update.applyAsDouble(currentValue);
+        } while (!CELL.compareAndSet(valuesRow, column, currentValue, newValue));
+
+        return newValue;
+    }
+
+    @Override
+    public void fill(double value) {
+        PheromoneKernels.apply(values, PheromoneKernels.fill(value));
+    }
+
+    @Override
+    public void scale(double factor) {
+        PheromoneKernels.apply(values, PheromoneKernels.scale(factor));
+    }
+
+    @Override
+    public void scaleAndClamp(double factor, double minimum) {
+        PheromoneKernels.apply(values, PheromoneKernels.scaleAndClamp(factor, minimum));
+    }
+
+    @Override
+    public void add(double amount) {
+        PheromoneKernels.apply(values, PheromoneKernels.add(amount));
+    }
+
+    @Override
+    public void transform(DoubleUnaryOperator operator) {
+        for (double[] valuesRow : values) {
+            for (int column = 0; column < valuesRow.length; column++) {
+                valuesRow[column] = operator.applyAsDouble(valuesRow[column]);
+            }
+        }
+    }
+
+    @Override
+    public void copyRow(int row, double[] destination) {
+        System.arraycopy(values[row], 0, destination, 0, values[row].length);
+    }
+
+    @Override
+    public ArrayPheromoneMatrix copy() {
+        return new ArrayPheromoneMatrix(toArray());
+    }
+
+    @Override
+    public double[][] toArray() {
+        double[][] valuesCopy = new double[values.length][];
+        for (int row = 0; row < values.length; row++) {
+            valuesCopy[row] = values[row].clone();
+        }
+        return valuesCopy;
+    }
+
+    @Override
+    public String toString() {
+        return "ArrayPheromoneMatrix{" +
+                "rows=" + getRows() +
+                ", columns=" + getColumns() +
+                '}';
+    }
+}
@@ -0,0 +1,112 @@
+package isula.aco;
+
+import java.time.Duration;
+
+/**
+ * Stops a running solver from another thread, or when a deadline passes. Deadlines are measured with
+ * System.nanoTime(), so they are not affected by changes in the wall clock.
+ * <p>
+ * <p>
+ * The solver checks the token while ants select nodes -every few selections, see
+ * AntColony.setCancellationCheckInterval()- and between daemon actions. Once cancelled, the ants that didn't complete
+ * their solutions are ignored, the remaining daemon actions of the iteration are skipped and solveProblem() returns
+ * the best solution found so far. Long-running daemon actions can check the token of their solver with
+ * getProblemSolver().getCancellationToken().
+ * <p>
+ * <p>
+ * A token can't be reset: use a new one for every execution.
+ *
+ * @author Carlos G. Gavidia
+ */
+public class CancellationToken {
+
+    private final CancellationToken parent;
+    private final boolean hasDeadline;
+    private final long deadline;
+
+    private volatile boolean cancelled;
+
+    /**
+     * Creates a token without deadline, that is only cancelled through cancel().
+     */
+    public CancellationToken() {
+        this(null, false, 0L);
+    }
+
+    private CancellationToken(CancellationToken parent, boolean hasDeadline, long deadline) {
+        this.parent = parent;
+        this.hasDeadline = hasDeadline;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Creates a token that is cancelled once the timeout passes, counting from now.
+     *
+     * @param timeout Maximum execution time.
+     * @return Cancellation token.
+     */
+    public static CancellationToken withTimeout(Duration timeout) {
+        return new CancellationToken(null, true, System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * Creates a token that is cancelled when this one is, or once the timeout passes, whatever happens first.
+     * Cancelling the new token doesn't cancel this one.
+     *
+     * @param timeout Maximum execution time, counting from now.
+     * @return Cancellation token.
+     */
+    public CancellationToken createChild(Duration timeout) {
+        return new CancellationToken(this, true, System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * Requests the solver to stop. It can be called from any thread.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Returns true if cancel() was called, or the deadline passed.
+     *
+     * @return True if the execution should stop.
+     */
+    public boolean isCancelled() {
+        if (cancelled) {
+            return true;
+        }
+
+        if ((hasDeadline && System.nanoTime() - deadline >= 0) || (parent != null && parent.isCancelled())) {
+            cancelled = true;
+        }
+        return cancelled;
+    }
+
+    /**
+     * Time left until the deadline.
+     *
+     * @return Remaining time, zero if the token is cancelled, or null if there's no deadline.
+     */
+    public Duration getRemainingTime() {
+        if (isCancelled()) {
+            return Duration.ZERO;
+        }
+
+        Duration remainingTime = hasDeadline ? Duration.ofNanos(Math.max(0L, deadline - System.nanoTime())) : null;
+        Duration parentRemainingTime = parent == null ? null : parent.getRemainingTime();
+        if (remainingTime == null ||
+                (parentRemainingTime != null && parentRemainingTime.compareTo(remainingTime) < 0)) {
+            return parentRemainingTime;
+        }
+        return remainingTime;
+    }
+
+    @Override
+    public String toString() {
+        return "CancellationToken{" +
+                "cancelled=" + cancelled +
+                ", remainingTime=" + getRemainingTime() +
+                '}';
+    }
+}
@@ -0,0 +1,64 @@
+package isula.aco;
+
+/**
+ * Maps solution components to consecutive integer indexes, starting from zero. This is an optional contract: when an
+ * Ant has an indexer available, it can track visited components with a bit set instead of a hash map, avoiding
+ * boxing and hashing while constructing solutions.
+ *
+ * @param <C> Class for components of a solution.
+ * @author Carlos G. Gavidia
+ */
+public interface ComponentIndexer<C> {
+
+    /**
+     * Number of components available in the problem. Indexes go from zero to this value minus one.
+     *
+     * @return Number of components.
+     */
+    int getNumberOfComponents();
+
+    /**
+     * Obtains the index associated with a solution component.
+     *
+     * @param component Solution component.
+     * @return The component index, or a negative value if the component has no index.
+     */
+    int getIndex(C component);
+
+    /**
+     * Obtains the solution component associated with an index.
+     *
+     * @param index Component index.
+     * @return Solution component.
+     */
+    C getComponent(int index);
+
+    /**
+     * An indexer for problems where the components are already integers between zero and the number of components.
+     *
+     * @param numberOfComponents Number of components in the problem.
+     * @return Component indexer.
+     */
+    static ComponentIndexer<Integer> forIntegers(int numberOfComponents) {
+        return new ComponentIndexer<>() {
+
+            @Override
+            public int getNumberOfComponents() {
+                return numberOfComponents;
+            }
+
+            @Override
+            public int getIndex(Integer component) {
+                if (component == null || component >= numberOfComponents) {
+                    return -1;
+                }
+                return component;
+            }
+
+            @Override
+            public Integer getComponent(int index) {
+                return index;
+            }
+        };
+    }
+}
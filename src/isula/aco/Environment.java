@@ -2,6 +2,9 @@ package isula.aco;
 
 import isula.aco.exception.ConfigurationException;
 
+import java.util.BitSet;
+import java.util.function.DoubleUnaryOperator;
+
 /**
  * The place that our ants traverse, where they gather the information to build
  * solutions.
@@ -10,15 +13,38 @@ import isula.aco.exception.ConfigurationException;
  * This class manages the access to the problem representation - as an array
  * of doubles- and to the pheromone matrix. Each concrete class needs to define a
  * way to build a pheromone matrix to the problem to be solved.
+ * <p>
+ * <p>
+ * Optionally, an environment can cache choice information: the product of pheromone and heuristic values, raised to
+ * their importance coefficients, for every cell of the pheromone matrix. The cache is enabled by providing a
+ * heuristic matrix, and it is refreshed on demand after pheromone updates. Refreshes don't modify the arrays already
+ * returned by getChoiceInformation(): they publish new ones, so readers in other threads never see a row half
+ * recalculated.
+ * <p>
+ * <p>
+ * Pheromone cells can be updated atomically with updatePheromoneValue(), so several threads can deposit pheromone
+ * on the same environment without losing updates. When concurrent pheromone updates are enabled, bulk operations
+ * like evaporation are also atomic for each cell, although not for the whole matrix: other threads can observe a
+ * partially evaporated matrix.
  *
  * @author Carlos G. Gavidia
  */
 public abstract class Environment {
 
-
     // TODO(cgavidia): We're supporting pheromone deposition on vertex. On other
     // problems, the pheromone is deposited on edges.
-    private double[][] pheromoneMatrix;
+    private PheromoneMatrix pheromones;
+
+    private double[][] heuristicMatrix;
+    private double[][] weightedHeuristicMatrix;
+    private double weightedHeuristicImportance = Double.NaN;
+    private volatile double[][] choiceInformation;
+
+    private volatile boolean choiceInformationStale = true;
+    private boolean allChoiceInformationStale = true;
+    private final BitSet staleChoiceInformationRows = new BitSet();
+
+    private volatile boolean concurrentPheromoneUpdates;
 
     /**
      * Creates a pheromone matrix depending of the nature of the problem to solve.
@@ -29,20 +55,65 @@ public abstract class Environment {
      */
     protected abstract double[][] createPheromoneMatrix();
 
+    /**
+     * Creates the storage for pheromone values. By default, it wraps the array returned by createPheromoneMatrix():
+     * override it to use another implementation, like FlatPheromoneMatrix. For problems where a dense matrix doesn't
+     * fit in memory, return a SparsePheromoneMatrix here and null from createPheromoneMatrix().
+     *
+     * @return Pheromone matrix, or null if it's not available yet.
+     */
+    protected PheromoneMatrix createPheromones() {
+        double[][] pheromoneMatrix = createPheromoneMatrix();
+        if (pheromoneMatrix == null) {
+            return null;
+        }
+        return new ArrayPheromoneMatrix(pheromoneMatrix);
+    }
+
     /**
      * Creates an Environment for the Ants to traverse.
      */
     protected Environment() {
-        this.pheromoneMatrix = createPheromoneMatrix();
+        this.pheromones = createPheromones();
 
     }
 
     public void setPheromoneMatrix(double[][] pheromoneMatrix) {
-        this.pheromoneMatrix = pheromoneMatrix;
+        setPheromones(pheromoneMatrix == null ? null : new ArrayPheromoneMatrix(pheromoneMatrix));
     }
 
+    /**
+     * Returns the array that stores the pheromone values: changes on it affect the environment. This is only
+     * available when the pheromone matrix is backed by an array (the default). For other implementations, like
+     * FlatPheromoneMatrix, use getPheromones() to read and update pheromone values, and getPheromones().toArray() to
+     * obtain a copy.
+     *
+     * @return Pheromone values.
+     * @throws ConfigurationException If the pheromone matrix is not backed by an array.
+     */
     public double[][] getPheromoneMatrix() {
-        return pheromoneMatrix;
+        if (pheromones == null) {
+            return null;
+        }
+
+        if (!(pheromones instanceof ArrayPheromoneMatrix)) {
+            throw new ConfigurationException("The pheromone matrix " + pheromones + " is not backed by an array. " +
+                    "Use getPheromones() to access pheromone values.");
+        }
+        return ((ArrayPheromoneMatrix) pheromones).getValues();
+    }
+
+    public void setPheromones(PheromoneMatrix pheromones) {
+        if (concurrentPheromoneUpdates && pheromones != null && !pheromones.supportsConcurrentUpdates()) {
+            throw new ConfigurationException("Concurrent pheromone updates are enabled, and they are not supported " +
+                    "by " + pheromones);
+        }
+        this.pheromones = pheromones;
+        this.invalidateChoiceInformation();
+    }
+
+    public PheromoneMatrix getPheromones() {
+        return pheromones;
     }
 
 
@@ -52,19 +123,17 @@ public abstract class Environment {
      * @param pheromoneValue Value to assign.
      */
     public void populatePheromoneMatrix(double pheromoneValue) {
-        if (pheromoneMatrix == null || pheromoneMatrix.length == 0) {
+        if (pheromones == null || pheromones.getRows() == 0) {
             throw new ConfigurationException("The pheromone matrix is not properly configured. Verify the implementation of " +
                     "the createPheromoneMatrix() method.");
         }
 
-        int matrixRows = pheromoneMatrix.length;
-        int matrixColumns = pheromoneMatrix[0].length;
-
-        for (int i = 0; i < matrixRows; i++) {
-            for (int j = 0; j < matrixColumns; j++) {
-                pheromoneMatrix[i][j] = pheromoneValue;
-            }
+        if (concurrentPheromoneUpdates) {
+            applyAtomically(currentValue -> pheromoneValue);
+        } else {
+            pheromones.fill(pheromoneValue);
         }
+        invalidateChoiceInformation();
     }
 
     /**
@@ -73,15 +142,251 @@ public abstract class Environment {
      * @param factor Factor for multiplication.
      */
     public void applyFactorToPheromoneMatrix(double factor) {
-        int matrixRows = pheromoneMatrix.length;
-        int matrixColumns = pheromoneMatrix[0].length;
+        if (concurrentPheromoneUpdates) {
+            applyAtomically(pheromoneValue -> pheromoneValue * factor);
+        } else {
+            pheromones.scale(factor);
+        }
+        invalidateChoiceInformation();
+    }
+
+    /**
+     * Multiplies every cell in the pheromone matrix by a factor, without letting any value fall below a minimum.
+     *
+     * @param factor       Factor for multiplication.
+     * @param minimumValue Minimum pheromone value.
+     */
+    public void applyFactorToPheromoneMatrix(double factor, double minimumValue) {
+        if (concurrentPheromoneUpdates) {
+            applyAtomically(pheromoneValue -> Math.max(pheromoneValue * factor, minimumValue));
+        } else {
+            pheromones.scaleAndClamp(factor, minimumValue);
+        }
+        invalidateChoiceInformation();
+    }
+
+    private void applyAtomically(DoubleUnaryOperator update) {
+        int matrixRows = pheromones.getRows();
+        int matrixColumns = pheromones.getColumns();
 
         for (int i = 0; i < matrixRows; i++) {
             for (int j = 0; j < matrixColumns; j++) {
-                double newValue = pheromoneMatrix[i][j] * factor;
-                pheromoneMatrix[i][j] = newValue;
+                pheromones.update(i, j, update);
             }
         }
     }
 
+    /**
+     * Reads a cell of the pheromone matrix, observing the latest value written by any thread.
+     *
+     * @param row    Row index.
+     * @param column Column index.
+     * @return Pheromone value.
+     */
+    public double getPheromoneValue(int row, int column) {
+        return pheromones.getVolatile(row, column);
+    }
+
+    /**
+     * Atomically updates a cell of the pheromone matrix, using compare-and-set: if another thread changes the cell
+     * concurrently, the update function is applied again over the new value. This way, concurrent deposits are never
+     * lost. The update function should be free of side effects.
+     * <p>
+     * <p>
+     * The choice information cache is not invalidated: callers are expected to do it once they finish updating.
+     *
+     * @param row    Row index.
+     * @param column Column index.
+     * @param update Function that calculates the new value from the current one.
+     * @return The new pheromone value.
+     */
+    public double updatePheromoneValue(int row, int column, DoubleUnaryOperator update) {
+        return pheromones.update(row, column, update);
+    }
+
+    /**
+     * Makes bulk operations over the pheromone matrix atomic for each cell. Enable it when several threads update
+     * this environment while others evaporate or reset it, like colonies sharing an environment in
+     * ParallelAcoProblemSolver.
+     *
+     * @param concurrentPheromoneUpdates True to enable concurrent updates.
+     */
+    public void setConcurrentPheromoneUpdates(boolean concurrentPheromoneUpdates) {
+        if (concurrentPheromoneUpdates && pheromones != null && !pheromones.supportsConcurrentUpdates()) {
+            throw new ConfigurationException("Concurrent pheromone updates are not supported by " + pheromones);
+        }
+        this.concurrentPheromoneUpdates = concurrentPheromoneUpdates;
+    }
+
+    public boolean isConcurrentPheromoneUpdates() {
+        return concurrentPheromoneUpdates;
+    }
+
+    /**
+     * Makes evaporation take constant time, by wrapping the current pheromone matrix in a
+     * LazyEvaporationPheromoneMatrix. Evaporation is applied to a cell only when it's read or updated, so the cost of
+     * an iteration is proportional to the cells the ants use.
+     * <p>
+     * <p>
+     * Ants need to access pheromone through getPheromones(), getPheromoneValue() or updatePheromoneValue(), since
+     * getPheromoneMatrix() is no longer available. Also, the choice information cache recalculates every cell after
+     * evaporation, so it's not recommended in this mode.
+     */
+    public void enableLazyEvaporation() {
+        if (concurrentPheromoneUpdates) {
+            throw new ConfigurationException("Lazy evaporation is not supported with concurrent pheromone updates.");
+        }
+
+        if (pheromones instanceof SparsePheromoneMatrix) {
+            throw new ConfigurationException("Lazy evaporation is not supported with sparse pheromone storage: " +
+                    "sparse matrices already evaporate in time proportional to the stored cells.");
+        }
+
+        if (!isLazyEvaporationEnabled()) {
+            setPheromones(new LazyEvaporationPheromoneMatrix(pheromones));
+        }
+    }
+
+    public boolean isLazyEvaporationEnabled() {
+        return pheromones instanceof LazyEvaporationPheromoneMatrix;
+    }
+
+    /**
+     * Enables the choice information cache. The heuristic matrix needs to have the same dimensions than the
+     * pheromone matrix, and its values are not expected to change.
+     *
+     * @param heuristicMatrix Heuristic value for each cell of the pheromone matrix, or null to disable the cache.
+     */
+    public synchronized void setHeuristicMatrix(double[][] heuristicMatrix) {
+        this.heuristicMatrix = heuristicMatrix;
+        this.weightedHeuristicMatrix = null;
+        this.weightedHeuristicImportance = Double.NaN;
+        this.choiceInformation = null;
+        this.invalidateChoiceInformation();
+    }
+
+    public double[][] getHeuristicMatrix() {
+        return heuristicMatrix;
+    }
+
+    public boolean isChoiceInformationEnabled() {
+        return heuristicMatrix != null;
+    }
+
+    /**
+     * Returns the cached choice information. Call updateChoiceInformation() before reading it, to make sure it
+     * reflects the latest pheromone updates.
+     * <p>
+     * <p>
+     * The returned matrix is a snapshot: later refreshes publish a new matrix -sharing the rows that didn't change-
+     * instead of writing over this one. Don't modify it.
+     *
+     * @return Choice information matrix, or null if the cache is not enabled.
+     */
+    public double[][] getChoiceInformation() {
+        return choiceInformation;
+    }
+
+    /**
+     * Marks all the choice information as outdated. It is refreshed by the next call to updateChoiceInformation().
+     * Pheromone updates performed through this class already call this method.
+     */
+    public synchronized void invalidateChoiceInformation() {
+        allChoiceInformationStale = true;
+        choiceInformationStale = true;
+    }
+
+    /**
+     * Marks the choice information of a pheromone matrix row as outdated. Use it when a pheromone update only
+     * affects a few rows, so the next refresh only recalculates those.
+     *
+     * @param row Row of the pheromone matrix.
+     */
+    public synchronized void invalidateChoiceInformation(int row) {
+        staleChoiceInformationRows.set(row);
+        choiceInformationStale = true;
+    }
+
+    /**
+     * Recalculates the outdated cells of the choice information cache. It does nothing if the cache is not enabled
+     * or if there were no pheromone updates since the last refresh.
+     *
+     * @param configurationProvider Algorithm configuration, with the pheromone and heuristic importance.
+     */
+    public void updateChoiceInformation(ConfigurationProvider configurationProvider) {
+        if (heuristicMatrix != null && choiceInformationStale) {
+            refreshChoiceInformation(configurationProvider);
+        }
+    }
+
+    private synchronized void refreshChoiceInformation(ConfigurationProvider configurationProvider) {
+        if (!choiceInformationStale) {
+            return;
+        }
+
+        int pheromoneRows = pheromones.getRows();
+        if (heuristicMatrix.length != pheromoneRows) {
+            throw new ConfigurationException("The heuristic matrix has " + heuristicMatrix.length + " rows, but the " +
+                    "pheromone matrix has " + pheromoneRows);
+        }
+
+        double heuristicImportance = configurationProvider.getHeuristicImportance();
+        if (weightedHeuristicMatrix == null || weightedHeuristicImportance != heuristicImportance) {
+            weightedHeuristicMatrix = new double[heuristicMatrix.length][];
+            for (int row = 0; row < heuristicMatrix.length; row++) {
+                weightedHeuristicMatrix[row] = new double[heuristicMatrix[row].length];
+                for (int column = 0; column < heuristicMatrix[row].length; column++) {
+                    weightedHeuristicMatrix[row][column] = power(heuristicMatrix[row][column], heuristicImportance);
+                }
+            }
+            weightedHeuristicImportance = heuristicImportance;
+            allChoiceInformationStale = true;
+        }
+
+        double[][] refreshedChoiceInformation;
+        if (choiceInformation == null || choiceInformation.length != pheromoneRows) {
+            refreshedChoiceInformation = new double[pheromoneRows][];
+            allChoiceInformationStale = true;
+        } else {
+            refreshedChoiceInformation = choiceInformation.clone();
+        }
+
+        double pheromoneImportance = configurationProvider.getPheromoneImportance();
+        if (allChoiceInformationStale) {
+            for (int row = 0; row < pheromoneRows; row++) {
+                refreshedChoiceInformation[row] = calculateChoiceInformationRow(row, pheromoneImportance);
+            }
+        } else {
+            for (int row = staleChoiceInformationRows.nextSetBit(0); row >= 0;
+                 row = staleChoiceInformationRows.nextSetBit(row + 1)) {
+                refreshedChoiceInformation[row] = calculateChoiceInformationRow(row, pheromoneImportance);
+            }
+        }
+
+        choiceInformation = refreshedChoiceInformation;
+        staleChoiceInformationRows.clear();
+        allChoiceInformationStale = false;
+        choiceInformationStale = false;
+    }
+
+    private double[] calculateChoiceInformationRow(int row, double pheromoneImportance) {
+        double[] weightedHeuristicRow = weightedHeuristicMatrix[row];
+        int rowLength = weightedHeuristicRow.length;
+
+        double[] choiceInformationRow = new double[rowLength];
+        pheromones.copyRow(row, choiceInformationRow);
+        for (int column = 0; column < rowLength; column++) {
+            choiceInformationRow[column] = power(choiceInformationRow[column], pheromoneImportance)
+                    * weightedHeuristicRow[column];
+        }
+        return choiceInformationRow;
+    }
+
+    private static double power(double base, double exponent) {
+        if (exponent == 1.0) {
+            return base;
+        }
+        return Math.pow(base, exponent);
+    }
+
 }
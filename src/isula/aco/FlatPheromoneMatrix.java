@@ -0,0 +1,164 @@
+package isula.aco;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A pheromone matrix stored in a single double[] array, in row-major order. Compared to a double[][] array, cells of
+ * a row are contiguous and no row references need to be followed, which helps cache behaviour on large matrices.
+ * <p>
+ * <p>
+ * To use it, override Environment.createPheromones() or call Environment.setPheromones().
+ *
+ * @author Carlos G. Gavidia
+ */
+public class FlatPheromoneMatrix implements PheromoneMatrix {
+
+    private static final VarHandle CELL = MethodHandles.arrayElementVarHandle(double[].class);
+
+    private final int rows;
+    private final int columns;
+    private final double[] values;
+
+    public FlatPheromoneMatrix(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.values = new double[Math.multiplyExact(rows, columns)];
+    }
+
+    /**
+     * Creates a matrix with the values of a double[][] array. All rows should have the same length.
+     *
+     * @param values Pheromone values.
+     */
+    public FlatPheromoneMatrix(double[][] values) {
+        this(values.length, values.length == 0 ? 0 : values[0].length);
+        for (int row = 0; row < rows; row++) {
+            if (values[row].length != columns) {
+                throw new IllegalArgumentException("Row " + row + " has " + values[row].length + " columns. " +
+                        "Expected: " + columns);
+            }
+            System.arraycopy(values[row], 0, this.values, row * columns, columns);
+        }
+    }
+
+    private FlatPheromoneMatrix(FlatPheromoneMatrix matrix) {
+        this.rows = matrix.rows;
+        this.columns = matrix.columns;
+        this.values = matrix.values.clone();
+    }
+
+    /**
+     * The backing array, not a copy. The cell (row, column) is at position getIndex(row, column).
+     *
+     * @return Pheromone values.
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * Position of a cell in the backing array. The cells of a row start at getIndex(row, 0).
+     *
+     * @param row    Row index.
+     * @param column Column index.
+     * @return Index in the array returned by getValues().
+     */
+    public int getIndex(int row, int column) {
+        return row * columns + column;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    @Override
+    public double get(int row, int column) {
+        return values[getIndex(row, column)];
+    }
+
+    @Override
+    public void set(int row, int column, double value) {
+        values[getIndex(row, column)] = value;
+    }
+
+    @Override
+    public double getVolatile(int row, int column) {
+        return (double) CELL.getVolatile(values, getIndex(row, column));
+    }
+
+    @Override
+    public double update(int row, int column, DoubleUnaryOperator update) {
+        int index = getIndex(row, column);
+
+        double currentValue;
+        double newValue;
+        do {
+            currentValue = (double) CELL.getVolatile(values, index);
+            newValue = update.applyAsDouble(currentValue);
+        } while (!CELL.compareAndSet(values, index, currentValue, newValue));
+
+        return newValue;
+    }
+
+    @Override
+    public void fill(double value) {
+        PheromoneKernels.apply(values, PheromoneKernels.fill(value));
+    }
+
+    @Override
+    public void scale(double factor) {
+        PheromoneKernels.apply(values, PheromoneKernels.scale(factor));
+    }
+
+    @Override
+    public void scaleAndClamp(double factor, double minimum) {
+        PheromoneKernels.apply(values, PheromoneKernels.scaleAndClamp(factor, minimum));
+    }
+
+    @Override
+    public void add(double amount) {
+        PheromoneKernels.apply(values, PheromoneKernels.add(amount));
+    }
+
+    @Override
+    public void transform(DoubleUnaryOperator operator) {
+        for (int index = 0; index < values.length; index++) {
+            values[index] = operator.applyAsDouble(values[index]);
+        }
+    }
+
+    @Override
+    public void copyRow(int row, double[] destination) {
+        System.arraycopy(values, getIndex(row, 0), destination, 0, columns);
+    }
+
+    @Override
+    public FlatPheromoneMatrix copy() {
+        return new FlatPheromoneMatrix(this);
+    }
+
+    @Override
+    public double[][] toArray() {
+        double[][] valuesCopy = new double[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            copyRow(row, valuesCopy[row]);
+        }
+        return valuesCopy;
+    }
+
+    @Override
+    public String toString() {
+        return "FlatPheromoneMatrix{" +
+                "rows=" + rows +
+                ", columns=" + columns +
+                '}';
+    }
+}
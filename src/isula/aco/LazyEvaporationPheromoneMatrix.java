@@ -0,0 +1,216 @@
+package isula.aco;
+
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A pheromone matrix where evaporation takes constant time. Instead of multiplying every cell, scale() and
+ * scaleAndClamp() update a global decay scalar. Each cell keeps the value of that scalar when it was last written,
+ * and its true value is materialized when it's read or updated:
+ * <p>
+ * <p>
+ * value = max(stored value * current decay / decay when written, minimum)
+ * <p>
+ * <p>
+ * This is exact for repeated Max-Min Ant System evaporation (scale, then raise to a minimum) as long as the factor
+ * is not greater than one and the minimum doesn't change. Operations that can't be deferred, like add(), transform()
+ * or a change of minimum, materialize the whole matrix first.
+ * <p>
+ * <p>
+ * This matrix is meant for a single colony: it doesn't support concurrent updates from several threads.
+ *
+ * @author Carlos G. Gavidia
+ */
+public class LazyEvaporationPheromoneMatrix implements PheromoneMatrix {
+
+    // The decay scalar is reset before it underflows or overflows.
+    private static final double MINIMUM_DECAY = 1e-200;
+    private static final double MAXIMUM_DECAY = 1e200;
+
+    private static final double NO_MINIMUM = Double.NEGATIVE_INFINITY;
+
+    private final PheromoneMatrix storedValues;
+    private final int columns;
+    private final double[] decayWhenWritten;
+
+    private double currentDecay = 1.0;
+    private double minimum = NO_MINIMUM;
+
+    /**
+     * Wraps an existing pheromone matrix, which keeps the stored values. All rows should have the same length.
+     *
+     * @param storedValues Matrix with the current pheromone values.
+     */
+    public LazyEvaporationPheromoneMatrix(PheromoneMatrix storedValues) {
+        this.storedValues = storedValues;
+        this.columns = storedValues.getColumns();
+        this.decayWhenWritten = new double[Math.multiplyExact(storedValues.getRows(), columns)];
+        Arrays.fill(decayWhenWritten, currentDecay);
+    }
+
+    private LazyEvaporationPheromoneMatrix(LazyEvaporationPheromoneMatrix matrix) {
+        this.storedValues = matrix.storedValues.copy();
+        this.columns = matrix.columns;
+        this.decayWhenWritten = matrix.decayWhenWritten.clone();
+        this.currentDecay = matrix.currentDecay;
+        this.minimum = matrix.minimum;
+    }
+
+    /**
+     * The matrix with the stored values, before applying pending evaporation.
+     *
+     * @return Stored values.
+     */
+    public PheromoneMatrix getStoredValues() {
+        return storedValues;
+    }
+
+    @Override
+    public int getRows() {
+        return storedValues.getRows();
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    @Override
+    public double get(int row, int column) {
+        return materialize(storedValues.get(row, column), row * columns + column);
+    }
+
+    private double materialize(double storedValue, int index) {
+        double cellDecay = decayWhenWritten[index];
+        if (cellDecay == currentDecay) {
+            return storedValue;
+        }
+        return Math.max(storedValue * (currentDecay / cellDecay), minimum);
+    }
+
+    @Override
+    public void set(int row, int column, double value) {
+        storedValues.set(row, column, value);
+        decayWhenWritten[row * columns + column] = currentDecay;
+    }
+
+    @Override
+    public double getVolatile(int row, int column) {
+        return materialize(storedValues.getVolatile(row, column), row * columns + column);
+    }
+
+    @Override
+    public synchronized double update(int row, int column, DoubleUnaryOperator update) {
+        double newValue = update.applyAsDouble(get(row, column));
+        set(row, column, newValue);
+        return newValue;
+    }
+
+    @Override
+    public void fill(double value) {
+        storedValues.fill(value);
+        resetDecay();
+    }
+
+    @Override
+    public void scale(double factor) {
+        if (minimum != NO_MINIMUM) {
+            materializeAll();
+            minimum = NO_MINIMUM;
+        }
+        applyDecay(factor);
+    }
+
+    @Override
+    public void scaleAndClamp(double factor, double minimum) {
+        if (factor > 1.0 || (this.minimum != NO_MINIMUM && this.minimum != minimum)) {
+            materializeAll();
+            this.minimum = NO_MINIMUM;
+        }
+
+        if (factor > 1.0) {
+            storedValues.scaleAndClamp(factor, minimum);
+            return;
+        }
+
+        this.minimum = minimum;
+        applyDecay(factor);
+    }
+
+    private void applyDecay(double factor) {
+        if (factor == 0.0) {
+            fill(0.0);
+            return;
+        }
+
+        currentDecay *= factor;
+        if (currentDecay < MINIMUM_DECAY || currentDecay > MAXIMUM_DECAY) {
+            materializeAll();
+        }
+    }
+
+    @Override
+    public void add(double amount) {
+        materializeAll();
+        storedValues.add(amount);
+    }
+
+    @Override
+    public void transform(DoubleUnaryOperator operator) {
+        materializeAll();
+        storedValues.transform(operator);
+    }
+
+    /**
+     * Applies pending evaporation to every stored value, and resets the decay scalar. It takes time proportional to
+     * the size of the matrix.
+     */
+    public void materializeAll() {
+        for (int row = 0; row < getRows(); row++) {
+            for (int column = 0; column < columns; column++) {
+                storedValues.set(row, column, get(row, column));
+            }
+        }
+        resetDecay();
+    }
+
+    private void resetDecay() {
+        currentDecay = 1.0;
+        Arrays.fill(decayWhenWritten, currentDecay);
+    }
+
+    @Override
+    public void copyRow(int row, double[] destination) {
+        for (int column = 0; column < columns; column++) {
+            destination[column] = get(row, column);
+        }
+    }
+
+    @Override
+    public LazyEvaporationPheromoneMatrix copy() {
+        return new LazyEvaporationPheromoneMatrix(this);
+    }
+
+    @Override
+    public double[][] toArray() {
+        double[][] values = new double[getRows()][columns];
+        for (int row = 0; row < values.length; row++) {
+            copyRow(row, values[row]);
+        }
+        return values;
+    }
+
+    @Override
+    public boolean supportsConcurrentUpdates() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "LazyEvaporationPheromoneMatrix{" +
+                "storedValues=" + storedValues +
+                ", currentDecay=" + currentDecay +
+                ", minimum=" + minimum +
+                '}';
+    }
+}
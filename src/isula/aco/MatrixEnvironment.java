@@ -39,7 +39,7 @@ public class MatrixEnvironment extends Environment {
     public String toString() {
         return "Problem Representation: Rows " + problemRepresentation.length + " Columns "
                 + problemRepresentation[0].length + "\n" + "Pheromone Matrix: Rows "
-                + getPheromoneMatrix().length + " Columns " + getPheromoneMatrix()[0].length;
+                + getPheromones().getRows() + " Columns " + getPheromones().getColumns();
 
     }
 }
@@ -0,0 +1,60 @@
+package isula.aco;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Defines which colonies (islands) send their best solutions to each other in the island model of
+ * ParallelAcoProblemSolver.
+ *
+ * <ul>
+ * <li>RING: Each island receives migrants from the previous one.
+ * <li>FULLY_CONNECTED: Each island receives migrants from every other one.
+ * <li>RANDOM: Each island receives migrants from another island, picked at random on every migration.
+ * </ul>
+ *
+ * @author Carlos G. Gavidia
+ */
+public enum MigrationTopology {
+    RING {
+        @Override
+        public int[] getSourceIslands(int islandIndex, int numberOfIslands, Random random) {
+            if (numberOfIslands < 2) {
+                return new int[0];
+            }
+            return new int[]{(islandIndex - 1 + numberOfIslands) % numberOfIslands};
+        }
+    },
+    FULLY_CONNECTED {
+        @Override
+        public int[] getSourceIslands(int islandIndex, int numberOfIslands, Random random) {
+            return IntStream.range(0, numberOfIslands)
+                    .filter(sourceIndex -> sourceIndex != islandIndex)
+                    .toArray();
+        }
+    },
+    RANDOM {
+        @Override
+        public int[] getSourceIslands(int islandIndex, int numberOfIslands, Random random) {
+            if (numberOfIslands < 2) {
+                return new int[0];
+            }
+
+            int sourceIndex = random.nextInt(numberOfIslands - 1);
+            if (sourceIndex >= islandIndex) {
+                sourceIndex++;
+            }
+            return new int[]{sourceIndex};
+        }
+    };
+
+    /**
+     * The islands that send migrants to a specific island.
+     *
+     * @param islandIndex     Index of the receiving island.
+     * @param numberOfIslands Number of islands.
+     * @param random          Random number generator, for randomized topologies.
+     * @return Indexes of the source islands.
+     */
+    public abstract int[] getSourceIslands(int islandIndex, int numberOfIslands, Random random);
+}
@@ -3,9 +3,12 @@ package isula.aco;
 import isula.aco.exception.ConfigurationException;
 import isula.aco.exception.MethodNotImplementedException;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.logging.Level;
@@ -13,6 +16,19 @@ import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+/**
+ * A problem solver that runs several colonies in parallel, each one with its own environment. The best solution
+ * among all colonies is reported at the end.
+ * <p>
+ * <p>
+ * By default, colonies are independent. With enableIslandModel(), colonies become islands that exchange their best
+ * solutions every few iterations. Migration doesn't synchronize colonies: each island publishes its best solution
+ * in a mailbox, and takes the latest migrants available from its source islands.
+ *
+ * @param <C> Class for components of a solution.
+ * @param <E> Class representing the Environment.
+ * @author Carlos G. Gavidia
+ */
 public class ParallelAcoProblemSolver<C, E extends Environment> extends AcoProblemSolver<C, E> {
 
     private static Logger logger = Logger.getLogger(ParallelAcoProblemSolver.class
@@ -21,6 +37,15 @@ public class ParallelAcoProblemSolver<C, E extends Environment> extends AcoProbl
     private List<AntColony<C, E>> antColonies;
     private List<E> environments;
     private int parallelRuns;
+    private boolean sharedEnvironment;
+
+    private MigrationTopology migrationTopology;
+    private int migrationInterval;
+    private double pheromoneBlendingFactor;
+
+    private AtomicReferenceArray<Migrant<C>> migrantMailbox;
+    // Each position is only accessed by the thread running the corresponding colony.
+    private List<Migrant<C>> pendingMigrants;
 
     @Override
     public void solveProblem() {
@@ -28,6 +53,17 @@ public class ParallelAcoProblemSolver<C, E extends Environment> extends AcoProbl
         logger.log(Level.INFO, "Starting computation at: {0}", new Date());
         Instant executionStartTime = Instant.now();
 
+        prepareMigration();
+
+        // With a shared environment, a colony initializing the pheromone matrix while others are running would
+        // wipe their deposits. All colonies are initialized before any of them starts.
+        PerformanceMetrics initializationMetrics = new PerformanceMetrics();
+        if (sharedEnvironment) {
+            for (AntColony<C, E> antColony : antColonies) {
+                super.applyInitialConfiguration(antColony, initializationMetrics);
+            }
+        }
+
         List<PerformanceTracker<C, E>> performancePerColony = IntStream.range(0, this.parallelRuns)
                 .unordered()
                 .parallel()
@@ -46,16 +82,188 @@ public class ParallelAcoProblemSolver<C, E extends Environment> extends AcoProbl
 
         PerformanceTracker<C, E> bestPerformingTracker = performancePerColony
                 .stream()
-                .min(Comparator.comparing(PerformanceTracker::getBestSolutionCost))
+                .min(Comparator.comparing((PerformanceTracker<C, E> performanceTracker) ->
+                        performanceTracker.getBestSolution() == null)
+                        .thenComparing(PerformanceTracker::getBestSolutionCost))
                 .orElseThrow(NoSuchElementException::new);
 
         Long totalSolutions = performancePerColony
                 .stream()
                 .mapToLong(PerformanceTracker::getGeneratedSolutions).sum();
         bestPerformingTracker.setGeneratedSolutions(totalSolutions);
+        bestPerformingTracker.getMetrics().merge(initializationMetrics);
+        performancePerColony
+                .stream()
+                .filter(performanceTracker -> performanceTracker != bestPerformingTracker)
+                .forEach(performanceTracker -> bestPerformingTracker.getMetrics()
+                        .merge(performanceTracker.getMetrics()));
 
         this.updateGlobalMetrics(executionStartTime, bestPerformingTracker);
+        this.closeEventPublisher();
+
+    }
+
+    /**
+     * Creates the mailbox for migrants, if the island model is enabled. Colonies sharing an environment already
+     * share their pheromone, so blending pheromone matrices is rejected in that mode.
+     */
+    void prepareMigration() {
+        if (migrationTopology == null) {
+            return;
+        }
+
+        if (sharedEnvironment && pheromoneBlendingFactor > 0.0) {
+            throw new ConfigurationException("Colonies sharing an environment can't blend their pheromone matrices. " +
+                    "Use a pheromone blending factor of zero.");
+        }
+
+        migrantMailbox = new AtomicReferenceArray<>(parallelRuns);
+        pendingMigrants = new ArrayList<>(Collections.nCopies(parallelRuns, null));
+    }
+
+    /**
+     * Makes colonies exchange their best solutions. Every migrationInterval iterations, each colony publishes its
+     * best solution and takes the best migrant from its source islands. If the migrant is better than the colony's
+     * best solution, it replaces the solution of the worst ant on the next iteration, so it takes part in the
+     * pheromone update. Optionally, the pheromone matrix of the colony is blended with the one of the migrant's
+     * colony. Blending is not supported when colonies share an environment.
+     *
+     * @param migrationInterval       Number of iterations between migrations.
+     * @param migrationTopology       Defines the source islands of each colony.
+     * @param pheromoneBlendingFactor Weight of the migrant's pheromone matrix, from 0 (no blending) to 1 (copy).
+     */
+    public void enableIslandModel(int migrationInterval, MigrationTopology migrationTopology,
+                                  double pheromoneBlendingFactor) {
+        if (migrationInterval < 1) {
+            throw new ConfigurationException("The migration interval should be at least 1. Current value: " +
+                    migrationInterval);
+        }
 
+        if (pheromoneBlendingFactor < 0.0 || pheromoneBlendingFactor > 1.0) {
+            throw new ConfigurationException("The pheromone blending factor should be between 0 and 1. Current " +
+                    "value: " + pheromoneBlendingFactor);
+        }
+
+        this.migrationInterval = migrationInterval;
+        this.migrationTopology = migrationTopology;
+        this.pheromoneBlendingFactor = pheromoneBlendingFactor;
+    }
+
+    /**
+     * With a shared environment, the INITIAL_CONFIGURATION daemon actions were already applied before the colonies
+     * started, so they're skipped.
+     */
+    @Override
+    protected void applyInitialConfiguration(AntColony<C, E> antColony, PerformanceMetrics metrics) {
+        if (!sharedEnvironment) {
+            super.applyInitialConfiguration(antColony, metrics);
+        }
+    }
+
+    @Override
+    protected void afterSolutionConstruction(AntColony<C, E> antColony, E environment, int iteration) {
+        if (pendingMigrants == null) {
+            return;
+        }
+
+        int islandIndex = antColony.getColonyIndex();
+        Migrant<C> migrant = pendingMigrants.get(islandIndex);
+        if (migrant == null) {
+            return;
+        }
+        pendingMigrants.set(islandIndex, null);
+
+        antColony.getHive()
+                .stream()
+                .filter(ant -> ant.isSolutionReady(environment))
+                .max(Comparator.comparingDouble(ant -> ant.getSolutionCost(environment)))
+                .ifPresent(worstAnt -> {
+                    Trace.trace(ParallelAcoProblemSolver.class, () -> "Colony index: " + islandIndex +
+                            " Replacing solution of cost " + worstAnt.getSolutionCost(environment) +
+                            " with migrant of cost " + migrant.solutionCost);
+                    worstAnt.replaceSolution(migrant.solution, environment);
+                });
+    }
+
+    @Override
+    protected void afterIteration(AntColony<C, E> antColony, E environment, int iteration,
+                                  PerformanceTracker<C, E> performanceTracker) {
+        if (migrantMailbox == null || (iteration + 1) % migrationInterval != 0 ||
+                performanceTracker.getBestSolution() == null) {
+            return;
+        }
+
+        int islandIndex = antColony.getColonyIndex();
+        PheromoneMatrix pheromoneSnapshot = null;
+        if (pheromoneBlendingFactor > 0.0) {
+            pheromoneSnapshot = environment.getPheromones().copy();
+        }
+        migrantMailbox.set(islandIndex, new Migrant<>(performanceTracker.getBestSolution(),
+                performanceTracker.getBestSolutionCost(), pheromoneSnapshot));
+
+        Migrant<C> bestMigrant = null;
+        Random random = ThreadLocalRandom.current();
+        if (getRandomSource() != null) {
+            random = new Random(getRandomSource().getColonyStream(islandIndex, iteration).nextLong());
+        }
+
+        for (int sourceIndex : migrationTopology.getSourceIslands(islandIndex, parallelRuns, random)) {
+            Migrant<C> migrant = migrantMailbox.get(sourceIndex);
+            if (migrant != null && (bestMigrant == null || migrant.solutionCost < bestMigrant.solutionCost)) {
+                bestMigrant = migrant;
+            }
+        }
+
+        if (bestMigrant == null || bestMigrant.solutionCost >= performanceTracker.getBestSolutionCost()) {
+            return;
+        }
+
+        if (bestMigrant.pheromoneMatrix != null) {
+            blendPheromoneMatrix(environment, bestMigrant.pheromoneMatrix);
+        }
+        pendingMigrants.set(islandIndex, bestMigrant);
+    }
+
+    private void blendPheromoneMatrix(E environment, PheromoneMatrix migrantMatrix) {
+        PheromoneMatrix pheromoneMatrix = environment.getPheromones();
+        if (pheromoneMatrix.getRows() != migrantMatrix.getRows() ||
+                pheromoneMatrix.getColumns() != migrantMatrix.getColumns()) {
+            throw new ConfigurationException("Pheromone matrices of different colonies should have the same " +
+                    "dimensions to be blended.");
+        }
+
+        for (int row = 0; row < pheromoneMatrix.getRows(); row++) {
+            for (int column = 0; column < pheromoneMatrix.getColumns(); column++) {
+                double migrantValue = pheromoneBlendingFactor * migrantMatrix.get(row, column);
+                environment.updatePheromoneValue(row, column,
+                        pheromoneValue -> (1 - pheromoneBlendingFactor) * pheromoneValue + migrantValue);
+            }
+        }
+        environment.invalidateChoiceInformation();
+    }
+
+    /**
+     * The best solution of a colony, published for other colonies. It is never modified after creation.
+     */
+    private static final class Migrant<C> {
+
+        private final List<C> solution;
+        private final double solutionCost;
+        private final PheromoneMatrix pheromoneMatrix;
+
+        private Migrant(List<C> solution, double solutionCost, PheromoneMatrix pheromoneMatrix) {
+            this.solution = solution;
+            this.solutionCost = solutionCost;
+            this.pheromoneMatrix = pheromoneMatrix;
+        }
+    }
+
+    /**
+     * Each colony writes its checkpoint to its own file: the colony index is appended to the file name.
+     */
+    @Override
+    protected Path getColonyCheckpointFile(Path checkpointFile, AntColony<C, E> antColony) {
+        return checkpointFile.resolveSibling(checkpointFile.getFileName() + "." + antColony.getColonyIndex());
     }
 
     @Override
@@ -94,10 +302,42 @@ public class ParallelAcoProblemSolver<C, E extends Environment> extends AcoProbl
     }
 
 
+    /**
+     * Prepares the solver for colonies that cooperate through a single environment: all of them read and deposit
+     * pheromone on the same matrix. Concurrent pheromone updates are enabled on the environment, so no deposit is
+     * lost, as long as ants update pheromone through Ant.updatePheromoneTrailValue() backed by
+     * Environment.updatePheromoneValue().
+     * <p>
+     * <p>
+     * The INITIAL_CONFIGURATION daemon actions of every colony are applied before any colony starts, so they don't
+     * overwrite the pheromone deposited by other colonies. The rest of daemon actions are still applied by every
+     * colony. For example, evaporation is applied once per colony iteration, so the evaporation ratio might need
+     * adjustment.
+     *
+     * @param environment    Environment shared by all colonies.
+     * @param colonySupplier Creates a colony for a configuration.
+     * @param config         Algorithm configuration.
+     * @param timeLimit      Time limit for each colony, or null.
+     * @param parallelRuns   Number of colonies.
+     */
+    public void initializeWithSharedEnvironment(E environment,
+                                                Function<ConfigurationProvider, AntColony<C, E>> colonySupplier,
+                                                ConfigurationProvider config, Duration timeLimit, int parallelRuns)
+            throws ConfigurationException {
+
+        environment.setConcurrentPheromoneUpdates(true);
+        initialize(() -> environment, colonySupplier, config, timeLimit, parallelRuns);
+        this.sharedEnvironment = true;
+    }
+
     public List<AntColony<C, E>> getAntColonies() {
         return antColonies;
     }
 
+    public List<E> getEnvironments() {
+        return environments;
+    }
+
     public void addDaemonAction(Supplier<DaemonAction<C, E>> daemonActionSupplier) {
 
         IntStream.range(0, this.parallelRuns).forEachOrdered(colonyIndex -> {
@@ -117,6 +357,9 @@ public class ParallelAcoProblemSolver<C, E extends Environment> extends AcoProbl
                 "antColonies=" + antColonies +
                 ", environments=" + environments +
                 ", parallelRuns=" + parallelRuns +
+                ", sharedEnvironment=" + sharedEnvironment +
+                ", migrationTopology=" + migrationTopology +
+                ", migrationInterval=" + migrationInterval +
                 "} " + super.toString();
     }
 }
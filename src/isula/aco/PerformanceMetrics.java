@@ -0,0 +1,194 @@
+package isula.aco;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Time spent on each phase of the optimization process, and the throughput of the colony. Times are measured with
+ * System.nanoTime(), so they are meaningful even for iterations that take less than a millisecond.
+ * <p>
+ * <p>
+ * The phases are solution construction, each daemon action (identified by its class name) and performance tracking.
+ * The metrics of a colony are available through PerformanceTracker.getMetrics(), and the ones of the last execution
+ * through AcoProblemSolver.getMetrics(). For parallel solvers, the times and counters of all colonies are added
+ * together, so phase times measure the work of all colonies.
+ * <p>
+ * <p>
+ * Throughput is computed against the wall-clock time of the solver, set when the execution finishes. Until then,
+ * or for a colony on its own, the iteration time is used. On a resumed execution, the metrics only cover the work
+ * done since the checkpoint was restored.
+ *
+ * @author Carlos G. Gavidia
+ */
+public class PerformanceMetrics {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private int iterations;
+    private long wallClockNanos;
+    private long iterationNanos;
+    private long constructionNanos;
+    private long trackingNanos;
+    private final Map<String, Long> daemonActionNanos = new LinkedHashMap<>();
+
+    private long generatedSolutions;
+    private long componentSelections;
+    private long solutionEvaluations;
+
+    void addIteration(long elapsedNanos) {
+        this.iterations++;
+        this.iterationNanos += elapsedNanos;
+    }
+
+    void addConstructionTime(long elapsedNanos) {
+        this.constructionNanos += elapsedNanos;
+    }
+
+    void addTrackingTime(long elapsedNanos) {
+        this.trackingNanos += elapsedNanos;
+    }
+
+    void addDaemonActionTime(DaemonAction<?, ?> daemonAction, long elapsedNanos) {
+        this.daemonActionNanos.merge(daemonAction.getClass().getName(), elapsedNanos, Long::sum);
+    }
+
+    void setWallClockTime(long elapsedNanos) {
+        this.wallClockNanos = elapsedNanos;
+    }
+
+    void setCounters(long generatedSolutions, long componentSelections, long solutionEvaluations) {
+        this.generatedSolutions = generatedSolutions;
+        this.componentSelections = componentSelections;
+        this.solutionEvaluations = solutionEvaluations;
+    }
+
+    /**
+     * Adds the times and counters of another instance to this one. Used to aggregate the metrics of several
+     * colonies.
+     *
+     * @param otherMetrics Metrics to add.
+     */
+    public void merge(PerformanceMetrics otherMetrics) {
+        this.iterations += otherMetrics.iterations;
+        // Colonies run concurrently: their elapsed times overlap.
+        this.wallClockNanos = Math.max(this.wallClockNanos, otherMetrics.wallClockNanos);
+        this.iterationNanos += otherMetrics.iterationNanos;
+        this.constructionNanos += otherMetrics.constructionNanos;
+        this.trackingNanos += otherMetrics.trackingNanos;
+        otherMetrics.daemonActionNanos.forEach((daemonAction, elapsedNanos) ->
+                this.daemonActionNanos.merge(daemonAction, elapsedNanos, Long::sum));
+
+        this.generatedSolutions += otherMetrics.generatedSolutions;
+        this.componentSelections += otherMetrics.componentSelections;
+        this.solutionEvaluations += otherMetrics.solutionEvaluations;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Elapsed time of the whole execution, from the start of the solver to the end of the last colony.
+     *
+     * @return Wall-clock time, or zero if the execution hasn't finished.
+     */
+    public Duration getWallClockTime() {
+        return Duration.ofNanos(wallClockNanos);
+    }
+
+    /**
+     * Total time spent on iterations, including construction, daemon actions and tracking.
+     *
+     * @return Iteration time.
+     */
+    public Duration getIterationTime() {
+        return Duration.ofNanos(iterationNanos);
+    }
+
+    public Duration getConstructionTime() {
+        return Duration.ofNanos(constructionNanos);
+    }
+
+    public Duration getTrackingTime() {
+        return Duration.ofNanos(trackingNanos);
+    }
+
+    /**
+     * Time spent on a type of daemon action, including the ones applied during initial configuration.
+     *
+     * @param daemonActionClass Daemon action class.
+     * @return Time spent, or zero if no daemon action of this class was applied.
+     */
+    public Duration getDaemonActionTime(Class<?> daemonActionClass) {
+        return Duration.ofNanos(daemonActionNanos.getOrDefault(daemonActionClass.getName(), 0L));
+    }
+
+    /**
+     * Time spent on each daemon action, by class name.
+     *
+     * @return Daemon action times.
+     */
+    public Map<String, Duration> getDaemonActionTimes() {
+        Map<String, Duration> daemonActionTimes = new LinkedHashMap<>();
+        daemonActionNanos.forEach((daemonAction, elapsedNanos) ->
+                daemonActionTimes.put(daemonAction, Duration.ofNanos(elapsedNanos)));
+        return Collections.unmodifiableMap(daemonActionTimes);
+    }
+
+    public long getGeneratedSolutions() {
+        return generatedSolutions;
+    }
+
+    public long getComponentSelections() {
+        return componentSelections;
+    }
+
+    public long getSolutionEvaluations() {
+        return solutionEvaluations;
+    }
+
+    /**
+     * Solutions generated per second of wall-clock time, by all colonies.
+     *
+     * @return Solutions per second, or zero if no time was measured.
+     */
+    public double getSolutionsPerSecond() {
+        return perSecond(generatedSolutions, getElapsedNanos());
+    }
+
+    /**
+     * Components added to solutions per second of wall-clock time, by all colonies.
+     *
+     * @return Component selections per second, or zero if no time was measured.
+     */
+    public double getSelectionsPerSecond() {
+        return perSecond(componentSelections, getElapsedNanos());
+    }
+
+    private long getElapsedNanos() {
+        return wallClockNanos > 0 ? wallClockNanos : iterationNanos;
+    }
+
+    private static double perSecond(long count, long elapsedNanos) {
+        if (elapsedNanos <= 0) {
+            return 0.0;
+        }
+        return count * NANOS_PER_SECOND / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "PerformanceMetrics{" +
+                "iterations=" + iterations +
+                ", wallClockTime=" + getWallClockTime() +
+                ", iterationTime=" + getIterationTime() +
+                ", constructionTime=" + getConstructionTime() +
+                ", trackingTime=" + getTrackingTime() +
+                ", daemonActionTimes=" + getDaemonActionTimes() +
+                ", solutionsPerSecond=" + getSolutionsPerSecond() +
+                ", selectionsPerSecond=" + getSelectionsPerSecond() +
+                '}';
+    }
+}
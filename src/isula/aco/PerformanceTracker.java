@@ -2,10 +2,11 @@ package isula.aco;
 
 import isula.aco.exception.SolutionConstructionException;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 public class PerformanceTracker<C, E extends Environment> {
 
@@ -14,9 +15,35 @@ public class PerformanceTracker<C, E extends Environment> {
 
     private List<C> bestSolution;
     private double bestSolutionCost;
+
+    private static final ClassValue<Boolean> SOLUTION_AS_STRING_OVERRIDDEN = new ClassValue<>() {
+
+        @Override
+        protected Boolean computeValue(Class<?> antClass) {
+            try {
+                return antClass.getMethod("getSolutionAsString").getDeclaringClass() != Ant.class;
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    // The string representation is built on demand from the stored solution, by the ant that found it.
     private String bestSolutionAsString;
+    private Function<List<C>, String> bestSolutionFormatter;
 
+    private boolean stateValidation = PerformanceTracker.class.desiredAssertionStatus();
+
+    private double iterationBestCost;
     private long generatedSolutions;
+    private long solutionEvaluations;
+    // Counters of a previous execution, restored from a checkpoint: ant counters start again from zero, and metrics
+    // only cover the current execution.
+    private long restoredGeneratedSolutions;
+    private long restoredSolutionEvaluations;
+    private int lastImprovementIteration;
+
+    private final PerformanceMetrics metrics = new PerformanceMetrics();
 
     /**
      * Updates the information of the best solution produced with the solutions
@@ -27,7 +54,20 @@ public class PerformanceTracker<C, E extends Environment> {
      */
     public void updateIterationPerformance(AntColony<C, E> antColony, int iteration, long iterationTimeInSeconds,
                                            E environment) {
-        logger.log(Level.FINE, "GETTING BEST SOLUTION FOUND");
+        updateIterationPerformance(antColony, iteration, Duration.ofSeconds(iterationTimeInSeconds), environment);
+    }
+
+    /**
+     * Updates the information of the best solution produced with the solutions
+     * produced by the Colony, and the performance metrics of the process.
+     *
+     * @param iterationTime Time spent during the iteration, before tracking.
+     * @param environment   Environment where the solutions where produced.
+     */
+    public void updateIterationPerformance(AntColony<C, E> antColony, int iteration, Duration iterationTime,
+                                           E environment) {
+        long trackingStart = System.nanoTime();
+        Trace.trace(PerformanceTracker.class, "GETTING BEST SOLUTION FOUND");
 
 
         long iterationSolutions = antColony.getHive()
@@ -39,44 +79,76 @@ public class PerformanceTracker<C, E extends Environment> {
 
         Ant<C, E> bestAnt = antColony.getBestPerformingAnt(environment);
 
-        if (!this.isStateValid(bestAnt, environment)) {
+        if (stateValidation && !this.isStateValid(bestAnt, environment)) {
             throw new SolutionConstructionException("Performance Tracker is in an inconsistent state. Solution:"
-                    + this.bestSolution + " Solution Cost: " + bestSolutionCost + " String representation: " +
-                    bestSolutionAsString + " Colony index: " + antColony.getColonyIndex());
+                    + this.bestSolution + " Solution Cost: " + bestSolutionCost + " Colony index: " +
+                    antColony.getColonyIndex());
         }
 
-        double bestIterationCost = bestAnt.getSolutionCost(environment);
-        logger.log(Level.FINE, "Iteration best cost: {0} ", bestIterationCost);
+        // When construction is cancelled before any ant completes its solution, there's nothing to track.
+        double bestIterationCost = iterationSolutions > 0 ? bestAnt.getSolutionCost(environment) : Double.NaN;
+        this.iterationBestCost = bestIterationCost;
+        Trace.trace(PerformanceTracker.class, () -> "Iteration best cost: " + bestIterationCost);
 
-        if (bestSolution == null
-                || bestSolutionCost > bestIterationCost) {
-            bestSolution = bestAnt.getSolution().stream().collect(Collectors.toUnmodifiableList());
+        if (iterationSolutions > 0 && (bestSolution == null
+                || bestSolutionCost > bestIterationCost)) {
+            bestSolution = List.copyOf(bestAnt.getSolution());
             bestSolutionCost = bestIterationCost;
-            bestSolutionAsString = bestAnt.getSolutionAsString();
+            setBestSolutionFormatter(bestAnt);
+            lastImprovementIteration = iteration;
+
+            Trace.trace(PerformanceTracker.class, () -> "Best solution so far > Cost: " + bestSolutionCost +
+                    " , Solution as string: " + getBestSolutionAsString() + "  Stored solution: " + bestSolution);
 
-            logger.log(Level.FINE, "Best solution so far > Cost: {0} , Solution as string: {1}  Stored solution: {2}",
-                    new Object[]{bestSolutionCost, bestSolutionAsString, bestSolution});
+        }
 
+        this.solutionEvaluations = restoredSolutionEvaluations + antColony.getHive()
+                .stream()
+                .mapToLong(Ant::getSolutionEvaluations)
+                .sum();
+        long nodeSelections = antColony.getHive()
+                .stream()
+                .mapToLong(Ant::getNodeSelections)
+                .sum();
+        metrics.setCounters(generatedSolutions - restoredGeneratedSolutions, nodeSelections,
+                solutionEvaluations - restoredSolutionEvaluations);
+
+        if (logger.isLoggable(Level.INFO)) {
+            logger.log(Level.INFO, " Colony index: {0} Current iteration: {1} Iteration solutions: {2} Iteration best: {3} " +
+                    " Iteration Duration (ms): {4} Global solution cost: {5} ", new Object[]{antColony.getColonyIndex(), iteration,
+                    iterationSolutions, bestIterationCost, iterationTime.toNanos() / 1_000_000.0, bestSolutionCost});
         }
+        Trace.trace(PerformanceTracker.class, () -> " Global solution cost: " + bestSolutionCost +
+                " Stored solution: " + bestSolution + "  Solution as String: " + getBestSolutionAsString());
 
-        logger.log(Level.INFO, " Colony index: {0} Current iteration: {1} Iteration solutions: {2} Iteration best: {3} " +
-                " Iteration Duration (s): {4} Global solution cost: {5} ", new Object[]{antColony.getColonyIndex(), iteration,
-                iterationSolutions, bestIterationCost, iterationTimeInSeconds, bestSolutionCost});
-        logger.log(Level.FINE, " Global solution cost: {0} Stored solution: {1}  Solution as String: {2}",
-                new Object[]{bestSolutionCost, bestSolution, bestSolutionAsString});
+        long trackingTime = System.nanoTime() - trackingStart;
+        metrics.addTrackingTime(trackingTime);
+        metrics.addIteration(iterationTime.toNanos() + trackingTime);
     }
 
     private boolean isStateValid(Ant<C, E> ant, E environment) {
 
-        if (this.bestSolution == null && this.bestSolutionAsString == null && this.bestSolutionCost == 0.0) {
+        if (this.bestSolution == null) {
             return true;
         }
 
         double expectedSolutionCost = ant.getSolutionCost(environment, bestSolution);
-        String expectedSolutionAsString = ant.getSolutionAsString(bestSolution);
+        return Math.abs(expectedSolutionCost - bestSolutionCost) <= 0.001;
+    }
 
-        return Math.abs(expectedSolutionCost - bestSolutionCost) <= 0.001 &&
-                expectedSolutionAsString.equals(bestSolutionAsString);
+    /**
+     * Enables re-evaluating the cost of the best solution on every iteration, to detect ants or environments whose
+     * costs change unexpectedly. This is a debugging aid: it costs a full evaluation per iteration. By default, it's
+     * enabled only when Java assertions are enabled.
+     *
+     * @param stateValidation True to validate the best solution on every iteration.
+     */
+    public void setStateValidation(boolean stateValidation) {
+        this.stateValidation = stateValidation;
+    }
+
+    public boolean isStateValidation() {
+        return stateValidation;
     }
 
 
@@ -88,7 +160,31 @@ public class PerformanceTracker<C, E extends Environment> {
         return bestSolutionCost;
     }
 
+    /**
+     * Ants that only override the no-arg Ant.getSolutionAsString() format the solution they currently hold, so their
+     * string is captured right away. For the rest, it's built from the stored solution with
+     * Ant.getSolutionAsString(List) on the first request.
+     */
+    private void setBestSolutionFormatter(Ant<C, E> bestAnt) {
+        if (SOLUTION_AS_STRING_OVERRIDDEN.get(bestAnt.getClass())) {
+            bestSolutionAsString = bestAnt.getSolutionAsString();
+            bestSolutionFormatter = null;
+        } else {
+            bestSolutionAsString = null;
+            bestSolutionFormatter = bestAnt::getSolutionAsString;
+        }
+    }
+
+    /**
+     * Returns the string representation of the best solution, built on the first request after an improvement.
+     *
+     * @return Best solution as a String, or null if there's no solution yet.
+     */
     public String getBestSolutionAsString() {
+        if (bestSolutionAsString == null && bestSolution != null && bestSolutionFormatter != null) {
+            bestSolutionAsString = bestSolutionFormatter.apply(bestSolution);
+            bestSolutionFormatter = null;
+        }
         return bestSolutionAsString;
     }
 
@@ -96,6 +192,60 @@ public class PerformanceTracker<C, E extends Environment> {
         return generatedSolutions;
     }
 
+    /**
+     * Returns the cost of the best solution built on the last tracked iteration.
+     *
+     * @return Iteration best cost.
+     */
+    public double getIterationBestCost() {
+        return iterationBestCost;
+    }
+
+    /**
+     * Returns the number of solution cost evaluations performed by the ants of the colony. It includes the
+     * evaluations of the execution a checkpoint was taken from, if any.
+     *
+     * @return Number of solution evaluations.
+     */
+    public long getSolutionEvaluations() {
+        return solutionEvaluations;
+    }
+
+    /**
+     * Returns the iteration where the best solution so far was found.
+     *
+     * @return Iteration index, starting from zero.
+     */
+    public int getLastImprovementIteration() {
+        return lastImprovementIteration;
+    }
+
+    /**
+     * Returns the timings and throughput of the colony.
+     *
+     * @return Performance metrics.
+     */
+    public PerformanceMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Restores the best solution and counters of a previous execution, read from a checkpoint. The counters of the
+     * tracker continue from the restored values, while its performance metrics only cover the current execution.
+     */
+    void restore(List<C> bestSolution, double bestSolutionCost, String bestSolutionAsString, long generatedSolutions,
+                 long solutionEvaluations, int lastImprovementIteration) {
+        this.bestSolution = bestSolution == null ? null : List.copyOf(bestSolution);
+        this.bestSolutionCost = bestSolutionCost;
+        this.bestSolutionAsString = bestSolutionAsString;
+        this.bestSolutionFormatter = null;
+        this.generatedSolutions = generatedSolutions;
+        this.restoredGeneratedSolutions = generatedSolutions;
+        this.solutionEvaluations = solutionEvaluations;
+        this.restoredSolutionEvaluations = solutionEvaluations;
+        this.lastImprovementIteration = lastImprovementIteration;
+    }
+
     public void setGeneratedSolutions(Long generatedSolutions) {
         this.generatedSolutions = generatedSolutions;
     }
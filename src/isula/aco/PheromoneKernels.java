@@ -0,0 +1,143 @@
+package isula.aco;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Bulk operations over pheromone values. Kernels are simple counted loops over contiguous ranges, a shape the JIT
+ * compiler vectorizes with SIMD instructions. Above PARALLEL_THRESHOLD cells, the work is split across the common
+ * fork-join pool.
+ *
+ * @author Carlos G. Gavidia
+ */
+final class PheromoneKernels {
+
+    /**
+     * Number of cells from which bulk operations are executed in parallel.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private PheromoneKernels() {
+    }
+
+    /**
+     * An operation over the positions [from, to) of an array.
+     */
+    interface RangeKernel {
+        void apply(double[] values, int from, int to);
+    }
+
+    static RangeKernel scale(double factor) {
+        return (values, from, to) -> {
+            for (int index = from; index < to; index++) {
+                values[index] *= factor;
+            }
+        };
+    }
+
+    static RangeKernel fill(double value) {
+        return (values, from, to) -> {
+            for (int index = from; index < to; index++) {
+                values[index] = value;
+            }
+        };
+    }
+
+    static RangeKernel scaleAndClamp(double factor, double minimum) {
+        return (values, from, to) -> {
+            for (int index = from; index < to; index++) {
+                values[index] = Math.max(values[index] * factor, minimum);
+            }
+        };
+    }
+
+    static RangeKernel add(double amount) {
+        return (values, from, to) -> {
+            for (int index = from; index < to; index++) {
+                values[index] += amount;
+            }
+        };
+    }
+
+    static void apply(double[] values, RangeKernel kernel) {
+        if (values.length < PARALLEL_THRESHOLD) {
+            kernel.apply(values, 0, values.length);
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new RangeTask(values, 0, values.length, kernel));
+    }
+
+    static void apply(double[][] rows, RangeKernel kernel) {
+        long cells = 0;
+        for (double[] row : rows) {
+            cells += row.length;
+        }
+
+        if (cells < PARALLEL_THRESHOLD) {
+            for (double[] row : rows) {
+                kernel.apply(row, 0, row.length);
+            }
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new RowsTask(rows, 0, rows.length, kernel));
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+
+        private final double[] values;
+        private final int from;
+        private final int to;
+        private final RangeKernel kernel;
+
+        private RangeTask(double[] values, int from, int to, RangeKernel kernel) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.kernel = kernel;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                kernel.apply(values, from, to);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(values, from, middle, kernel), new RangeTask(values, middle, to, kernel));
+        }
+    }
+
+    private static final class RowsTask extends RecursiveAction {
+
+        private final double[][] rows;
+        private final int fromRow;
+        private final int toRow;
+        private final RangeKernel kernel;
+
+        private RowsTask(double[][] rows, int fromRow, int toRow, RangeKernel kernel) {
+            this.rows = rows;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.kernel = kernel;
+        }
+
+        @Override
+        protected void compute() {
+            long cells = 0;
+            for (int row = fromRow; row < toRow; row++) {
+                cells += rows[row].length;
+            }
+
+            if (toRow - fromRow <= 1 || cells <= PARALLEL_THRESHOLD) {
+                for (int row = fromRow; row < toRow; row++) {
+                    kernel.apply(rows[row], 0, rows[row].length);
+                }
+                return;
+            }
+
+            int middle = (fromRow + toRow) >>> 1;
+            invokeAll(new RowsTask(rows, fromRow, middle, kernel), new RowsTask(rows, middle, toRow, kernel));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package isula.aco;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Storage for pheromone values, organized in rows and columns. The framework provides two implementations:
+ * <ul>
+ * <li>ArrayPheromoneMatrix, an adapter over a double[][] array.
+ * <li>FlatPheromoneMatrix, backed by a single row-major double[] array. It has better cache behaviour for large
+ * matrices.
+ * <li>SparsePheromoneMatrix, that only stores the cells that differ from a default value. It's meant for problems
+ * where a dense matrix doesn't fit in memory.
+ * </ul>
+ * <p>
+ * <p>
+ * Single-cell updates through update() are atomic. Bulk operations (fill(), scale(), scaleAndClamp(), add(),
+ * transform()) are not: they are meant to be called when no other thread is writing the matrix. The built-in
+ * implementations run them as vectorizable loops, split across the common fork-join pool on large matrices.
+ *
+ * @author Carlos G. Gavidia
+ */
+public interface PheromoneMatrix {
+
+    int getRows();
+
+    /**
+     * Number of columns. For matrices with rows of different length, it's the length of the first row.
+     *
+     * @return Number of columns.
+     */
+    int getColumns();
+
+    /**
+     * Number of columns of a row. By default, every row has getColumns() columns.
+     *
+     * @param row Row index.
+     * @return Number of columns in the row.
+     */
+    default int getColumns(int row) {
+        return getColumns();
+    }
+
+    double get(int row, int column);
+
+    void set(int row, int column, double value);
+
+    /**
+     * Reads a cell, observing the latest value written by any thread.
+     *
+     * @param row    Row index.
+     * @param column Column index.
+     * @return Pheromone value.
+     */
+    double getVolatile(int row, int column);
+
+    /**
+     * Atomically updates a cell using compare-and-set. If another thread changes the cell concurrently, the update
+     * function is applied again over the new value. The update function should be free of side effects.
+     *
+     * @param row    Row index.
+     * @param column Column index.
+     * @param update Function that calculates the new value from the current one.
+     * @return New value.
+     */
+    double update(int row, int column, DoubleUnaryOperator update);
+
+    /**
+     * Assigns the same value to every cell.
+     *
+     * @param value Value to assign.
+     */
+    void fill(double value);
+
+    /**
+     * Multiplies every cell by a factor.
+     *
+     * @param factor Factor for multiplication.
+     */
+    void scale(double factor);
+
+    /**
+     * Multiplies every cell by a factor, and raises the results below a minimum to that minimum. This is the
+     * evaporation step of Max-Min Ant System.
+     *
+     * @param factor  Factor for multiplication.
+     * @param minimum Minimum value of a cell.
+     */
+    default void scaleAndClamp(double factor, double minimum) {
+        transform(value -> Math.max(value * factor, minimum));
+    }
+
+    /**
+     * Adds the same amount to every cell.
+     *
+     * @param amount Amount to add.
+     */
+    default void add(double amount) {
+        transform(value -> value + amount);
+    }
+
+    /**
+     * Replaces every cell with the result of applying a function to it.
+     *
+     * @param operator Function to apply.
+     */
+    void transform(DoubleUnaryOperator operator);
+
+    /**
+     * Copies the values of a row into an array.
+     *
+     * @param row         Row index.
+     * @param destination Array with at least as many positions as columns in the row.
+     */
+    void copyRow(int row, double[] destination);
+
+    /**
+     * Creates an independent copy of this matrix, with the same implementation.
+     *
+     * @return Matrix copy.
+     */
+    PheromoneMatrix copy();
+
+    /**
+     * Copies the values of this matrix into a new array.
+     *
+     * @return Array with the pheromone values.
+     */
+    double[][] toArray();
+
+    /**
+     * Indicates if several threads can update this matrix while others apply bulk operations, as required by
+     * Environment.setConcurrentPheromoneUpdates().
+     *
+     * @return True if concurrent updates are supported.
+     */
+    default boolean supportsConcurrentUpdates() {
+        return true;
+    }
+}
@@ -0,0 +1,81 @@
+package isula.aco;
+
+import java.util.SplittableRandom;
+
+/**
+ * Provides the random number streams used by a solver, derived from a single seed. Every ant gets its own stream on
+ * each iteration, determined by the seed, the colony index, the iteration and the position of the ant in the hive.
+ * Streams are not shared between threads, so there's no contention on a common generator, and an execution can be
+ * reproduced from its seed regardless of how many threads build the solutions.
+ * <p>
+ * <p>
+ * Since streams only depend on their coordinates, an execution resumed from a checkpoint draws the same numbers it
+ * would have drawn without interruption.
+ *
+ * @author Carlos G. Gavidia
+ */
+public class RandomSource {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // Position used for the streams of a colony, that are not associated with an ant.
+    private static final int COLONY_STREAM = -1;
+
+    private final long seed;
+
+    /**
+     * Creates a source with a random seed. Use getSeed() to reproduce the execution later.
+     */
+    public RandomSource() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    public RandomSource(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * The stream of an ant for an iteration.
+     *
+     * @param colonyIndex Index of the colony.
+     * @param iteration   Current iteration, starting from zero.
+     * @param antIndex    Position of the ant in the hive.
+     * @return Random number stream.
+     */
+    public SplittableRandom getAntStream(int colonyIndex, int iteration, int antIndex) {
+        return new SplittableRandom(mix(mix(mix(seed + GOLDEN_GAMMA * (colonyIndex + 1L))
+                + GOLDEN_GAMMA * (iteration + 1L)) + GOLDEN_GAMMA * (antIndex + 1L)));
+    }
+
+    /**
+     * The stream of a colony for an iteration, for decisions that don't belong to an ant -like picking migration
+     * sources on the island model.
+     *
+     * @param colonyIndex Index of the colony.
+     * @param iteration   Current iteration, starting from zero.
+     * @return Random number stream.
+     */
+    public SplittableRandom getColonyStream(int colonyIndex, int iteration) {
+        return getAntStream(colonyIndex, iteration, COLONY_STREAM);
+    }
+
+    /**
+     * The finalizer of SplitMix64: a bijection that spreads every input bit over the output.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    @Override
+    public String toString() {
+        return "RandomSource{" +
+                "seed=" + seed +
+                '}';
+    }
+}
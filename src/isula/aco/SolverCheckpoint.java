@@ -0,0 +1,352 @@
+package isula.aco;
+
+import isula.aco.exception.ConfigurationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The state of a colony after an iteration, stored in a file so an interrupted execution can be resumed. It contains
+ * the number of completed iterations, the best solution found so far, the solution and evaluation counters, the
+ * pheromone matrix and the seed of the RandomSource, if any.
+ * <p>
+ * <p>
+ * Files are written and read through a FileChannel and a reusable direct buffer. No region of the file stays
+ * mapped, so the files can be replaced right away on every platform. A checkpoint is first written to a temporary
+ * file, which then replaces the previous checkpoint: an interrupted write never corrupts the last valid checkpoint.
+ * <p>
+ * <p>
+ * Solution components are stored by index, so the ants or the environment need to provide a ComponentIndexer. A
+ * SparsePheromoneMatrix is stored as its default value plus the cells that differ from it. Other pheromone matrices
+ * are stored as a dense matrix.
+ *
+ * @author Carlos G. Gavidia
+ */
+public class SolverCheckpoint {
+
+    private static final int MAGIC_NUMBER = 0x49534C41;
+    private static final int FORMAT_VERSION = 4;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + 3 * Integer.BYTES + 2 * Long.BYTES + Double.BYTES
+            + 3 * Integer.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private static final int DENSE_STORAGE = 0;
+    private static final int SPARSE_STORAGE = 1;
+    private static final int SPARSE_ENTRY_BYTES = 2 * Integer.BYTES + Double.BYTES;
+
+    private static final int NO_SOLUTION = -1;
+
+    private final Path file;
+    private final int colonyIndex;
+    private final int completedIterations;
+    private final int lastImprovementIteration;
+    private final long generatedSolutions;
+    private final long solutionEvaluations;
+    private final double bestSolutionCost;
+    private final int[] bestSolution;
+    private final int rows;
+    private final int columns;
+    private final Long seed;
+    private final int pheromoneStorage;
+
+    private SolverCheckpoint(Path file, int colonyIndex, int completedIterations, int lastImprovementIteration,
+                             long generatedSolutions, long solutionEvaluations, double bestSolutionCost,
+                             int[] bestSolution, int rows, int columns, Long seed, int pheromoneStorage) {
+        this.file = file;
+        this.colonyIndex = colonyIndex;
+        this.completedIterations = completedIterations;
+        this.lastImprovementIteration = lastImprovementIteration;
+        this.generatedSolutions = generatedSolutions;
+        this.solutionEvaluations = solutionEvaluations;
+        this.bestSolutionCost = bestSolutionCost;
+        this.bestSolution = bestSolution;
+        this.rows = rows;
+        this.columns = columns;
+        this.seed = seed;
+        this.pheromoneStorage = pheromoneStorage;
+    }
+
+    /**
+     * Writes the state of a colony to a file, replacing any previous checkpoint.
+     *
+     * @param file                Checkpoint file.
+     * @param colonyIndex         Index of the colony.
+     * @param completedIterations Number of iterations completed by the colony.
+     * @param performanceTracker  Performance of the colony so far.
+     * @param componentIndexer    Maps the components of the best solution to indexes.
+     * @param pheromones          Pheromone matrix of the colony.
+     * @param randomSource        Source of the random streams of the solver, or null.
+     * @throws IOException If the file can't be written.
+     */
+    public static <C> void write(Path file, int colonyIndex, int completedIterations,
+                                 PerformanceTracker<C, ?> performanceTracker, ComponentIndexer<C> componentIndexer,
+                                 PheromoneMatrix pheromones, RandomSource randomSource) throws IOException {
+
+        int[] bestSolution = getComponentIndexes(performanceTracker.getBestSolution(), componentIndexer);
+        int rows = pheromones.getRows();
+        int columns = pheromones.getColumns();
+        int pheromoneStorage = pheromones instanceof SparsePheromoneMatrix ? SPARSE_STORAGE : DENSE_STORAGE;
+
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+            buffer.putInt(MAGIC_NUMBER)
+                    .putInt(FORMAT_VERSION)
+                    .putInt(colonyIndex)
+                    .putInt(completedIterations)
+                    .putInt(performanceTracker.getLastImprovementIteration())
+                    .putLong(performanceTracker.getGeneratedSolutions())
+                    .putLong(performanceTracker.getSolutionEvaluations())
+                    .putDouble(performanceTracker.getBestSolutionCost())
+                    .putInt(bestSolution == null ? NO_SOLUTION : bestSolution.length)
+                    .putInt(rows)
+                    .putInt(columns)
+                    .putInt(randomSource == null ? 0 : 1)
+                    .putLong(randomSource == null ? 0L : randomSource.getSeed())
+                    .putInt(pheromoneStorage);
+
+            if (bestSolution != null) {
+                for (int componentIndex : bestSolution) {
+                    reserve(channel, buffer, Integer.BYTES).putInt(componentIndex);
+                }
+            }
+
+            if (pheromoneStorage == SPARSE_STORAGE) {
+                SparsePheromoneMatrix sparsePheromones = (SparsePheromoneMatrix) pheromones;
+                reserve(channel, buffer, Double.BYTES + Integer.BYTES)
+                        .putDouble(sparsePheromones.getDefaultValue())
+                        .putInt(sparsePheromones.getStoredEntries());
+                sparsePheromones.writeStoredEntries((row, column, value) ->
+                        reserve(channel, buffer, SPARSE_ENTRY_BYTES)
+                                .putInt(row)
+                                .putInt(column)
+                                .putDouble(value));
+            } else {
+                double[] pheromoneRow = new double[columns];
+                for (int row = 0; row < rows; row++) {
+                    pheromones.copyRow(row, pheromoneRow);
+                    for (double value : pheromoneRow) {
+                        reserve(channel, buffer, Double.BYTES).putDouble(value);
+                    }
+                }
+            }
+
+            flush(channel, buffer);
+            channel.force(true);
+        }
+
+        try {
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads the metadata of a checkpoint. The pheromone matrix is read later, with restorePheromones().
+     *
+     * @param file Checkpoint file.
+     * @return Checkpoint contents.
+     * @throws IOException If the file can't be read.
+     */
+    public static SolverCheckpoint read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new ConfigurationException("The file " + file + " is not a valid checkpoint.");
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).flip();
+            load(channel, header, HEADER_BYTES, file);
+            if (header.getInt() != MAGIC_NUMBER || header.getInt() != FORMAT_VERSION) {
+                throw new ConfigurationException("The file " + file + " is not a valid checkpoint.");
+            }
+
+            int colonyIndex = header.getInt();
+            int completedIterations = header.getInt();
+            int lastImprovementIteration = header.getInt();
+            long generatedSolutions = header.getLong();
+            long solutionEvaluations = header.getLong();
+            double bestSolutionCost = header.getDouble();
+            int solutionLength = header.getInt();
+            int rows = header.getInt();
+            int columns = header.getInt();
+            boolean hasSeed = header.getInt() != 0;
+            long seed = header.getLong();
+            int pheromoneStorage = header.getInt();
+
+            int[] bestSolution = null;
+            if (solutionLength != NO_SOLUTION) {
+                bestSolution = new int[solutionLength];
+                ByteBuffer solutionBuffer = ByteBuffer.allocate(Integer.BYTES * solutionLength).flip();
+                load(channel, solutionBuffer, solutionBuffer.capacity(), file);
+                solutionBuffer.asIntBuffer().get(bestSolution);
+            }
+
+            return new SolverCheckpoint(file, colonyIndex, completedIterations, lastImprovementIteration,
+                    generatedSolutions, solutionEvaluations, bestSolutionCost, bestSolution, rows, columns,
+                    hasSeed ? seed : null, pheromoneStorage);
+        }
+    }
+
+    /**
+     * Copies the pheromone values of the checkpoint to a matrix with the same dimensions.
+     *
+     * @param pheromones Pheromone matrix to update.
+     * @throws IOException If the file can't be read.
+     */
+    public void restorePheromones(PheromoneMatrix pheromones) throws IOException {
+        if (pheromones.getRows() != rows || pheromones.getColumns() != columns) {
+            throw new ConfigurationException("The checkpoint has a pheromone matrix of " + rows + "x" + columns +
+                    ", but the environment has one of " + pheromones.getRows() + "x" + pheromones.getColumns());
+        }
+
+        long metadataBytes = HEADER_BYTES + (long) Integer.BYTES * (bestSolution == null ? 0 : bestSolution.length);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position(metadataBytes);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).flip();
+
+            if (pheromoneStorage == SPARSE_STORAGE) {
+                load(channel, buffer, Double.BYTES + Integer.BYTES, file);
+                pheromones.fill(buffer.getDouble());
+                int storedEntries = buffer.getInt();
+                for (int entry = 0; entry < storedEntries; entry++) {
+                    load(channel, buffer, SPARSE_ENTRY_BYTES, file);
+                    pheromones.set(buffer.getInt(), buffer.getInt(), buffer.getDouble());
+                }
+            } else {
+                for (int row = 0; row < rows; row++) {
+                    for (int column = 0; column < columns; column++) {
+                        load(channel, buffer, Double.BYTES, file);
+                        pheromones.set(row, column, buffer.getDouble());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Restores the best solution found so far into a performance tracker, with the number of generated solutions
+     * and cost evaluations. Termination criteria based on these counters continue from the stored values.
+     *
+     * @param performanceTracker Tracker of the colony.
+     * @param componentIndexer   Maps indexes back to solution components.
+     * @param ant                Ant used to obtain the string representation of the solution.
+     */
+    public <C, E extends Environment> void restorePerformance(PerformanceTracker<C, E> performanceTracker,
+                                                              ComponentIndexer<C> componentIndexer, Ant<C, E> ant) {
+        List<C> solution = null;
+        if (bestSolution != null) {
+            solution = new ArrayList<>(bestSolution.length);
+            for (int componentIndex : bestSolution) {
+                solution.add(componentIndexer.getComponent(componentIndex));
+            }
+        }
+
+        performanceTracker.restore(solution, bestSolutionCost, solution == null ? null :
+                ant.getSolutionAsString(solution), generatedSolutions, solutionEvaluations, lastImprovementIteration);
+    }
+
+    private static <C> int[] getComponentIndexes(List<C> solution, ComponentIndexer<C> componentIndexer) {
+        if (solution == null) {
+            return null;
+        }
+
+        int[] componentIndexes = new int[solution.size()];
+        for (int position = 0; position < componentIndexes.length; position++) {
+            C component = solution.get(position);
+            componentIndexes[position] = componentIndexer.getIndex(component);
+            if (componentIndexes[position] < 0) {
+                throw new ConfigurationException("The component " + component + " has no index, so it can't be " +
+                        "stored in a checkpoint.");
+            }
+        }
+        return componentIndexes;
+    }
+
+    /**
+     * Makes room for a number of bytes in a write buffer, writing its contents to the channel if needed.
+     */
+    private static ByteBuffer reserve(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush(channel, buffer);
+        }
+        return buffer;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Makes sure a read buffer has a number of bytes available, reading from the channel if needed. The buffer is
+     * kept ready for reading, so new buffers are flipped before the first call.
+     */
+    private static void load(FileChannel channel, ByteBuffer buffer, int bytes, Path file) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                throw new ConfigurationException("The checkpoint " + file + " is truncated.");
+            }
+        }
+        buffer.flip();
+    }
+
+    public int getColonyIndex() {
+        return colonyIndex;
+    }
+
+    /**
+     * Number of iterations completed when the checkpoint was written. A resumed execution starts from this
+     * iteration.
+     *
+     * @return Completed iterations.
+     */
+    public int getCompletedIterations() {
+        return completedIterations;
+    }
+
+    public double getBestSolutionCost() {
+        return bestSolutionCost;
+    }
+
+    /**
+     * The seed of the RandomSource used by the solver.
+     *
+     * @return Seed, or null if the solver had no random source.
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public String toString() {
+        return "SolverCheckpoint{" +
+                "file=" + file +
+                ", colonyIndex=" + colonyIndex +
+                ", completedIterations=" + completedIterations +
+                ", bestSolutionCost=" + bestSolutionCost +
+                ", rows=" + rows +
+                ", columns=" + columns +
+                ", seed=" + seed +
+                '}';
+    }
+}
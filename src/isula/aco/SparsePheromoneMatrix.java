@@ -0,0 +1,287 @@
+package isula.aco;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A pheromone matrix that only stores the cells that were written. The rest of the cells share a default value,
+ * usually the initial pheromone value assigned by populatePheromoneMatrix(). This makes possible to solve problems
+ * with a huge number of solution components, where a dense matrix wouldn't fit in memory.
+ * <p>
+ * <p>
+ * Cells are kept in an open-addressing hash table with linear probing, keyed by the row and column packed in a
+ * long. Evaporation and other bulk operations are applied to the default value and to the stored cells, so they take
+ * time proportional to the stored cells. Cells that end up with the default value -for example, after being clamped
+ * to the Max-Min Ant System minimum- are removed from the table.
+ * <p>
+ * <p>
+ * To use it, override Environment.createPheromones() or call Environment.setPheromones(). Avoid toArray() on large
+ * matrices: it returns a dense copy. This matrix doesn't support
+ * concurrent updates from several threads.
+ *
+ * @author Carlos G. Gavidia
+ */
+public class SparsePheromoneMatrix implements PheromoneMatrix {
+
+    private static final long EMPTY = -1L;
+    private static final int MINIMUM_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private final int rows;
+    private final int columns;
+    private final int initialCapacity;
+
+    private double defaultValue;
+    private long[] keys;
+    private double[] values;
+    private int storedEntries;
+
+    public SparsePheromoneMatrix(int rows, int columns, double defaultValue) {
+        this(rows, columns, defaultValue, MINIMUM_CAPACITY);
+    }
+
+    /**
+     * Creates an empty matrix, where all cells have the default value.
+     *
+     * @param rows            Number of rows.
+     * @param columns         Number of columns.
+     * @param defaultValue    Value of the cells that are not stored.
+     * @param expectedEntries Number of cells expected to be written, to size the hash table.
+     */
+    public SparsePheromoneMatrix(int rows, int columns, double defaultValue, int expectedEntries) {
+        if (rows < 0 || columns < 0 || expectedEntries < 0) {
+            throw new IllegalArgumentException("Invalid sparse matrix dimensions. Rows: " + rows + " Columns: " +
+                    columns + " Expected entries: " + expectedEntries);
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        this.defaultValue = defaultValue;
+        this.initialCapacity = getCapacity(expectedEntries);
+        allocate(initialCapacity);
+    }
+
+    private SparsePheromoneMatrix(SparsePheromoneMatrix matrix) {
+        this.rows = matrix.rows;
+        this.columns = matrix.columns;
+        this.initialCapacity = matrix.initialCapacity;
+        this.defaultValue = matrix.defaultValue;
+        this.keys = matrix.keys.clone();
+        this.values = matrix.values.clone();
+        this.storedEntries = matrix.storedEntries;
+    }
+
+    private static int getCapacity(int entries) {
+        // The load factor is kept below one half, so probe sequences stay short.
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity / 2 < entries) {
+            if (capacity == MAXIMUM_CAPACITY) {
+                throw new IllegalStateException("The sparse pheromone matrix can't store " + entries + " entries.");
+            }
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new double[capacity];
+        Arrays.fill(keys, EMPTY);
+        this.storedEntries = 0;
+    }
+
+    private static long getKey(int row, int column) {
+        return ((long) row << 32) | column;
+    }
+
+    private int getSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * The value of the cells that are not stored.
+     *
+     * @return Default value.
+     */
+    public double getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Number of cells stored in the hash table. The memory used by this matrix is proportional to this number.
+     *
+     * @return Stored cells.
+     */
+    public int getStoredEntries() {
+        return storedEntries;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    @Override
+    public double get(int row, int column) {
+        int slot = getSlot(getKey(row, column));
+        return keys[slot] == EMPTY ? defaultValue : values[slot];
+    }
+
+    @Override
+    public void set(int row, int column, double value) {
+        long key = getKey(row, column);
+        int slot = getSlot(key);
+
+        if (keys[slot] == EMPTY) {
+            if (value == defaultValue) {
+                return;
+            }
+
+            keys[slot] = key;
+            storedEntries += 1;
+            if (storedEntries > keys.length / 2) {
+                values[slot] = value;
+                rehash(getCapacity(storedEntries));
+                return;
+            }
+        }
+        values[slot] = value;
+    }
+
+    @Override
+    public synchronized double getVolatile(int row, int column) {
+        return get(row, column);
+    }
+
+    @Override
+    public synchronized double update(int row, int column, DoubleUnaryOperator update) {
+        double newValue = update.applyAsDouble(get(row, column));
+        set(row, column, newValue);
+        return newValue;
+    }
+
+    @Override
+    public void fill(double value) {
+        defaultValue = value;
+        allocate(initialCapacity);
+    }
+
+    @Override
+    public void scale(double factor) {
+        transform(value -> value * factor);
+    }
+
+    @Override
+    public void transform(DoubleUnaryOperator operator) {
+        defaultValue = operator.applyAsDouble(defaultValue);
+
+        int defaultEntries = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                values[slot] = operator.applyAsDouble(values[slot]);
+                if (values[slot] == defaultValue) {
+                    defaultEntries += 1;
+                }
+            }
+        }
+
+        if (defaultEntries > 0) {
+            rehash(getCapacity(storedEntries - defaultEntries));
+        }
+    }
+
+    /**
+     * Moves the stored cells to a new table, dropping the ones that have the default value.
+     */
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+
+        allocate(Math.max(capacity, initialCapacity));
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != EMPTY && oldValues[slot] != defaultValue) {
+                int newSlot = getSlot(oldKeys[slot]);
+                keys[newSlot] = oldKeys[slot];
+                values[newSlot] = oldValues[slot];
+                storedEntries += 1;
+            }
+        }
+    }
+
+    @Override
+    public void copyRow(int row, double[] destination) {
+        Arrays.fill(destination, 0, columns, defaultValue);
+
+        if (keys.length < columns) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != EMPTY && (int) (keys[slot] >>> 32) == row) {
+                    destination[(int) keys[slot]] = values[slot];
+                }
+            }
+        } else {
+            for (int column = 0; column < columns; column++) {
+                destination[column] = get(row, column);
+            }
+        }
+    }
+
+    /**
+     * Passes the stored cells, in no particular order, to a writer. Used to store the matrix in a checkpoint
+     * without building a dense copy.
+     *
+     * @param entryWriter Receives the row, column and value of every stored cell.
+     * @throws IOException If the writer fails.
+     */
+    void writeStoredEntries(EntryWriter entryWriter) throws IOException {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                entryWriter.write((int) (keys[slot] >>> 32), (int) keys[slot], values[slot]);
+            }
+        }
+    }
+
+    interface EntryWriter {
+
+        void write(int row, int column, double value) throws IOException;
+    }
+
+    @Override
+    public SparsePheromoneMatrix copy() {
+        return new SparsePheromoneMatrix(this);
+    }
+
+    @Override
+    public double[][] toArray() {
+        double[][] valuesCopy = new double[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            copyRow(row, valuesCopy[row]);
+        }
+        return valuesCopy;
+    }
+
+    @Override
+    public boolean supportsConcurrentUpdates() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "SparsePheromoneMatrix{" +
+                "rows=" + rows +
+                ", columns=" + columns +
+                ", defaultValue=" + defaultValue +
+                ", storedEntries=" + storedEntries +
+                '}';
+    }
+}
@@ -0,0 +1,54 @@
+package isula.aco;
+
+import java.util.function.Supplier;
+
+/**
+ * Entry point for the diagnostic messages of the framework. Expensive messages are passed as suppliers, so they are
+ * only built when the current TraceSink is enabled for their source.
+ *
+ * @author Carlos G. Gavidia
+ */
+public final class Trace {
+
+    private static volatile TraceSink sink = TraceSink.logging();
+
+    private Trace() {
+    }
+
+    /**
+     * Replaces the sink that receives diagnostic messages, for all solvers.
+     *
+     * @param traceSink New sink, or null to discard all messages.
+     */
+    public static void setSink(TraceSink traceSink) {
+        sink = traceSink == null ? TraceSink.disabled() : traceSink;
+    }
+
+    public static TraceSink getSink() {
+        return sink;
+    }
+
+    public static boolean isEnabled(Class<?> source) {
+        return sink.isEnabled(source);
+    }
+
+    public static void trace(Class<?> source, String message) {
+        TraceSink currentSink = sink;
+        if (currentSink.isEnabled(source)) {
+            currentSink.trace(source, message);
+        }
+    }
+
+    /**
+     * Sends a message to the sink, building it only if the sink is enabled for the source.
+     *
+     * @param source  Class that produces the message.
+     * @param message Supplier of the diagnostic message.
+     */
+    public static void trace(Class<?> source, Supplier<String> message) {
+        TraceSink currentSink = sink;
+        if (currentSink.isEnabled(source)) {
+            currentSink.trace(source, message.get());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package isula.aco;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Receives the diagnostic messages of the framework: the detailed, per-iteration information that used to be logged
+ * at FINE level, like pheromone matrices or the solution of every ant. Messages are only built when the sink is
+ * enabled for their source, so a disabled sink costs nothing on the hot paths.
+ * <p>
+ * <p>
+ * The sink in use is configured with Trace.setSink(). By default, messages are sent to the java.util.logging logger
+ * of the source class at FINE level.
+ *
+ * @author Carlos G. Gavidia
+ */
+public interface TraceSink {
+
+    /**
+     * Indicates if messages from a class are recorded.
+     *
+     * @param source Class that produces the message.
+     * @return True if messages should be built and sent to this sink.
+     */
+    boolean isEnabled(Class<?> source);
+
+    /**
+     * Records a diagnostic message. It's only called when isEnabled() returns true for the source.
+     *
+     * @param source  Class that produces the message.
+     * @param message Diagnostic message.
+     */
+    void trace(Class<?> source, String message);
+
+    /**
+     * A sink that sends messages to the java.util.logging logger of the source class, at FINE level.
+     *
+     * @return Logging sink.
+     */
+    static TraceSink logging() {
+        return new TraceSink() {
+
+            private final ClassValue<Logger> loggers = new ClassValue<>() {
+                @Override
+                protected Logger computeValue(Class<?> source) {
+                    return Logger.getLogger(source.getName());
+                }
+            };
+
+            @Override
+            public boolean isEnabled(Class<?> source) {
+                return loggers.get(source).isLoggable(Level.FINE);
+            }
+
+            @Override
+            public void trace(Class<?> source, String message) {
+                loggers.get(source).logp(Level.FINE, source.getName(), null, message);
+            }
+        };
+    }
+
+    /**
+     * A sink that discards all messages.
+     *
+     * @return Disabled sink.
+     */
+    static TraceSink disabled() {
+        return new TraceSink() {
+
+            @Override
+            public boolean isEnabled(Class<?> source) {
+                return false;
+            }
+
+            @Override
+            public void trace(Class<?> source, String message) {
+            }
+        };
+    }
+}
@@ -34,5 +34,54 @@ public class PheromoneUtils {
                 validatePheromoneValue(ant.getPheromoneTrailValue(solutionComponent, componentIndex, environment));
             }
         });
+
+        environment.invalidateChoiceInformation();
+    }
+
+    /**
+     * Adds pheromone to every component of an ant's solution. Each cell is updated through
+     * Ant.updatePheromoneTrailValue(), so deposits from several threads are not lost if the ant supports atomic
+     * updates.
+     *
+     * @param ant               Ant depositing pheromone.
+     * @param environment       Environment where the pheromone is deposited.
+     * @param depositCalculator Pheromone to add, given the position of the component in the solution.
+     * @param <C>               Class for components of a solution.
+     * @param <E>               Class representing the Environment.
+     */
+    public static <C, E extends Environment> void depositPheromoneForAntSolution(Ant<C, E> ant, E environment,
+                                                                                 IntToDoubleFunction depositCalculator) {
+        depositPheromoneForAntSolution(ant, environment, depositCalculator, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Adds pheromone to every component of an ant's solution, without exceeding a maximum value. Like
+     * depositPheromoneForAntSolution(Ant, Environment, IntToDoubleFunction), each cell is updated through
+     * Ant.updatePheromoneTrailValue().
+     *
+     * @param ant               Ant depositing pheromone.
+     * @param environment       Environment where the pheromone is deposited.
+     * @param depositCalculator Pheromone to add, given the position of the component in the solution.
+     * @param maximumValue      Maximum pheromone value of a cell.
+     * @param <C>               Class for components of a solution.
+     * @param <E>               Class representing the Environment.
+     */
+    public static <C, E extends Environment> void depositPheromoneForAntSolution(Ant<C, E> ant, E environment,
+                                                                                 IntToDoubleFunction depositCalculator,
+                                                                                 double maximumValue) {
+
+        List<C> antSolution = ant.getSolution();
+        for (int componentIndex = 0; componentIndex < antSolution.size(); componentIndex++) {
+            C solutionComponent = antSolution.get(componentIndex);
+
+            if (solutionComponent != null) {
+                double pheromoneDeposit = depositCalculator.applyAsDouble(componentIndex);
+                ant.updatePheromoneTrailValue(solutionComponent, componentIndex, environment,
+                        pheromoneValue -> Math.min(pheromoneValue + pheromoneDeposit, maximumValue));
+                validatePheromoneValue(ant.getPheromoneTrailValue(solutionComponent, componentIndex, environment));
+            }
+        }
+
+        environment.invalidateChoiceInformation();
     }
 }
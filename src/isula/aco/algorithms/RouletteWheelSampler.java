@@ -0,0 +1,98 @@
+package isula.aco.algorithms;
+
+import isula.aco.exception.SolutionConstructionException;
+
+/**
+ * Roulette-wheel selection over a vector of non-negative weights. It keeps a reusable buffer of cumulative sums, so
+ * sampling does one prefix-sum pass and a search without allocating memory: a linear scan for small vectors and a
+ * binary search for larger ones.
+ * <p>
+ * <p>
+ * Instances are not thread-safe: every policy instance should have its own sampler.
+ *
+ * @author Carlos G. Gavidia
+ */
+public class RouletteWheelSampler {
+
+    private static final int LINEAR_SCAN_THRESHOLD = 16;
+
+    private double[] cumulativeWeights = new double[0];
+
+    /**
+     * Selects an index with a probability proportional to its weight.
+     *
+     * @param weights         Weights for each index. They don't need to be normalized.
+     * @param numberOfWeights Number of weights to consider, starting from the first position of the array.
+     * @param randomValue     Uniform random value in [0, 1).
+     * @return The selected index.
+     */
+    public int sample(double[] weights, int numberOfWeights, double randomValue) {
+        double[] cumulative = getCumulativeWeights(numberOfWeights);
+
+        double totalWeight = 0.0;
+        for (int index = 0; index < numberOfWeights; index++) {
+            totalWeight += weights[index];
+            cumulative[index] = totalWeight;
+        }
+
+        if (!(totalWeight > 0.0) || Double.isInfinite(totalWeight)) {
+            throw new SolutionConstructionException("Cannot sample from weights that add up to " + totalWeight +
+                    ". We need at least one positive weight.");
+        }
+
+        double target = randomValue * totalWeight;
+        int selectedIndex;
+        if (numberOfWeights <= LINEAR_SCAN_THRESHOLD) {
+            selectedIndex = linearSearch(cumulative, numberOfWeights, target);
+        } else {
+            selectedIndex = binarySearch(cumulative, numberOfWeights, target);
+        }
+
+        if (selectedIndex == numberOfWeights) {
+            selectedIndex = getLastPositiveWeight(weights, numberOfWeights);
+        }
+
+        return selectedIndex;
+    }
+
+    private double[] getCumulativeWeights(int numberOfWeights) {
+        if (cumulativeWeights.length < numberOfWeights) {
+            cumulativeWeights = new double[Math.max(numberOfWeights, 2 * cumulativeWeights.length)];
+        }
+        return cumulativeWeights;
+    }
+
+    private static int linearSearch(double[] cumulative, int numberOfWeights, double target) {
+        int index = 0;
+        while (index < numberOfWeights && cumulative[index] <= target) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Finds the first position whose cumulative weight is greater than the target. Positions with a weight of zero
+     * have the same cumulative weight than the previous one, so they are never selected.
+     */
+    private static int binarySearch(double[] cumulative, int numberOfWeights, double target) {
+        int low = 0;
+        int high = numberOfWeights;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] <= target) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int getLastPositiveWeight(double[] weights, int numberOfWeights) {
+        int index = numberOfWeights - 1;
+        while (index > 0 && weights[index] <= 0.0) {
+            index--;
+        }
+        return index;
+    }
+}
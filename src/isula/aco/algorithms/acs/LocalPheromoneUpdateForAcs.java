@@ -7,6 +7,23 @@ import isula.aco.Environment;
 
 import static isula.aco.algorithms.PheromoneUtils.validatePheromoneValue;
 
+/**
+ * The local pheromone update of Ant Colony System: after an ant selects a component, the pheromone on it gets closer
+ * to the initial pheromone value.
+ * <p>
+ * <p>
+ * The update is done through Ant.updatePheromoneTrailValue(), so it's atomic when ants building solutions in
+ * parallel support atomic updates on a shared environment.
+ * <p>
+ * <p>
+ * Since pheromone changes after every step, this policy invalidates the choice information of the updated cell
+ * through Ant.invalidateChoiceInformation(). Ants that use the choice information cache should override that method
+ * to invalidate only the affected rows: by default, the whole cache is recalculated after every step.
+ *
+ * @param <C> Class for components of a solution.
+ * @param <E> Class representing the Environment.
+ * @author Carlos G. Gavidia
+ */
 public class LocalPheromoneUpdateForAcs<C, E extends Environment> extends
         AntPolicy<C, E> {
 
@@ -20,23 +37,19 @@ public class LocalPheromoneUpdateForAcs<C, E extends Environment> extends
         int lastVisitedPosition = getAnt().getCurrentIndex() - 1;
         C solutionComponent = getAnt().getSolution().get(lastVisitedPosition);
 
-        double newPheromoneValue = this.getNewPheromoneValue(solutionComponent, lastVisitedPosition,
-                environment, configurationProvider);
-        validatePheromoneValue(newPheromoneValue);
+        AcsConfigurationProvider configuration = (AcsConfigurationProvider) configurationProvider;
+        double decayCoefficient = configuration.getPheromoneDecayCoefficient();
+        double contribution = decayCoefficient * configurationProvider.getInitialPheromoneValue();
 
-        getAnt().setPheromoneTrailValue(solutionComponent, lastVisitedPosition, environment,
-                newPheromoneValue);
+        getAnt().updatePheromoneTrailValue(solutionComponent, lastVisitedPosition, environment,
+                pheromoneValue -> getNewPheromoneValue(pheromoneValue, decayCoefficient, contribution));
+        validatePheromoneValue(getAnt().getPheromoneTrailValue(solutionComponent, lastVisitedPosition, environment));
+        getAnt().invalidateChoiceInformation(solutionComponent, lastVisitedPosition, environment);
         return true;
     }
 
-    private double getNewPheromoneValue(C solutionComponent, int lastVisitedPosition, E environment,
-                                        ConfigurationProvider configurationProvider) {
-
-        AcsConfigurationProvider configuration = (AcsConfigurationProvider) configurationProvider;
-        Double afterEvaporation = (1 - configuration.getPheromoneDecayCoefficient()) * getAnt().getPheromoneTrailValue(
-                solutionComponent, lastVisitedPosition, environment);
-        Double contribution = configuration.getPheromoneDecayCoefficient() * configurationProvider.getInitialPheromoneValue();
-
+    private static double getNewPheromoneValue(double pheromoneValue, double decayCoefficient, double contribution) {
+        double afterEvaporation = (1 - decayCoefficient) * pheromoneValue;
         return afterEvaporation + contribution;
     }
 }
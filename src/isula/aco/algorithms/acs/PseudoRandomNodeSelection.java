@@ -2,13 +2,13 @@ package isula.aco.algorithms.acs;
 
 import isula.aco.ConfigurationProvider;
 import isula.aco.Environment;
+import isula.aco.Trace;
 import isula.aco.algorithms.antsystem.RandomNodeSelection;
 import isula.aco.exception.SolutionConstructionException;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Random;
-import java.util.logging.Logger;
 
 /**
  * The selection policy for Ant Colony System algorithms. It defines to
@@ -32,33 +32,46 @@ import java.util.logging.Logger;
 public class PseudoRandomNodeSelection<C, E extends Environment> extends
         RandomNodeSelection<C, E> {
 
-    private static Logger logger = Logger.getLogger(PseudoRandomNodeSelection.class.getName());
-
-    private final Random random = new Random();
-
     @Override
     public boolean applyPolicy(E environment, ConfigurationProvider configuration) {
-        boolean nodeWasSelected = false;
         C nextNode;
         AcsConfigurationProvider configurationProvider = (AcsConfigurationProvider) configuration;
 
-        Map<C, Double> componentsWithProbabilities = this
-                .getComponentsWithProbabilities(environment, configurationProvider);
+        if (isMapProbabilitiesOverridden()) {
+            Map<C, Double> componentsWithProbabilities = getOverriddenProbabilities(environment,
+                    configurationProvider);
+            nextNode = selectMostConvenient(configurationProvider) ? getMostConvenient(componentsWithProbabilities) :
+                    getNextComponent(componentsWithProbabilities);
+            return visitSelectedNode(nextNode, environment, configuration);
+        }
 
-        if (selectMostConvenient(configurationProvider)) {
-            logger.fine("Selecting the greedy choice");
+        List<C> neighbourhood = getAntNeighbourhood(environment);
+        int feasibleComponents = computeNeighbourhoodProbabilities(environment, configurationProvider,
+                neighbourhood);
 
-            nextNode = getMostConvenient(componentsWithProbabilities);
+        if (selectMostConvenient(configurationProvider)) {
+            Trace.trace(PseudoRandomNodeSelection.class, "Selecting the greedy choice");
 
-            if (nextNode != null) {
-                nodeWasSelected = true;
-                getAnt().visitNode(nextNode, environment);
+            if (feasibleComponents > 0) {
+                nextNode = getMostConvenient(neighbourhood);
+            } else {
+                nextNode = getMostConvenient(doIfNoComponentsFound(environment, configurationProvider));
             }
 
         } else {
-            logger.fine("Selecting the probabilistic choice");
+            Trace.trace(PseudoRandomNodeSelection.class, "Selecting the probabilistic choice");
 
-            nodeWasSelected = super.applyPolicy(environment, configuration);
+            nextNode = sampleNextComponent(environment, configurationProvider, neighbourhood, feasibleComponents);
+        }
+
+        return visitSelectedNode(nextNode, environment, configuration);
+    }
+
+    private boolean visitSelectedNode(C nextNode, E environment, ConfigurationProvider configuration) {
+        boolean nodeWasSelected = false;
+        if (nextNode != null) {
+            nodeWasSelected = true;
+            getAnt().visitNode(nextNode, environment);
         }
 
         if (!nodeWasSelected) {
@@ -77,7 +90,7 @@ public class PseudoRandomNodeSelection<C, E extends Environment> extends
     protected boolean selectMostConvenient(AcsConfigurationProvider configurationProvider) {
         double bestChoiceProbability = configurationProvider
                 .getBestChoiceProbability();
-        double randomValue = random.nextDouble();
+        double randomValue = getAnt().getRandom().nextDouble();
         return randomValue < bestChoiceProbability;
     }
 
@@ -107,6 +120,27 @@ public class PseudoRandomNodeSelection<C, E extends Environment> extends
         return nextNode;
     }
 
+    /**
+     * Returns the component with the highest probability, according to the last call to
+     * computeNeighbourhoodProbabilities().
+     *
+     * @param neighbourhood The neighbourhood used to calculate the probabilities.
+     * @return Most convenient component, or null if no component can be added.
+     */
+    protected C getMostConvenient(List<C> neighbourhood) {
+        double[] probabilities = getProbabilities();
+        C nextNode = null;
+        double currentMaximumProbability = 0.0;
+
+        for (int index = 0; index < neighbourhood.size(); index++) {
+            if (probabilities[index] > currentMaximumProbability) {
+                nextNode = neighbourhood.get(index);
+                currentMaximumProbability = probabilities[index];
+            }
+        }
+        return nextNode;
+    }
+
     protected boolean doIfNoNodeWasSelected(E environment,
                                             ConfigurationProvider configuration) {
         throw new SolutionConstructionException(
@@ -3,10 +3,8 @@ package isula.aco.algorithms.antsystem;
 import isula.aco.*;
 
 import java.util.Arrays;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
-import static isula.aco.algorithms.PheromoneUtils.updatePheromoneForAntSolution;
+import static isula.aco.algorithms.PheromoneUtils.depositPheromoneForAntSolution;
 
 /**
  * Update pheromone process triggered after every ant has build a feasible solution. This action only considers the
@@ -18,7 +16,6 @@ import static isula.aco.algorithms.PheromoneUtils.updatePheromoneForAntSolution;
  */
 public class OfflinePheromoneUpdate<C, E extends Environment> extends DaemonAction<C, E> {
 
-    private static Logger logger = Logger.getLogger(OfflinePheromoneUpdate.class.getName());
 
     public OfflinePheromoneUpdate() {
         super(DaemonActionType.AFTER_ITERATION_CONSTRUCTION);
@@ -27,31 +24,21 @@ public class OfflinePheromoneUpdate<C, E extends Environment> extends DaemonActi
     @Override
     public void applyDaemonAction(ConfigurationProvider configurationProvider) {
 
-        logger.log(Level.FINE, "Performing offline pheromone update");
+        Trace.trace(OfflinePheromoneUpdate.class, "Performing offline pheromone update");
 
         E environment = getEnvironment();
 
         getAntColony().getHive()
                 .stream()
                 .filter(ant -> ant.isSolutionReady(environment))
-                .forEach(ant -> updatePheromoneForAntSolution(ant, getEnvironment(), positionInSolution -> {
+                .forEach(ant -> depositPheromoneForAntSolution(ant, environment, positionInSolution -> {
                     C solutionComponent = ant.getSolution().get(positionInSolution);
-
-                    if (solutionComponent != null) {
-
-                        double originalPheromoneValue = ant.getPheromoneTrailValue(solutionComponent, positionInSolution,
-                                environment);
-
-                        double pheromoneDeposit = this.getPheromoneDeposit(ant, positionInSolution, solutionComponent,
-                                environment, configurationProvider);
-
-                        return originalPheromoneValue + pheromoneDeposit;
-                    }
-                    return Double.MIN_VALUE;
+                    return this.getPheromoneDeposit(ant, positionInSolution, solutionComponent, environment,
+                            configurationProvider);
                 }));
 
-        logger.log(Level.FINE, "Pheromone matrix after update : {0}",
-                Arrays.deepToString(environment.getPheromoneMatrix()));
+        Trace.trace(OfflinePheromoneUpdate.class, () -> "Pheromone matrix after update : " +
+                Arrays.deepToString(environment.getPheromones().toArray()));
     }
 
     /**
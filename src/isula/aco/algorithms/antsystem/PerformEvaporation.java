@@ -4,9 +4,7 @@ import isula.aco.ConfigurationProvider;
 import isula.aco.DaemonAction;
 import isula.aco.DaemonActionType;
 import isula.aco.Environment;
-
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import isula.aco.Trace;
 
 /**
  * A simple evaporation policy taken from Ant System. It simply applies the
@@ -19,9 +17,6 @@ import java.util.logging.Logger;
 public class PerformEvaporation<C, E extends Environment> extends
         DaemonAction<C, E> {
 
-    private static Logger logger = Logger.getLogger(PerformEvaporation.class
-            .getName());
-
     public PerformEvaporation() {
         super(DaemonActionType.AFTER_ITERATION_CONSTRUCTION);
     }
@@ -30,8 +25,8 @@ public class PerformEvaporation<C, E extends Environment> extends
     public void applyDaemonAction(ConfigurationProvider configurationProvider) {
         double evaporationRatio = configurationProvider.getEvaporationRatio();
 
-        logger.fine("Performing evaporation on all edges");
-        logger.log(Level.FINE, "Evaporation ratio: {0}", evaporationRatio);
+        Trace.trace(PerformEvaporation.class, "Performing evaporation on all edges");
+        Trace.trace(PerformEvaporation.class, () -> "Evaporation ratio: " + evaporationRatio);
 
         getEnvironment().applyFactorToPheromoneMatrix(evaporationRatio);
     }
@@ -1,17 +1,21 @@
 package isula.aco.algorithms.antsystem;
 
 import isula.aco.*;
+import isula.aco.algorithms.RouletteWheelSampler;
 import isula.aco.exception.ConfigurationException;
 import isula.aco.exception.SolutionConstructionException;
-import org.apache.commons.math3.distribution.EnumeratedIntegerDistribution;
 
 import java.util.*;
-import java.util.logging.Logger;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 /**
  * This is the node selection policy used in Ant System algorithms, also known as Random Proportional Rule.
+ * <p>
+ * <p>
+ * Probabilities are calculated in a reusable array by computeNeighbourhoodProbabilities(). To bias the selection,
+ * override getComponentValue(). Subclasses that override the deprecated map-based methods,
+ * getComponentsWithProbabilities() or getProbabilitiesForNeighbourhood(), are detected and still select from the
+ * probabilities those methods return.
  *
  * @param <C> Class for components of a solution.
  * @param <E> Class representing the Environment.
@@ -20,8 +24,29 @@ import java.util.stream.IntStream;
 public class RandomNodeSelection<C, E extends Environment> extends
         AntPolicy<C, E> {
 
-    private static Logger logger = Logger.getLogger(RandomNodeSelection.class.getName());
+    // Detects subclasses that override the map-based probability methods, so their probabilities are honoured.
+    private static final ClassValue<Boolean> MAP_PROBABILITIES_OVERRIDDEN = new ClassValue<>() {
+
+        @Override
+        protected Boolean computeValue(Class<?> policyClass) {
+            try {
+                return policyClass.getMethod("getComponentsWithProbabilities", Environment.class,
+                        ConfigurationProvider.class).getDeclaringClass() != RandomNodeSelection.class ||
+                        policyClass.getMethod("getProbabilitiesForNeighbourhood", Environment.class,
+                                ConfigurationProvider.class, List.class).getDeclaringClass() !=
+                                RandomNodeSelection.class;
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    private final RouletteWheelSampler sampler = new RouletteWheelSampler();
+
+    private final List<C> candidateComponents = new ArrayList<>();
+    private double[] candidateWeights = new double[0];
 
+    private double[] probabilities = new double[0];
 
     public RandomNodeSelection() {
         super(AntPolicyType.NODE_SELECTION);
@@ -30,31 +55,97 @@ public class RandomNodeSelection<C, E extends Environment> extends
     @Override
     public boolean applyPolicy(E environment, ConfigurationProvider configurationProvider) {
 
-        logger.fine("Starting node selection");
+        Trace.trace(RandomNodeSelection.class, "Starting node selection");
 
-        Map<C, Double> componentsWithProbabilities = this.getComponentsWithProbabilities(environment,
-                configurationProvider);
+        C nextNode;
+        if (isMapProbabilitiesOverridden()) {
+            nextNode = getNextComponent(getOverriddenProbabilities(environment, configurationProvider));
+        } else {
+            List<C> neighbourhood = getAntNeighbourhood(environment);
+            int feasibleComponents = computeNeighbourhoodProbabilities(environment, configurationProvider,
+                    neighbourhood);
+            nextNode = sampleNextComponent(environment, configurationProvider, neighbourhood, feasibleComponents);
+        }
 
-        C nextNode = getNextComponent(componentsWithProbabilities);
         getAnt().visitNode(nextNode, environment);
-        logger.fine("Ending node selection");
+        Trace.trace(RandomNodeSelection.class, "Ending node selection");
         return true;
     }
 
+    /**
+     * Selects a component from the neighbourhood, using the probabilities calculated by
+     * computeNeighbourhoodProbabilities().
+     *
+     * @param environment           Environment that ants are traversing.
+     * @param configurationProvider Configuration provider.
+     * @param neighbourhood         The neighbourhood used to calculate the probabilities.
+     * @param feasibleComponents    Number of components in the neighbourhood that can be added to the solution.
+     * @return Selected component.
+     */
+    protected C sampleNextComponent(E environment, ConfigurationProvider configurationProvider, List<C> neighbourhood,
+                                    int feasibleComponents) {
+        if (feasibleComponents == 0) {
+            return getNextComponent(doIfNoComponentsFound(environment, configurationProvider));
+        }
+
+        int selectedIndex = sampler.sample(probabilities, neighbourhood.size(), getAnt().getRandom().nextDouble());
+        return neighbourhood.get(selectedIndex);
+    }
+
+    /**
+     * Selects a component using roulette-wheel selection. The buffers used for sampling are reused between calls.
+     *
+     * @param componentsWithProbabilities Candidate components, with their probabilities.
+     * @return Selected component.
+     */
     public C getNextComponent(Map<C, Double> componentsWithProbabilities) {
-        List<C> listOfComponents = new ArrayList<>(componentsWithProbabilities.keySet());
-        List<Double> probabilities = listOfComponents
-                .stream()
-                .mapToDouble(componentsWithProbabilities::get)
-                .boxed()
-                .collect(Collectors.toList());
+        candidateComponents.clear();
+        if (candidateWeights.length < componentsWithProbabilities.size()) {
+            candidateWeights = new double[componentsWithProbabilities.size()];
+        }
 
-        int[] componentIndexes = IntStream.range(0, listOfComponents.size()).toArray();
-        double[] arrayOfProbabilities = probabilities.stream().mapToDouble(probability -> probability).toArray();
+        for (Map.Entry<C, Double> componentWithProbability : componentsWithProbabilities.entrySet()) {
+            candidateWeights[candidateComponents.size()] = componentWithProbability.getValue();
+            candidateComponents.add(componentWithProbability.getKey());
+        }
 
-        EnumeratedIntegerDistribution distribution = new EnumeratedIntegerDistribution(componentIndexes,
-                arrayOfProbabilities);
-        return listOfComponents.get(distribution.sample(1)[0]);
+        int selectedIndex = sampler.sample(candidateWeights, candidateComponents.size(),
+                getAnt().getRandom().nextDouble());
+        C nextComponent = candidateComponents.get(selectedIndex);
+        candidateComponents.clear();
+        return nextComponent;
+    }
+
+    /**
+     * The roulette-wheel sampler of this policy, also available to subclasses that sample from their own weights.
+     *
+     * @return Roulette-wheel sampler.
+     */
+    protected RouletteWheelSampler getSampler() {
+        return sampler;
+    }
+
+    /**
+     * Returns true if this policy overrides getComponentsWithProbabilities() or getProbabilitiesForNeighbourhood(). In
+     * that case, components are selected from the map those methods return.
+     *
+     * @return True if the map-based probability methods are overridden.
+     */
+    protected boolean isMapProbabilitiesOverridden() {
+        return MAP_PROBABILITIES_OVERRIDDEN.get(getClass());
+    }
+
+    /**
+     * Returns the probabilities of the overridden map-based methods, for subclasses that need to support them when
+     * isMapProbabilitiesOverridden() is true.
+     *
+     * @param environment           Environment that ants are traversing.
+     * @param configurationProvider Configuration provider.
+     * @return Probabilities for the adjacent nodes.
+     */
+    protected final Map<C, Double> getOverriddenProbabilities(E environment,
+                                                              ConfigurationProvider configurationProvider) {
+        return getComponentsWithProbabilities(environment, configurationProvider);
     }
 
     /**
@@ -64,19 +155,119 @@ public class RandomNodeSelection<C, E extends Environment> extends
      * @param environment           Environment that ants are traversing.
      * @param configurationProvider Configuration provider.
      * @return Probabilities for the adjacent nodes.
+     * @deprecated Node selection uses computeNeighbourhoodProbabilities(), that doesn't allocate memory: override
+     * getComponentValue() to bias the selection. Overriding this method still works, but selection falls back to
+     * the slower map-based path.
      */
+    @Deprecated
     public Map<C, Double> getComponentsWithProbabilities(E environment,
                                                          ConfigurationProvider configurationProvider) {
 
+        List<C> neighborhood = getAntNeighbourhood(environment);
+        return getProbabilitiesForNeighbourhood(environment, configurationProvider, neighborhood);
+    }
+
+    protected List<C> getAntNeighbourhood(E environment) {
         List<C> neighborhood = getAnt().getNeighbourhood(environment);
         if (neighborhood == null) {
             throw new SolutionConstructionException("The ant's neighbourhood is null. There are no candidate " +
                     "components to add.");
         }
+        return neighborhood;
+    }
 
-        return getProbabilitiesForNeighbourhood(environment, configurationProvider, neighborhood);
+    /**
+     * Calculates the probabilities of moving to each component in the neighbourhood, without allocating memory. The
+     * values are stored in a reusable array aligned with the neighbourhood list (see getProbabilities()): components
+     * that are visited or not valid get a probability of zero.
+     *
+     * @param environment           Environment that ants are traversing.
+     * @param configurationProvider Configuration provider.
+     * @param neighbourhood         Candidate components.
+     * @return Number of components that can be added to the solution.
+     */
+    protected int computeNeighbourhoodProbabilities(E environment, ConfigurationProvider configurationProvider,
+                                                    List<C> neighbourhood) {
+        int neighbourhoodSize = neighbourhood.size();
+        if (probabilities.length < neighbourhoodSize) {
+            probabilities = new double[Math.max(neighbourhoodSize, 2 * probabilities.length)];
+        }
+
+        boolean useChoiceInformation = environment.isChoiceInformationEnabled();
+        environment.updateChoiceInformation(configurationProvider);
+
+        int feasibleComponents = 0;
+        double sumOfValues = 0.0;
+        for (int index = 0; index < neighbourhoodSize; index++) {
+            C component = neighbourhood.get(index);
+
+            double value = 0.0;
+            if (!getAnt().isNodeVisited(component) && getAnt().isNodeValid(component)) {
+                value = getComponentValue(environment, configurationProvider, component, useChoiceInformation);
+                feasibleComponents++;
+            }
+
+            probabilities[index] = value;
+            sumOfValues += value;
+        }
+
+        if (feasibleComponents == 0) {
+            return 0;
+        }
+
+        if (!(sumOfValues > 0.0) || Double.isInfinite(sumOfValues)) {
+            throw new ConfigurationException("The probabilities for the possible components are not valid numbers." +
+                    " The sum of heuristic and pheromone values is " + sumOfValues + " for " + feasibleComponents +
+                    " components.");
+        }
+
+        for (int index = 0; index < neighbourhoodSize; index++) {
+            probabilities[index] /= sumOfValues;
+        }
+
+        return feasibleComponents;
+    }
+
+    /**
+     * The value of adding a component to the solution, proportional to its selection probability. It is read from
+     * the choice information cache when it's available.
+     *
+     * @param environment           Environment that ants are traversing.
+     * @param configurationProvider Configuration provider.
+     * @param possibleMove          Candidate component.
+     * @param useChoiceInformation  If the value should be read from the choice information cache.
+     * @return Heuristic times pheromone value.
+     */
+    protected double getComponentValue(E environment, ConfigurationProvider configurationProvider, C possibleMove,
+                                       boolean useChoiceInformation) {
+        if (useChoiceInformation) {
+            return getAnt().getChoiceInformationValue(possibleMove, getAnt().getCurrentIndex(), environment);
+        }
+        return getHeuristicTimesPheromone(environment, configurationProvider, possibleMove);
+    }
+
+    /**
+     * The probabilities calculated by the last call to computeNeighbourhoodProbabilities(). Only the first
+     * positions, as many as components in the neighbourhood, are meaningful.
+     *
+     * @return Probabilities array.
+     */
+    protected double[] getProbabilities() {
+        return probabilities;
     }
 
+    /**
+     * Calculates the probabilities of moving to each component in the neighbourhood, as a map.
+     *
+     * @param environment           Environment that ants are traversing.
+     * @param configurationProvider Configuration provider.
+     * @param neighborhood          Candidate components.
+     * @return Probabilities for the components that can be added to the solution.
+     * @deprecated Node selection uses computeNeighbourhoodProbabilities(), that doesn't allocate memory: override
+     * getComponentValue() to bias the selection. Overriding this method still works, but selection falls back to
+     * the slower map-based path.
+     */
+    @Deprecated
     public Map<C, Double> getProbabilitiesForNeighbourhood(E environment, ConfigurationProvider configurationProvider,
                                                            List<C> neighborhood) {
         Map<C, Double> componentsWithProbabilities = neighborhood
@@ -143,8 +334,15 @@ public class RandomNodeSelection<C, E extends Environment> extends
                     " Pheromone value: " + pheromoneTrailValue);
         }
 
-        return Math.pow(heuristicValue, configurationProvider.getHeuristicImportance())
-                * Math.pow(pheromoneTrailValue, configurationProvider.getPheromoneImportance());
+        return power(heuristicValue, configurationProvider.getHeuristicImportance())
+                * power(pheromoneTrailValue, configurationProvider.getPheromoneImportance());
+    }
+
+    private static double power(double base, double exponent) {
+        if (exponent == 1.0) {
+            return base;
+        }
+        return Math.pow(base, exponent);
     }
 
     @Override
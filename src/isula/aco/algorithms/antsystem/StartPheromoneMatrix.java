@@ -4,6 +4,7 @@ import isula.aco.ConfigurationProvider;
 import isula.aco.DaemonAction;
 import isula.aco.DaemonActionType;
 import isula.aco.Environment;
+import isula.aco.Trace;
 
 import java.util.Arrays;
 import java.util.logging.Level;
@@ -29,7 +30,7 @@ public class StartPheromoneMatrix<C, E extends Environment> extends
 
     @Override
     public void applyDaemonAction(ConfigurationProvider configurationProvider) {
-        logger.fine("INITIALIZING PHEROMONE MATRIX");
+        Trace.trace(StartPheromoneMatrix.class, "INITIALIZING PHEROMONE MATRIX");
 
         double initialPheromoneValue = getInitialPheromoneValue(configurationProvider);
         if (initialPheromoneValue == 0.0) {
@@ -39,8 +40,8 @@ public class StartPheromoneMatrix<C, E extends Environment> extends
         logger.log(Level.INFO, "Initial pheromone value: {0}", initialPheromoneValue);
 
         getEnvironment().populatePheromoneMatrix(initialPheromoneValue);
-        logger.log(Level.FINE, "Pheromone matrix after initilizatation : {0}",
-                Arrays.deepToString(getEnvironment().getPheromoneMatrix()));
+        Trace.trace(StartPheromoneMatrix.class, () -> "Pheromone matrix after initilizatation : " +
+                Arrays.deepToString(getEnvironment().getPheromones().toArray()));
     }
 
     protected double getInitialPheromoneValue(
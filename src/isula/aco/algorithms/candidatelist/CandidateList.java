@@ -0,0 +1,157 @@
+package isula.aco.algorithms.candidatelist;
+
+import isula.aco.exception.ConfigurationException;
+
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * For each solution component, a short list of promising components to visit next: for example, the k nearest
+ * cities in a routing problem. Components are identified by their index (see ComponentIndexer), and candidates are
+ * sorted from the most to the least promising.
+ * <p>
+ * <p>
+ * By default, candidate lists only restrict the components considered while selecting, and the pheromone matrix of
+ * the environment keeps one column per component. To store pheromone only on candidate edges, use a
+ * CandidatePheromoneMatrix.
+ *
+ * @author Carlos G. Gavidia
+ */
+public class CandidateList {
+
+    private final int numberOfComponents;
+    private final int numberOfCandidates;
+    private final int[] candidates;
+
+    /**
+     * Creates a candidate list from an array of candidates.
+     *
+     * @param numberOfComponents Number of components.
+     * @param numberOfCandidates Number of candidates per component.
+     * @param candidates         Candidate indexes in row-major order: numberOfCandidates values per component.
+     */
+    public CandidateList(int numberOfComponents, int numberOfCandidates, int[] candidates) {
+        if (candidates.length != numberOfComponents * numberOfCandidates) {
+            throw new ConfigurationException("The candidate array has " + candidates.length + " elements. We were " +
+                    "expecting " + numberOfCandidates + " candidates for each of the " + numberOfComponents +
+                    " components.");
+        }
+
+        this.numberOfComponents = numberOfComponents;
+        this.numberOfCandidates = numberOfCandidates;
+        this.candidates = candidates;
+    }
+
+    /**
+     * Builds a candidate list containing, for every component, the components with the lowest cost. For example, the
+     * nearest cities in a routing problem.
+     *
+     * @param numberOfComponents Number of components.
+     * @param numberOfCandidates Number of candidates per component.
+     * @param cost               Cost of going from a component to another.
+     * @return Candidate list.
+     */
+    public static CandidateList fromLowestCosts(int numberOfComponents, int numberOfCandidates,
+                                                ToDoubleBiFunction<Integer, Integer> cost) {
+        return build(numberOfComponents, numberOfCandidates,
+                (component, candidate) -> -cost.applyAsDouble(component, candidate));
+    }
+
+    /**
+     * Builds a candidate list containing, for every component, the components with the highest heuristic value.
+     *
+     * @param numberOfComponents Number of components.
+     * @param numberOfCandidates Number of candidates per component.
+     * @param heuristic          Heuristic value of going from a component to another.
+     * @return Candidate list.
+     */
+    public static CandidateList fromHighestHeuristics(int numberOfComponents, int numberOfCandidates,
+                                                      ToDoubleBiFunction<Integer, Integer> heuristic) {
+        return build(numberOfComponents, numberOfCandidates, heuristic);
+    }
+
+    private static CandidateList build(int numberOfComponents, int numberOfCandidates,
+                                       ToDoubleBiFunction<Integer, Integer> score) {
+        if (numberOfCandidates < 1 || numberOfCandidates >= numberOfComponents) {
+            throw new ConfigurationException("The number of candidates should be between 1 and " +
+                    (numberOfComponents - 1) + ". Current value: " + numberOfCandidates);
+        }
+
+        int[] candidates = new int[numberOfComponents * numberOfCandidates];
+        double[] bestScores = new double[numberOfCandidates];
+
+        for (int component = 0; component < numberOfComponents; component++) {
+            int rowStart = component * numberOfCandidates;
+            int candidatesFound = 0;
+
+            for (int candidate = 0; candidate < numberOfComponents; candidate++) {
+                if (candidate == component) {
+                    continue;
+                }
+
+                double candidateScore = score.applyAsDouble(component, candidate);
+                int position = candidatesFound;
+                while (position > 0 && bestScores[position - 1] < candidateScore) {
+                    position--;
+                }
+
+                if (position < numberOfCandidates) {
+                    int lastPosition = Math.min(candidatesFound, numberOfCandidates - 1);
+                    for (int shifted = lastPosition; shifted > position; shifted--) {
+                        bestScores[shifted] = bestScores[shifted - 1];
+                        candidates[rowStart + shifted] = candidates[rowStart + shifted - 1];
+                    }
+
+                    bestScores[position] = candidateScore;
+                    candidates[rowStart + position] = candidate;
+                    candidatesFound = Math.min(candidatesFound + 1, numberOfCandidates);
+                }
+            }
+        }
+
+        return new CandidateList(numberOfComponents, numberOfCandidates, candidates);
+    }
+
+    /**
+     * Returns a candidate for a component.
+     *
+     * @param component Component index.
+     * @param rank      Position in the candidate list, where zero is the most promising candidate.
+     * @return Candidate index.
+     */
+    public int getCandidate(int component, int rank) {
+        return candidates[component * numberOfCandidates + rank];
+    }
+
+    /**
+     * Returns the position of a component in the candidate list of another one.
+     *
+     * @param component Component index.
+     * @param candidate Candidate index.
+     * @return The position in the candidate list, or -1 if it is not a candidate.
+     */
+    public int getCandidateRank(int component, int candidate) {
+        int rowStart = component * numberOfCandidates;
+        for (int rank = 0; rank < numberOfCandidates; rank++) {
+            if (candidates[rowStart + rank] == candidate) {
+                return rank;
+            }
+        }
+        return -1;
+    }
+
+    public int getNumberOfComponents() {
+        return numberOfComponents;
+    }
+
+    public int getNumberOfCandidates() {
+        return numberOfCandidates;
+    }
+
+    @Override
+    public String toString() {
+        return "CandidateList{" +
+                "numberOfComponents=" + numberOfComponents +
+                ", numberOfCandidates=" + numberOfCandidates +
+                '}';
+    }
+}
@@ -0,0 +1,12 @@
+package isula.aco.algorithms.candidatelist;
+
+/**
+ * Environments that provide a candidate list for each solution component. They are required by the
+ * CandidateListNodeSelection policy.
+ *
+ * @author Carlos G. Gavidia
+ */
+public interface CandidateListEnvironment {
+
+    CandidateList getCandidateList();
+}
@@ -0,0 +1,89 @@
+package isula.aco.algorithms.candidatelist;
+
+import isula.aco.Ant;
+import isula.aco.ComponentIndexer;
+import isula.aco.ConfigurationProvider;
+import isula.aco.Environment;
+import isula.aco.Trace;
+import isula.aco.algorithms.antsystem.RandomNodeSelection;
+import isula.aco.exception.ConfigurationException;
+
+/**
+ * The Random Proportional Rule, restricted to a candidate list. The candidates considered are the ones associated
+ * with the last component added to the solution, so each step costs O(k) instead of O(n). Only when every candidate
+ * has been visited, the selection falls back to the full neighbourhood of the ant.
+ * <p>
+ * <p>
+ * The environment needs to implement CandidateListEnvironment, and the ant needs a ComponentIndexer to translate
+ * between components and candidate indexes.
+ *
+ * @param <C> Class for components of a solution.
+ * @param <E> Class representing the Environment.
+ * @author Carlos G. Gavidia
+ */
+public class CandidateListNodeSelection<C, E extends Environment> extends RandomNodeSelection<C, E> {
+
+    private double[] candidateValues = new double[0];
+
+    @Override
+    public boolean applyPolicy(E environment, ConfigurationProvider configurationProvider) {
+        Ant<C, E> ant = getAnt();
+        if (ant.getCurrentIndex() == 0) {
+            return super.applyPolicy(environment, configurationProvider);
+        }
+
+        ComponentIndexer<C> componentIndexer = ant.getComponentIndexer();
+        if (componentIndexer == null) {
+            throw new ConfigurationException("Candidate list selection requires ants with a component indexer.");
+        }
+
+        CandidateList candidateList = getCandidateList(environment);
+        C lastComponent = ant.getSolution().get(ant.getCurrentIndex() - 1);
+        int lastComponentIndex = componentIndexer.getIndex(lastComponent);
+
+        int numberOfCandidates = candidateList.getNumberOfCandidates();
+        if (candidateValues.length < numberOfCandidates) {
+            candidateValues = new double[numberOfCandidates];
+        }
+
+        boolean useChoiceInformation = environment.isChoiceInformationEnabled();
+        environment.updateChoiceInformation(configurationProvider);
+
+        boolean candidateAvailable = false;
+        for (int rank = 0; rank < numberOfCandidates; rank++) {
+            C candidate = componentIndexer.getComponent(candidateList.getCandidate(lastComponentIndex, rank));
+
+            double value = 0.0;
+            if (!ant.isNodeVisited(candidate) && ant.isNodeValid(candidate)) {
+                value = getComponentValue(environment, configurationProvider, candidate, useChoiceInformation);
+                candidateAvailable = true;
+            }
+            candidateValues[rank] = value;
+        }
+
+        if (!candidateAvailable) {
+            Trace.trace(CandidateListNodeSelection.class,
+                    "All candidates were visited. Selecting from the full neighbourhood");
+            return super.applyPolicy(environment, configurationProvider);
+        }
+
+        int selectedRank = getSampler().sample(candidateValues, numberOfCandidates, getAnt().getRandom().nextDouble());
+        int selectedIndex = candidateList.getCandidate(lastComponentIndex, selectedRank);
+        ant.visitNode(componentIndexer.getComponent(selectedIndex), environment);
+        return true;
+    }
+
+    private CandidateList getCandidateList(E environment) {
+        if (!(environment instanceof CandidateListEnvironment)) {
+            throw new ConfigurationException("Candidate list selection requires an environment that implements " +
+                    "CandidateListEnvironment. Current environment: " + environment.getClass().getName());
+        }
+
+        return ((CandidateListEnvironment) environment).getCandidateList();
+    }
+
+    @Override
+    public String toString() {
+        return "CandidateListNodeSelection{}";
+    }
+}
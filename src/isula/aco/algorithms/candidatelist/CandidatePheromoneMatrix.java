@@ -0,0 +1,173 @@
+package isula.aco.algorithms.candidatelist;
+
+import isula.aco.PheromoneMatrix;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A pheromone matrix that only stores the edges of a candidate list: n rows of k values, instead of n rows of n.
+ * The cell (component, candidate) is stored at the position given by CandidateList.getCandidateRank(). It's meant
+ * for problems where a dense matrix doesn't fit in memory, but ants select mostly among candidates.
+ * <p>
+ * <p>
+ * Edges that are not in the candidate list have a fixed pheromone value. Reads return it, and writes and bulk
+ * operations don't change it: deposits on these edges, when ants fall back to the full neighbourhood, are ignored.
+ * <p>
+ * <p>
+ * To use it, override Environment.createPheromones() or call Environment.setPheromones(). Avoid toArray() on large
+ * matrices: it returns a dense copy.
+ *
+ * @author Carlos G. Gavidia
+ */
+public class CandidatePheromoneMatrix implements PheromoneMatrix {
+
+    private static final VarHandle CELL = MethodHandles.arrayElementVarHandle(double[].class);
+
+    private final CandidateList candidateList;
+    private final double nonCandidateValue;
+    private final double[] values;
+
+    /**
+     * Creates a matrix for a candidate list, with all candidate edges set to zero.
+     *
+     * @param candidateList     Candidate list, that defines the stored edges.
+     * @param nonCandidateValue Fixed pheromone value of the edges that are not in the candidate list.
+     */
+    public CandidatePheromoneMatrix(CandidateList candidateList, double nonCandidateValue) {
+        this.candidateList = candidateList;
+        this.nonCandidateValue = nonCandidateValue;
+        this.values = new double[Math.multiplyExact(candidateList.getNumberOfComponents(),
+                candidateList.getNumberOfCandidates())];
+    }
+
+    private CandidatePheromoneMatrix(CandidatePheromoneMatrix matrix) {
+        this.candidateList = matrix.candidateList;
+        this.nonCandidateValue = matrix.nonCandidateValue;
+        this.values = matrix.values.clone();
+    }
+
+    /**
+     * Position of a cell in the stored values.
+     *
+     * @param row    Row index.
+     * @param column Column index.
+     * @return Index of the cell, or -1 if the column is not a candidate of the row.
+     */
+    private int getIndex(int row, int column) {
+        int rank = candidateList.getCandidateRank(row, column);
+        if (rank < 0) {
+            return -1;
+        }
+        return row * candidateList.getNumberOfCandidates() + rank;
+    }
+
+    public CandidateList getCandidateList() {
+        return candidateList;
+    }
+
+    public double getNonCandidateValue() {
+        return nonCandidateValue;
+    }
+
+    @Override
+    public int getRows() {
+        return candidateList.getNumberOfComponents();
+    }
+
+    @Override
+    public int getColumns() {
+        return candidateList.getNumberOfComponents();
+    }
+
+    @Override
+    public double get(int row, int column) {
+        int index = getIndex(row, column);
+        return index < 0 ? nonCandidateValue : values[index];
+    }
+
+    @Override
+    public void set(int row, int column, double value) {
+        int index = getIndex(row, column);
+        if (index >= 0) {
+            values[index] = value;
+        }
+    }
+
+    @Override
+    public double getVolatile(int row, int column) {
+        int index = getIndex(row, column);
+        return index < 0 ? nonCandidateValue : (double) CELL.getVolatile(values, index);
+    }
+
+    @Override
+    public double update(int row, int column, DoubleUnaryOperator update) {
+        int index = getIndex(row, column);
+        if (index < 0) {
+            return nonCandidateValue;
+        }
+
+        double currentValue;
+        double newValue;
+        do {
+            currentValue = (double) CELL.getVolatile(values, index);
+            newValue = update.applyAsDouble(currentValue);
+        } while (!CELL.compareAndSet(values, index, currentValue, newValue));
+
+        return newValue;
+    }
+
+    @Override
+    public void fill(double value) {
+        Arrays.fill(values, value);
+    }
+
+    @Override
+    public void scale(double factor) {
+        for (int index = 0; index < values.length; index++) {
+            values[index] *= factor;
+        }
+    }
+
+    @Override
+    public void transform(DoubleUnaryOperator operator) {
+        for (int index = 0; index < values.length; index++) {
+            values[index] = operator.applyAsDouble(values[index]);
+        }
+    }
+
+    @Override
+    public void copyRow(int row, double[] destination) {
+        Arrays.fill(destination, 0, getColumns(), nonCandidateValue);
+
+        int numberOfCandidates = candidateList.getNumberOfCandidates();
+        int rowStart = row * numberOfCandidates;
+        for (int rank = 0; rank < numberOfCandidates; rank++) {
+            destination[candidateList.getCandidate(row, rank)] = values[rowStart + rank];
+        }
+    }
+
+    @Override
+    public CandidatePheromoneMatrix copy() {
+        return new CandidatePheromoneMatrix(this);
+    }
+
+    @Override
+    public double[][] toArray() {
+        double[][] valuesCopy = new double[getRows()][getColumns()];
+        for (int row = 0; row < valuesCopy.length; row++) {
+            copyRow(row, valuesCopy[row]);
+        }
+        return valuesCopy;
+    }
+
+    @Override
+    public String toString() {
+        return "CandidatePheromoneMatrix{" +
+                "candidateList=" + candidateList +
+                ", nonCandidateValue=" + nonCandidateValue +
+                '}';
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Policies for restricting solution construction to candidate lists.
+ */
+package isula.aco.algorithms.candidatelist;
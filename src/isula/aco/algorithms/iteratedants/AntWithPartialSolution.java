@@ -2,14 +2,13 @@ package isula.aco.algorithms.iteratedants;
 
 import isula.aco.Ant;
 import isula.aco.Environment;
+import isula.aco.Trace;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.logging.Logger;
 
 public abstract class AntWithPartialSolution<C, E extends Environment> extends Ant<C, E> {
 
-    private static final Logger logger = Logger.getLogger(AntWithPartialSolution.class.getName());
 
     private Collection<C> partialSolution = Collections.emptyList();
 
@@ -19,7 +18,7 @@ public abstract class AntWithPartialSolution<C, E extends Environment> extends A
         this.partialSolution
                 .forEach(candidateIndex -> this.visitNode(candidateIndex, this.getEnvironment()));
 
-        logger.fine("Partial solution loaded: " + this.getSolution());
+        Trace.trace(AntWithPartialSolution.class, () -> "Partial solution loaded: " + this.getSolution());
 
     }
 
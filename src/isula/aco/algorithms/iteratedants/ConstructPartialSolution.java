@@ -4,21 +4,19 @@ import isula.aco.AntPolicy;
 import isula.aco.AntPolicyType;
 import isula.aco.ConfigurationProvider;
 import isula.aco.Environment;
+import isula.aco.Trace;
+import isula.aco.algorithms.RouletteWheelSampler;
 import isula.aco.exception.SolutionConstructionException;
-import org.apache.commons.math3.distribution.EnumeratedIntegerDistribution;
 
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 public abstract class ConstructPartialSolution<C, E extends Environment> extends AntPolicy<C, E> {
 
-    private static Logger logger = Logger.getLogger(ConstructPartialSolution.class
-            .getName());
+    private final RouletteWheelSampler sampler = new RouletteWheelSampler();
 
     protected ConstructPartialSolution() {
         super(AntPolicyType.AFTER_SOLUTION_IS_READY);
@@ -43,7 +41,7 @@ public abstract class ConstructPartialSolution<C, E extends Environment> extends
         }
 
         List<Integer> indexesForRemoval = getComponentIndexesForRemoval(ant, getNumberOfComponentsToRemove());
-        logger.log(Level.FINE, "indexesForRemoval: {0}", indexesForRemoval);
+        Trace.trace(ConstructPartialSolution.class, () -> "indexesForRemoval: " + indexesForRemoval);
         return getNewPartialSolution(indexesForRemoval);
     }
 
@@ -79,16 +77,16 @@ public abstract class ConstructPartialSolution<C, E extends Environment> extends
         }
 
 
-        EnumeratedIntegerDistribution distribution = new EnumeratedIntegerDistribution(componentIndexes,
-                arrayOfProbabilities);
-
         int preservedComponentNumber = currentSolution.size() - removedComponentNumber;
-        List<Integer> componentsToPreserve = Arrays.stream(distribution.sample(preservedComponentNumber))
-                .boxed()
-                .collect(Collectors.toList());
+        boolean[] componentsToPreserve = new boolean[componentIndexes.length];
+        for (int sample = 0; sample < preservedComponentNumber; sample++) {
+            int componentIndex = sampler.sample(arrayOfProbabilities, arrayOfProbabilities.length,
+                    ant.getRandom().nextDouble());
+            componentsToPreserve[componentIndex] = true;
+        }
 
         return Arrays.stream(componentIndexes)
-                .filter(componentIndex -> !componentsToPreserve.contains(componentIndex))
+                .filter(componentIndex -> !componentsToPreserve[componentIndex])
                 .boxed()
                 .collect(Collectors.toList());
     }
@@ -0,0 +1,399 @@
+package isula.aco.algorithms.localsearch;
+
+import isula.aco.Ant;
+import isula.aco.AntPolicy;
+import isula.aco.AntPolicyType;
+import isula.aco.ComponentIndexer;
+import isula.aco.ConfigurationProvider;
+import isula.aco.Environment;
+import isula.aco.Trace;
+import isula.aco.algorithms.candidatelist.CandidateList;
+import isula.aco.algorithms.candidatelist.CandidateListEnvironment;
+import isula.aco.exception.ConfigurationException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Base class for local search on permutation problems, applied after an ant completes its solution. The solution is
+ * treated as a closed tour with symmetric costs, like in the Travelling Salesman Problem.
+ * <p>
+ * <p>
+ * Moves are only evaluated between a component and its neighbours on a candidate list, and don't-look bits skip the
+ * components whose surroundings didn't change since their last unsuccessful search. This keeps each pass close to
+ * linear in the size of the solution. The candidate list is taken from the environment when it implements
+ * CandidateListEnvironment, and otherwise it's built from getDistance() with the nearest neighbours of every
+ * component. Candidates are expected to be sorted from the nearest to the farthest.
+ * <p>
+ * <p>
+ * The ant needs a ComponentIndexer. Instances keep working buffers, so for parallel construction each ant needs its
+ * own instance: register the policy with a factory (see AntColony#addAntPolicies with policy factories).
+ *
+ * @param <C> Class for components of a solution.
+ * @param <E> Class representing the Environment.
+ * @author Carlos G. Gavidia
+ */
+public abstract class LocalSearchPolicy<C, E extends Environment> extends AntPolicy<C, E> {
+
+    private static final int DEFAULT_NEIGHBOURS = 10;
+
+    // Minimum gain for a move to be applied, so rounding errors don't cause endless loops.
+    protected static final double EPSILON = 1e-9;
+
+    private final int numberOfNeighbours;
+
+    private E candidateListEnvironment;
+    private CandidateList candidateList;
+
+    private int[] tour = new int[0];
+    private int[] positions = new int[0];
+    private boolean[] queued = new boolean[0];
+    private int[] queue = new int[0];
+    private int queueHead;
+    private int queueSize;
+
+    private E environment;
+
+    protected LocalSearchPolicy() {
+        this(DEFAULT_NEIGHBOURS);
+    }
+
+    /**
+     * Creates a local search policy.
+     *
+     * @param numberOfNeighbours Neighbours per component, when the candidate list is built from getDistance().
+     */
+    protected LocalSearchPolicy(int numberOfNeighbours) {
+        super(AntPolicyType.AFTER_SOLUTION_IS_READY);
+        this.numberOfNeighbours = numberOfNeighbours;
+    }
+
+    /**
+     * The cost of the edge between two components. It must be symmetric.
+     *
+     * @param fromIndex   Index of the first component.
+     * @param toIndex     Index of the second component.
+     * @param environment Environment instance with problem information.
+     * @return Edge cost.
+     */
+    protected abstract double getDistance(int fromIndex, int toIndex, E environment);
+
+    /**
+     * Looks for an improving move involving a component, and applies the first one found. Subclasses call
+     * applyTwoOptMove() and applySegmentInsertion().
+     *
+     * @param component Index of the component.
+     * @return True if the tour was improved.
+     */
+    protected abstract boolean improveComponent(int component);
+
+    @Override
+    public boolean applyPolicy(E environment, ConfigurationProvider configurationProvider) {
+        Ant<C, E> ant = getAnt();
+        ComponentIndexer<C> componentIndexer = ant.getComponentIndexer();
+        if (componentIndexer == null) {
+            throw new ConfigurationException("Local search requires ants with a component indexer.");
+        }
+
+        List<C> solution = ant.getSolution();
+        int tourLength = solution.size();
+        if (tourLength < 5) {
+            return true;
+        }
+
+        this.environment = environment;
+        loadTour(solution, componentIndexer);
+
+        boolean improved = false;
+        while (queueSize > 0) {
+            int component = poll();
+            if (improveComponent(component)) {
+                activate(component);
+                improved = true;
+            }
+        }
+
+        if (improved) {
+            List<C> improvedSolution = new ArrayList<>(tourLength);
+            for (int position = 0; position < tourLength; position++) {
+                improvedSolution.add(componentIndexer.getComponent(tour[position]));
+            }
+
+            ant.replaceSolution(improvedSolution, environment);
+            Trace.trace(LocalSearchPolicy.class, () -> "Local search improved the solution to: " +
+                    ant.getSolutionAsString());
+        }
+
+        return true;
+    }
+
+    private void loadTour(List<C> solution, ComponentIndexer<C> componentIndexer) {
+        int tourLength = solution.size();
+        int numberOfComponents = componentIndexer.getNumberOfComponents();
+        if (tour.length != tourLength) {
+            tour = new int[tourLength];
+            queue = new int[tourLength];
+        }
+        if (positions.length != numberOfComponents) {
+            positions = new int[numberOfComponents];
+            queued = new boolean[numberOfComponents];
+        }
+        Arrays.fill(positions, -1);
+
+        for (int position = 0; position < tourLength; position++) {
+            int component = componentIndexer.getIndex(solution.get(position));
+            if (component < 0) {
+                throw new ConfigurationException("The component " + solution.get(position) + " has no index.");
+            }
+            tour[position] = component;
+            positions[component] = position;
+        }
+
+        queueHead = 0;
+        queueSize = 0;
+        for (int position = 0; position < tourLength; position++) {
+            activate(tour[position]);
+        }
+    }
+
+    /**
+     * Clears the don't-look bit of a component, so it's searched again.
+     *
+     * @param component Index of the component.
+     */
+    protected void activate(int component) {
+        if (!queued[component]) {
+            queued[component] = true;
+            queue[(queueHead + queueSize) % queue.length] = component;
+            queueSize += 1;
+        }
+    }
+
+    private int poll() {
+        int component = queue[queueHead];
+        queueHead = (queueHead + 1) % queue.length;
+        queueSize -= 1;
+        queued[component] = false;
+        return component;
+    }
+
+    protected CandidateList getCandidateList() {
+        if (environment instanceof CandidateListEnvironment) {
+            return ((CandidateListEnvironment) environment).getCandidateList();
+        }
+
+        if (candidateList == null || candidateListEnvironment != environment) {
+            int numberOfComponents = positions.length;
+            candidateList = CandidateList.fromLowestCosts(numberOfComponents,
+                    Math.min(numberOfNeighbours, numberOfComponents - 1),
+                    (from, to) -> getDistance(from, to, environment));
+            candidateListEnvironment = environment;
+        }
+        return candidateList;
+    }
+
+    protected double getDistance(int fromIndex, int toIndex) {
+        return getDistance(fromIndex, toIndex, environment);
+    }
+
+    protected int getSuccessor(int component) {
+        return tour[(positions[component] + 1) % tour.length];
+    }
+
+    protected int getPredecessor(int component) {
+        return tour[(positions[component] - 1 + tour.length) % tour.length];
+    }
+
+    protected boolean isInTour(int component) {
+        return positions[component] >= 0;
+    }
+
+    /**
+     * Looks for a 2-opt move that replaces an edge of the component with an edge to one of its neighbours, and
+     * applies the first improving one.
+     *
+     * @param component Index of the component.
+     * @return True if a move was applied.
+     */
+    protected boolean applyTwoOptMove(int component) {
+        CandidateList neighbours = getCandidateList();
+
+        for (boolean forward : new boolean[]{true, false}) {
+            int adjacent = forward ? getSuccessor(component) : getPredecessor(component);
+            double removedDistance = getDistance(component, adjacent);
+
+            for (int rank = 0; rank < neighbours.getNumberOfCandidates(); rank++) {
+                int neighbour = neighbours.getCandidate(component, rank);
+                if (!isInTour(neighbour)) {
+                    continue;
+                }
+
+                double partialGain = removedDistance - getDistance(component, neighbour);
+                if (partialGain <= EPSILON) {
+                    break;
+                }
+
+                int neighbourAdjacent = forward ? getSuccessor(neighbour) : getPredecessor(neighbour);
+                if (neighbour == adjacent || neighbourAdjacent == component) {
+                    continue;
+                }
+
+                double gain = partialGain + getDistance(neighbour, neighbourAdjacent) -
+                        getDistance(adjacent, neighbourAdjacent);
+                if (gain > EPSILON) {
+                    if (forward) {
+                        reverseShorterSide(positions[adjacent], positions[neighbour]);
+                    } else {
+                        reverseShorterSide(positions[component], positions[neighbourAdjacent]);
+                    }
+
+                    activate(adjacent);
+                    activate(neighbour);
+                    activate(neighbourAdjacent);
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Looks for an Or-opt move: the segment that starts at the component is moved, in any orientation, next to a
+     * neighbour of one of its ends. Applies the first improving move.
+     *
+     * @param component            Index of the component.
+     * @param maximumSegmentLength Maximum number of components in the segment.
+     * @return True if a move was applied.
+     */
+    protected boolean applySegmentInsertion(int component, int maximumSegmentLength) {
+        int tourLength = tour.length;
+        int segmentStart = positions[component];
+
+        for (int segmentLength = 1; segmentLength <= maximumSegmentLength && segmentLength + 3 <= tourLength;
+             segmentLength++) {
+            int first = component;
+            int last = tour[(segmentStart + segmentLength - 1) % tourLength];
+            int previous = getPredecessor(first);
+            int next = getSuccessor(last);
+
+            double removalGain = getDistance(previous, first) + getDistance(last, next) -
+                    getDistance(previous, next);
+            if (removalGain <= EPSILON) {
+                continue;
+            }
+
+            if (insertSegment(segmentStart, segmentLength, first, removalGain) ||
+                    insertSegment(segmentStart, segmentLength, last, removalGain)) {
+                activate(previous);
+                activate(next);
+                activate(first);
+                activate(last);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean insertSegment(int segmentStart, int segmentLength, int segmentEnd, double removalGain) {
+        CandidateList neighbours = getCandidateList();
+        int first = tour[segmentStart];
+        int last = tour[(segmentStart + segmentLength - 1) % tour.length];
+
+        for (int rank = 0; rank < neighbours.getNumberOfCandidates(); rank++) {
+            int neighbour = neighbours.getCandidate(segmentEnd, rank);
+            if (!isInTour(neighbour)) {
+                continue;
+            }
+
+            if (getDistance(segmentEnd, neighbour) >= removalGain) {
+                break;
+            }
+
+            if (isInSegment(neighbour, segmentStart, segmentLength)) {
+                continue;
+            }
+
+            // The segment can go right after or right before the neighbour.
+            for (int before : new int[]{neighbour, getPredecessor(neighbour)}) {
+                int after = getSuccessor(before);
+                if (isInSegment(before, segmentStart, segmentLength) ||
+                        isInSegment(after, segmentStart, segmentLength)) {
+                    continue;
+                }
+
+                double removedEdge = getDistance(before, after);
+                double sameOrientation = getDistance(before, first) + getDistance(last, after) - removedEdge;
+                double reversed = getDistance(before, last) + getDistance(first, after) - removedEdge;
+
+                boolean reverse = reversed < sameOrientation;
+                if (removalGain - Math.min(sameOrientation, reversed) > EPSILON) {
+                    moveSegment(segmentStart, segmentLength, before, after, reverse);
+                    activate(before);
+                    activate(after);
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isInSegment(int component, int segmentStart, int segmentLength) {
+        return (positions[component] - segmentStart + tour.length) % tour.length < segmentLength;
+    }
+
+    /**
+     * Moves a segment between two adjacent components, rotating it past the shorter of the two blocks that separate
+     * them.
+     */
+    private void moveSegment(int segmentStart, int segmentLength, int before, int after, boolean reverse) {
+        int tourLength = tour.length;
+        int blockAfterStart = (segmentStart + segmentLength) % tourLength;
+        int blockAfterLength = (positions[before] - blockAfterStart + tourLength) % tourLength + 1;
+        int blockBeforeStart = positions[after];
+        int blockBeforeLength = tourLength - segmentLength - blockAfterLength;
+
+        if (blockAfterLength <= blockBeforeLength) {
+            // [segment][block] becomes [block][segment].
+            if (!reverse) {
+                reverse(segmentStart, segmentLength);
+            }
+            reverse(blockAfterStart, blockAfterLength);
+            reverse(segmentStart, segmentLength + blockAfterLength);
+        } else {
+            // [block][segment] becomes [segment][block].
+            reverse(blockBeforeStart, blockBeforeLength);
+            if (!reverse) {
+                reverse(segmentStart, segmentLength);
+            }
+            reverse(blockBeforeStart, blockBeforeLength + segmentLength);
+        }
+    }
+
+    private void reverseShorterSide(int fromPosition, int toPosition) {
+        int tourLength = tour.length;
+        int length = (toPosition - fromPosition + tourLength) % tourLength + 1;
+        if (2 * length > tourLength) {
+            reverse((toPosition + 1) % tourLength, tourLength - length);
+        } else {
+            reverse(fromPosition, length);
+        }
+    }
+
+    private void reverse(int fromPosition, int length) {
+        int tourLength = tour.length;
+        for (int offset = 0; offset < length / 2; offset++) {
+            int left = (fromPosition + offset) % tourLength;
+            int right = (fromPosition + length - 1 - offset) % tourLength;
+
+            int leftComponent = tour[left];
+            tour[left] = tour[right];
+            tour[right] = leftComponent;
+            positions[tour[left]] = left;
+            positions[tour[right]] = right;
+        }
+    }
+}
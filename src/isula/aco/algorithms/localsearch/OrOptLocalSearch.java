@@ -0,0 +1,34 @@
+package isula.aco.algorithms.localsearch;
+
+import isula.aco.Environment;
+
+/**
+ * Or-opt local search: segments of up to three consecutive components are moved to another place of the tour, in
+ * any orientation.
+ *
+ * @param <C> Class for components of a solution.
+ * @param <E> Class representing the Environment.
+ * @author Carlos G. Gavidia
+ */
+public abstract class OrOptLocalSearch<C, E extends Environment> extends LocalSearchPolicy<C, E> {
+
+    private static final int MAXIMUM_SEGMENT_LENGTH = 3;
+
+    protected OrOptLocalSearch() {
+        super();
+    }
+
+    protected OrOptLocalSearch(int numberOfNeighbours) {
+        super(numberOfNeighbours);
+    }
+
+    @Override
+    protected boolean improveComponent(int component) {
+        return applySegmentInsertion(component, MAXIMUM_SEGMENT_LENGTH);
+    }
+
+    @Override
+    public String toString() {
+        return "OrOptLocalSearch{}";
+    }
+}
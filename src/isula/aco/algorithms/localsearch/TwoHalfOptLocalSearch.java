@@ -0,0 +1,32 @@
+package isula.aco.algorithms.localsearch;
+
+import isula.aco.Environment;
+
+/**
+ * 2h-opt local search: 2-opt moves, plus moving a single component between two neighbours. The extra move is cheap
+ * and finds improvements 2-opt can't reach.
+ *
+ * @param <C> Class for components of a solution.
+ * @param <E> Class representing the Environment.
+ * @author Carlos G. Gavidia
+ */
+public abstract class TwoHalfOptLocalSearch<C, E extends Environment> extends LocalSearchPolicy<C, E> {
+
+    protected TwoHalfOptLocalSearch() {
+        super();
+    }
+
+    protected TwoHalfOptLocalSearch(int numberOfNeighbours) {
+        super(numberOfNeighbours);
+    }
+
+    @Override
+    protected boolean improveComponent(int component) {
+        return applyTwoOptMove(component) || applySegmentInsertion(component, 1);
+    }
+
+    @Override
+    public String toString() {
+        return "TwoHalfOptLocalSearch{}";
+    }
+}
@@ -0,0 +1,32 @@
+package isula.aco.algorithms.localsearch;
+
+import isula.aco.Environment;
+
+/**
+ * 2-opt local search: two edges of the tour are replaced by two shorter ones, reversing the path between them.
+ * Only edges to the neighbours of a component in the candidate list are considered.
+ *
+ * @param <C> Class for components of a solution.
+ * @param <E> Class representing the Environment.
+ * @author Carlos G. Gavidia
+ */
+public abstract class TwoOptLocalSearch<C, E extends Environment> extends LocalSearchPolicy<C, E> {
+
+    protected TwoOptLocalSearch() {
+        super();
+    }
+
+    protected TwoOptLocalSearch(int numberOfNeighbours) {
+        super(numberOfNeighbours);
+    }
+
+    @Override
+    protected boolean improveComponent(int component) {
+        return applyTwoOptMove(component);
+    }
+
+    @Override
+    public String toString() {
+        return "TwoOptLocalSearch{}";
+    }
+}
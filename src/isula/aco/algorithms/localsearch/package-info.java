@@ -0,0 +1,5 @@
+/**
+ * Policies that improve the solution of an ant once it's ready, before pheromone update: 2-opt, 2h-opt and Or-opt
+ * for permutation problems like the Travelling Salesman Problem.
+ */
+package isula.aco.algorithms.localsearch;
@@ -5,13 +5,12 @@ import isula.aco.ConfigurationProvider;
 import isula.aco.DaemonAction;
 import isula.aco.DaemonActionType;
 import isula.aco.Environment;
+import isula.aco.Trace;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
-import static isula.aco.algorithms.PheromoneUtils.updatePheromoneForAntSolution;
+import static isula.aco.algorithms.PheromoneUtils.depositPheromoneForAntSolution;
 import static isula.aco.algorithms.PheromoneUtils.validatePheromoneValue;
 
 /**
@@ -30,8 +29,6 @@ public abstract class UpdatePheromoneMatrixForMaxMin<C, E extends Environment>
         extends DaemonAction<C, E> {
     // TODO(cgavidia): Generics can be used on Configuration Provider types.
 
-    private static Logger logger = Logger
-            .getLogger(UpdatePheromoneMatrixForMaxMin.class.getName());
 
     /**
      * Instantiates the Update Pheromone Matrix Policy.
@@ -45,39 +42,38 @@ public abstract class UpdatePheromoneMatrixForMaxMin<C, E extends Environment>
     public void applyDaemonAction(ConfigurationProvider provider) {
 
         MaxMinConfigurationProvider configurationProvider = (MaxMinConfigurationProvider) provider;
-        logger.log(Level.FINE, "UPDATING PHEROMONE TRAILS");
-        logger.log(Level.FINE, "Performing evaporation on all edges");
-        logger.log(Level.FINE, "Evaporation ratio: {0}", configurationProvider.getEvaporationRatio());
+        Trace.trace(UpdatePheromoneMatrixForMaxMin.class, "UPDATING PHEROMONE TRAILS");
+        Trace.trace(UpdatePheromoneMatrixForMaxMin.class, "Performing evaporation on all edges");
+        Trace.trace(UpdatePheromoneMatrixForMaxMin.class,
+                () -> "Evaporation ratio: " + configurationProvider.getEvaporationRatio());
 
-        double[][] pheromoneMatrix = getEnvironment().getPheromoneMatrix();
-        int matrixRows = pheromoneMatrix.length;
-        int matrixColumns = pheromoneMatrix[0].length;
+        // Starting from valid pheromone values, evaporation can't produce invalid ones if its parameters are valid.
+        double evaporationRatio = configurationProvider.getEvaporationRatio();
+        double minimumPheromoneValue = getMinimumPheromoneValue(configurationProvider);
+        validatePheromoneValue(evaporationRatio);
+        validatePheromoneValue(minimumPheromoneValue);
 
-        for (int i = 0; i < matrixRows; i++) {
-            for (int j = 0; j < matrixColumns; j++) {
-                double newValue = pheromoneMatrix[i][j]
-                        * configurationProvider.getEvaporationRatio();
+        getEnvironment().applyFactorToPheromoneMatrix(evaporationRatio, minimumPheromoneValue);
 
-                pheromoneMatrix[i][j] = Math.max(newValue, getMinimumPheromoneValue(configurationProvider));
-
-                validatePheromoneValue(pheromoneMatrix[i][j]);
-            }
-        }
-
-        logger.log(Level.FINE, "Depositing pheromone on Best Ant trail.");
+        Trace.trace(UpdatePheromoneMatrixForMaxMin.class, "Depositing pheromone on Best Ant trail.");
 
         Ant<C, E> bestAnt = getAntColony().getBestPerformingAnt(getEnvironment());
         List<C> bestSolution = bestAnt.getSolution();
 
-        updatePheromoneForAntSolution(bestAnt, getEnvironment(), componentIndex -> {
+        // The difference between the new and the current value is added atomically, so deposits of other colonies on
+        // a shared environment are not lost.
+        depositPheromoneForAntSolution(bestAnt, getEnvironment(), componentIndex -> {
             C solutionComponent = bestSolution.get(componentIndex);
             double newValue = getNewPheromoneValue(bestAnt, componentIndex,
                     solutionComponent, configurationProvider);
-            return Math.min(newValue, getMaximumPheromoneValue(configurationProvider));
-        });
+            if (newValue == Double.MIN_VALUE) {
+                return 0.0;
+            }
+            return newValue - bestAnt.getPheromoneTrailValue(solutionComponent, componentIndex, getEnvironment());
+        }, getMaximumPheromoneValue(configurationProvider));
 
-        logger.log(Level.FINE, "After pheromone update: {0}",
-                Arrays.deepToString(getEnvironment().getPheromoneMatrix()));
+        Trace.trace(UpdatePheromoneMatrixForMaxMin.class,
+                () -> "After pheromone update: " + Arrays.deepToString(getEnvironment().getPheromones().toArray()));
 
     }
 
@@ -104,6 +100,8 @@ public abstract class UpdatePheromoneMatrixForMaxMin<C, E extends Environment>
 
     /**
      * The new value to be included in the pheromone matrix, depending on a component and its position on the solution.
+     * Its difference with the current value is deposited atomically, and the result is limited to the maximum
+     * pheromone value.
      *
      * @param ant                   Ant performing the deposit.
      * @param positionInSolution    Component in the solution.
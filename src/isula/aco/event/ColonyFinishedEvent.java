@@ -0,0 +1,48 @@
+package isula.aco.event;
+
+import java.time.Duration;
+
+/**
+ * Published when a colony stops iterating, either because it completed all iterations or because the execution was
+ * terminated early.
+ *
+ * @author Carlos G. Gavidia
+ */
+public class ColonyFinishedEvent extends SolverEvent {
+
+    private final double bestSolutionCost;
+    private final long generatedSolutions;
+
+    /**
+     * Creates the event.
+     *
+     * @param colonyIndex        Index of the colony.
+     * @param iteration          Number of iterations completed by the colony.
+     * @param elapsedTime        Time since the solver started.
+     * @param bestSolutionCost   Cost of the best solution of the colony.
+     * @param generatedSolutions Number of solutions built by the colony.
+     */
+    public ColonyFinishedEvent(int colonyIndex, int iteration, Duration elapsedTime, double bestSolutionCost,
+                               long generatedSolutions) {
+        super(colonyIndex, iteration, elapsedTime);
+        this.bestSolutionCost = bestSolutionCost;
+        this.generatedSolutions = generatedSolutions;
+    }
+
+    public double getBestSolutionCost() {
+        return bestSolutionCost;
+    }
+
+    public long getGeneratedSolutions() {
+        return generatedSolutions;
+    }
+
+    @Override
+    public String toString() {
+        return "ColonyFinishedEvent{" +
+                "colonyIndex=" + getColonyIndex() +
+                ", completedIterations=" + getIteration() +
+                ", bestSolutionCost=" + bestSolutionCost +
+                '}';
+    }
+}
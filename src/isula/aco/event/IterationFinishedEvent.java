@@ -0,0 +1,63 @@
+package isula.aco.event;
+
+import java.time.Duration;
+
+/**
+ * Published when a colony completes an iteration: its ants built their solutions, and the daemon actions were
+ * applied.
+ *
+ * @author Carlos G. Gavidia
+ */
+public class IterationFinishedEvent extends SolverEvent {
+
+    private final double iterationBestCost;
+    private final double bestSolutionCost;
+    private final Duration iterationTime;
+    private final long generatedSolutions;
+
+    public IterationFinishedEvent(int colonyIndex, int iteration, Duration elapsedTime, double iterationBestCost,
+                                  double bestSolutionCost, Duration iterationTime, long generatedSolutions) {
+        super(colonyIndex, iteration, elapsedTime);
+        this.iterationBestCost = iterationBestCost;
+        this.bestSolutionCost = bestSolutionCost;
+        this.iterationTime = iterationTime;
+        this.generatedSolutions = generatedSolutions;
+    }
+
+    /**
+     * Cost of the best solution built on this iteration.
+     *
+     * @return Iteration best cost.
+     */
+    public double getIterationBestCost() {
+        return iterationBestCost;
+    }
+
+    /**
+     * Cost of the best solution found by the colony so far.
+     *
+     * @return Best solution cost.
+     */
+    public double getBestSolutionCost() {
+        return bestSolutionCost;
+    }
+
+    public Duration getIterationTime() {
+        return iterationTime;
+    }
+
+    public long getGeneratedSolutions() {
+        return generatedSolutions;
+    }
+
+    @Override
+    public String toString() {
+        return "IterationFinishedEvent{" +
+                "colonyIndex=" + getColonyIndex() +
+                ", iteration=" + getIteration() +
+                ", iterationBestCost=" + iterationBestCost +
+                ", bestSolutionCost=" + bestSolutionCost +
+                ", iterationTime=" + iterationTime +
+                '}';
+    }
+}
@@ -0,0 +1,45 @@
+package isula.aco.event;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Published when a colony finds a solution better than all the previous ones.
+ *
+ * @param <C> Class for components of a solution.
+ * @author Carlos G. Gavidia
+ */
+public class NewBestSolutionEvent<C> extends SolverEvent {
+
+    private final List<C> solution;
+    private final double solutionCost;
+
+    public NewBestSolutionEvent(int colonyIndex, int iteration, Duration elapsedTime, List<C> solution,
+                                double solutionCost) {
+        super(colonyIndex, iteration, elapsedTime);
+        this.solution = solution;
+        this.solutionCost = solutionCost;
+    }
+
+    /**
+     * The new best solution, as an unmodifiable list.
+     *
+     * @return Best solution.
+     */
+    public List<C> getSolution() {
+        return solution;
+    }
+
+    public double getSolutionCost() {
+        return solutionCost;
+    }
+
+    @Override
+    public String toString() {
+        return "NewBestSolutionEvent{" +
+                "colonyIndex=" + getColonyIndex() +
+                ", iteration=" + getIteration() +
+                ", solutionCost=" + solutionCost +
+                '}';
+    }
+}
@@ -0,0 +1,48 @@
+package isula.aco.event;
+
+import java.time.Duration;
+
+/**
+ * Base class of the events published by a solver while it runs. Events are immutable.
+ *
+ * @author Carlos G. Gavidia
+ */
+public abstract class SolverEvent {
+
+    private final int colonyIndex;
+    private final int iteration;
+    private final Duration elapsedTime;
+
+    protected SolverEvent(int colonyIndex, int iteration, Duration elapsedTime) {
+        this.colonyIndex = colonyIndex;
+        this.iteration = iteration;
+        this.elapsedTime = elapsedTime;
+    }
+
+    /**
+     * Index of the colony that produced the event.
+     *
+     * @return Colony index.
+     */
+    public int getColonyIndex() {
+        return colonyIndex;
+    }
+
+    /**
+     * Iteration where the event happened, starting from zero.
+     *
+     * @return Iteration index.
+     */
+    public int getIteration() {
+        return iteration;
+    }
+
+    /**
+     * Time since the solver started.
+     *
+     * @return Elapsed time.
+     */
+    public Duration getElapsedTime() {
+        return elapsedTime;
+    }
+}
@@ -0,0 +1,86 @@
+package isula.aco.event;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes solver events to Flow subscribers. Every subscriber has a bounded buffer, and events are delivered
+ * asynchronously by an executor: the solver never waits for a subscriber. When the buffer of a subscriber is full,
+ * new events for that subscriber are dropped and counted in getDroppedEvents().
+ * <p>
+ * <p>
+ * Solvers check hasSubscribers() before creating events, so publishing costs nothing when nobody is listening.
+ *
+ * @author Carlos G. Gavidia
+ */
+public class SolverEventPublisher implements Flow.Publisher<SolverEvent>, AutoCloseable {
+
+    private final SubmissionPublisher<SolverEvent> publisher;
+    private final LongAdder droppedEvents = new LongAdder();
+
+    /**
+     * Creates a publisher that delivers events on the common fork-join pool, with the default buffer capacity.
+     */
+    public SolverEventPublisher() {
+        this(ForkJoinPool.commonPool(), Flow.defaultBufferSize());
+    }
+
+    /**
+     * Creates a publisher.
+     *
+     * @param executor       Executor used to deliver events to subscribers.
+     * @param bufferCapacity Maximum number of events waiting to be delivered to each subscriber.
+     */
+    public SolverEventPublisher(Executor executor, int bufferCapacity) {
+        this.publisher = new SubmissionPublisher<>(executor, bufferCapacity);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super SolverEvent> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    public boolean hasSubscribers() {
+        return publisher.hasSubscribers();
+    }
+
+    /**
+     * Offers an event to all subscribers, without blocking. The event is dropped for subscribers with a full buffer.
+     *
+     * @param event Event to publish.
+     */
+    public void publish(SolverEvent event) {
+        if (publisher.isClosed()) {
+            return;
+        }
+
+        publisher.offer(event, (subscriber, droppedEvent) -> {
+            droppedEvents.increment();
+            return false;
+        });
+    }
+
+    /**
+     * Number of events that were not delivered because a subscriber's buffer was full.
+     *
+     * @return Dropped events.
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
+    }
+
+    public boolean isClosed() {
+        return publisher.isClosed();
+    }
+
+    /**
+     * Completes the subscriptions, once the pending events are delivered. No more events are published.
+     */
+    @Override
+    public void close() {
+        publisher.close();
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Typed events that report the progress of a solver, published through java.util.concurrent.Flow.
+ */
+package isula.aco.event;
@@ -0,0 +1,119 @@
+package isula.aco.termination;
+
+import isula.aco.ArrayPheromoneMatrix;
+import isula.aco.Environment;
+import isula.aco.PerformanceTracker;
+import isula.aco.PheromoneMatrix;
+
+/**
+ * Stops the process when the pheromone matrix has converged, according to its average lambda-branching factor. For
+ * each row of the matrix, the branching factor is the number of cells with a pheromone value of at least
+ * min + lambda * (max - min). When most of the pheromone is concentrated on a few cells, ants will keep producing
+ * the same solutions.
+ * <p>
+ * <p>
+ * Calculating the branching factor requires a pass over the whole pheromone matrix, so it can be evaluated every few
+ * iterations instead of every iteration.
+ *
+ * @param <C> Class for components of a solution.
+ * @param <E> Class representing the Environment.
+ * @author Carlos G. Gavidia
+ */
+public class BranchingFactorCriterion<C, E extends Environment> implements TerminationCriterion<C, E> {
+
+    private final double lambda;
+    private final double branchingFactorThreshold;
+    private final int checkInterval;
+
+    /**
+     * Creates a criterion that is evaluated every iteration.
+     *
+     * @param lambda                   Lambda parameter, between 0 and 1. A usual value is 0.05.
+     * @param branchingFactorThreshold The process stops when the average branching factor is below this value.
+     */
+    public BranchingFactorCriterion(double lambda, double branchingFactorThreshold) {
+        this(lambda, branchingFactorThreshold, 1);
+    }
+
+    /**
+     * Creates a criterion that is evaluated every checkInterval iterations.
+     *
+     * @param lambda                   Lambda parameter, between 0 and 1. A usual value is 0.05.
+     * @param branchingFactorThreshold The process stops when the average branching factor is below this value.
+     * @param checkInterval            Number of iterations between evaluations.
+     */
+    public BranchingFactorCriterion(double lambda, double branchingFactorThreshold, int checkInterval) {
+        this.lambda = lambda;
+        this.branchingFactorThreshold = branchingFactorThreshold;
+        this.checkInterval = checkInterval;
+    }
+
+    @Override
+    public boolean shouldTerminate(int iteration, PerformanceTracker<C, E> performanceTracker, E environment) {
+        if ((iteration + 1) % checkInterval != 0) {
+            return false;
+        }
+
+        return getAverageBranchingFactor(environment.getPheromones()) <= branchingFactorThreshold;
+    }
+
+    /**
+     * Calculates the average lambda-branching factor of a pheromone matrix.
+     *
+     * @param pheromoneMatrix Pheromone matrix.
+     * @return Average branching factor over all rows.
+     */
+    public double getAverageBranchingFactor(double[][] pheromoneMatrix) {
+        if (pheromoneMatrix == null) {
+            return 0.0;
+        }
+        return getAverageBranchingFactor(new ArrayPheromoneMatrix(pheromoneMatrix));
+    }
+
+    /**
+     * Calculates the average lambda-branching factor of a pheromone matrix.
+     *
+     * @param pheromoneMatrix Pheromone matrix.
+     * @return Average branching factor over all rows.
+     */
+    public double getAverageBranchingFactor(PheromoneMatrix pheromoneMatrix) {
+        if (pheromoneMatrix == null || pheromoneMatrix.getRows() == 0) {
+            return 0.0;
+        }
+
+        double[] pheromoneRow = new double[pheromoneMatrix.getColumns()];
+        long totalBranches = 0;
+        for (int row = 0; row < pheromoneMatrix.getRows(); row++) {
+            int rowLength = pheromoneMatrix.getColumns(row);
+            if (pheromoneRow.length < rowLength) {
+                pheromoneRow = new double[rowLength];
+            }
+            pheromoneMatrix.copyRow(row, pheromoneRow);
+
+            double minimumValue = Double.POSITIVE_INFINITY;
+            double maximumValue = Double.NEGATIVE_INFINITY;
+            for (int column = 0; column < rowLength; column++) {
+                minimumValue = Math.min(minimumValue, pheromoneRow[column]);
+                maximumValue = Math.max(maximumValue, pheromoneRow[column]);
+            }
+
+            double branchThreshold = minimumValue + lambda * (maximumValue - minimumValue);
+            for (int column = 0; column < rowLength; column++) {
+                if (pheromoneRow[column] >= branchThreshold) {
+                    totalBranches++;
+                }
+            }
+        }
+
+        return (double) totalBranches / pheromoneMatrix.getRows();
+    }
+
+    @Override
+    public String toString() {
+        return "BranchingFactorCriterion{" +
+                "lambda=" + lambda +
+                ", branchingFactorThreshold=" + branchingFactorThreshold +
+                ", checkInterval=" + checkInterval +
+                '}';
+    }
+}
@@ -0,0 +1,42 @@
+package isula.aco.termination;
+
+import isula.aco.Environment;
+import isula.aco.PerformanceTracker;
+
+/**
+ * The combination of two termination criteria, produced by TerminationCriterion.and() and
+ * TerminationCriterion.or(). The second criterion is only evaluated when the first one doesn't decide the result.
+ *
+ * @param <C> Class for components of a solution.
+ * @param <E> Class representing the Environment.
+ * @author Carlos G. Gavidia
+ */
+final class CompositeCriterion<C, E extends Environment> implements TerminationCriterion<C, E> {
+
+    private final TerminationCriterion<C, E> firstCriterion;
+    private final TerminationCriterion<C, E> secondCriterion;
+    private final boolean conjunction;
+
+    CompositeCriterion(TerminationCriterion<C, E> firstCriterion, TerminationCriterion<C, E> secondCriterion,
+                       boolean conjunction) {
+        this.firstCriterion = firstCriterion;
+        this.secondCriterion = secondCriterion;
+        this.conjunction = conjunction;
+    }
+
+    @Override
+    public boolean shouldTerminate(int iteration, PerformanceTracker<C, E> performanceTracker, E environment) {
+        if (conjunction) {
+            return firstCriterion.shouldTerminate(iteration, performanceTracker, environment) &&
+                    secondCriterion.shouldTerminate(iteration, performanceTracker, environment);
+        }
+
+        return firstCriterion.shouldTerminate(iteration, performanceTracker, environment) ||
+                secondCriterion.shouldTerminate(iteration, performanceTracker, environment);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + firstCriterion + (conjunction ? " AND " : " OR ") + secondCriterion + ")";
+    }
+}
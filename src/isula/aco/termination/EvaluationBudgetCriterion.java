@@ -0,0 +1,34 @@
+package isula.aco.termination;
+
+import isula.aco.Environment;
+import isula.aco.PerformanceTracker;
+
+/**
+ * Stops the process once the colony has evaluated the cost of its solutions a number of times. Useful when the
+ * objective function is expensive. When the solver resumes from a checkpoint, the evaluations of the previous
+ * execution count towards the budget.
+ *
+ * @param <C> Class for components of a solution.
+ * @param <E> Class representing the Environment.
+ * @author Carlos G. Gavidia
+ */
+public class EvaluationBudgetCriterion<C, E extends Environment> implements TerminationCriterion<C, E> {
+
+    private final long maximumEvaluations;
+
+    public EvaluationBudgetCriterion(long maximumEvaluations) {
+        this.maximumEvaluations = maximumEvaluations;
+    }
+
+    @Override
+    public boolean shouldTerminate(int iteration, PerformanceTracker<C, E> performanceTracker, E environment) {
+        return performanceTracker.getSolutionEvaluations() >= maximumEvaluations;
+    }
+
+    @Override
+    public String toString() {
+        return "EvaluationBudgetCriterion{" +
+                "maximumEvaluations=" + maximumEvaluations +
+                '}';
+    }
+}
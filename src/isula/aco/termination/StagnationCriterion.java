@@ -0,0 +1,32 @@
+package isula.aco.termination;
+
+import isula.aco.Environment;
+import isula.aco.PerformanceTracker;
+
+/**
+ * Stops the process when the best solution hasn't improved for a number of iterations.
+ *
+ * @param <C> Class for components of a solution.
+ * @param <E> Class representing the Environment.
+ * @author Carlos G. Gavidia
+ */
+public class StagnationCriterion<C, E extends Environment> implements TerminationCriterion<C, E> {
+
+    private final int iterationsWithoutImprovement;
+
+    public StagnationCriterion(int iterationsWithoutImprovement) {
+        this.iterationsWithoutImprovement = iterationsWithoutImprovement;
+    }
+
+    @Override
+    public boolean shouldTerminate(int iteration, PerformanceTracker<C, E> performanceTracker, E environment) {
+        return iteration - performanceTracker.getLastImprovementIteration() >= iterationsWithoutImprovement;
+    }
+
+    @Override
+    public String toString() {
+        return "StagnationCriterion{" +
+                "iterationsWithoutImprovement=" + iterationsWithoutImprovement +
+                '}';
+    }
+}
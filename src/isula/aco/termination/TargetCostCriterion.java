@@ -0,0 +1,32 @@
+package isula.aco.termination;
+
+import isula.aco.Environment;
+import isula.aco.PerformanceTracker;
+
+/**
+ * Stops the process when a solution with a cost equal or lower than a target is found.
+ *
+ * @param <C> Class for components of a solution.
+ * @param <E> Class representing the Environment.
+ * @author Carlos G. Gavidia
+ */
+public class TargetCostCriterion<C, E extends Environment> implements TerminationCriterion<C, E> {
+
+    private final double targetCost;
+
+    public TargetCostCriterion(double targetCost) {
+        this.targetCost = targetCost;
+    }
+
+    @Override
+    public boolean shouldTerminate(int iteration, PerformanceTracker<C, E> performanceTracker, E environment) {
+        return performanceTracker.getBestSolution() != null && performanceTracker.getBestSolutionCost() <= targetCost;
+    }
+
+    @Override
+    public String toString() {
+        return "TargetCostCriterion{" +
+                "targetCost=" + targetCost +
+                '}';
+    }
+}
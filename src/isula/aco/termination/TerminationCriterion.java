@@ -0,0 +1,50 @@
+package isula.aco.termination;
+
+import isula.aco.Environment;
+import isula.aco.PerformanceTracker;
+
+/**
+ * A condition for stopping the optimization process of a colony. It is evaluated by the problem solver after every
+ * iteration, on top of the maximum number of iterations from the configuration provider. Criteria can be combined
+ * using and() and or().
+ * <p>
+ * <p>
+ * Implementations should not keep state between calls: in parallel solvers, the same instance is evaluated for
+ * every colony.
+ *
+ * @param <C> Class for components of a solution.
+ * @param <E> Class representing the Environment.
+ * @author Carlos G. Gavidia
+ */
+public interface TerminationCriterion<C, E extends Environment> {
+
+    /**
+     * Decides if the colony should stop producing solutions.
+     *
+     * @param iteration          Iteration that just finished, starting from zero.
+     * @param performanceTracker Performance of the colony so far.
+     * @param environment        Environment where the colony is building solutions.
+     * @return True if the process should finish, false otherwise.
+     */
+    boolean shouldTerminate(int iteration, PerformanceTracker<C, E> performanceTracker, E environment);
+
+    /**
+     * Combines this criterion with another one: the process finishes when both are met.
+     *
+     * @param otherCriterion Criterion to combine with.
+     * @return Composite criterion, described by its toString() as (this AND other).
+     */
+    default TerminationCriterion<C, E> and(TerminationCriterion<C, E> otherCriterion) {
+        return new CompositeCriterion<>(this, otherCriterion, true);
+    }
+
+    /**
+     * Combines this criterion with another one: the process finishes when any of them is met.
+     *
+     * @param otherCriterion Criterion to combine with.
+     * @return Composite criterion, described by its toString() as (this OR other).
+     */
+    default TerminationCriterion<C, E> or(TerminationCriterion<C, E> otherCriterion) {
+        return new CompositeCriterion<>(this, otherCriterion, false);
+    }
+}
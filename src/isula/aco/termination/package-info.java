@@ -0,0 +1,4 @@
+/**
+ * Criteria for stopping the optimization process before the maximum number of iterations.
+ */
+package isula.aco.termination;
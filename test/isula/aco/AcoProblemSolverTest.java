@@ -44,6 +44,49 @@ public class AcoProblemSolverTest extends BaseTestForIsula {
 
     }
 
+    @Test
+    public void testPerformanceMetrics() {
+        getProblemSolver().solveProblem();
+
+        PerformanceMetrics metrics = getProblemSolver().getMetrics();
+        assertEquals(1, metrics.getIterations());
+        assertEquals(1, metrics.getGeneratedSolutions());
+        assertEquals(SOLUTION_LENGTH, metrics.getComponentSelections());
+
+        assertTrue(metrics.getConstructionTime().toNanos() > 0);
+        assertTrue(metrics.getTrackingTime().toNanos() > 0);
+        assertTrue(metrics.getDaemonActionTime(PerformEvaporation.class).toNanos() > 0);
+        assertTrue(metrics.getDaemonActionTime(OfflinePheromoneUpdate.class).toNanos() > 0);
+        assertEquals(2, metrics.getDaemonActionTimes().size());
+        assertTrue(metrics.getIterationTime().compareTo(metrics.getConstructionTime()) > 0);
+
+        assertTrue(metrics.getWallClockTime().compareTo(metrics.getIterationTime()) >= 0);
+        assertEquals(metrics.getGeneratedSolutions() * 1e9 / metrics.getWallClockTime().toNanos(),
+                metrics.getSolutionsPerSecond(), 0.001);
+        assertTrue(metrics.getSolutionsPerSecond() > 0);
+        assertTrue(metrics.getSelectionsPerSecond() > 0);
+    }
+
+    @Test
+    public void testMergedMetricsUseWallClockTime() {
+        PerformanceMetrics firstColony = new PerformanceMetrics();
+        firstColony.addIteration(2_000_000_000L);
+        firstColony.setCounters(100, 1000, 100);
+
+        PerformanceMetrics secondColony = new PerformanceMetrics();
+        secondColony.addIteration(2_000_000_000L);
+        secondColony.setCounters(100, 1000, 100);
+
+        assertEquals(50.0, firstColony.getSolutionsPerSecond(), 0.001);
+
+        // Both colonies ran at the same time, for two seconds.
+        firstColony.merge(secondColony);
+        firstColony.setWallClockTime(2_000_000_000L);
+        assertEquals(100.0, firstColony.getSolutionsPerSecond(), 0.001);
+        assertEquals(1000.0, firstColony.getSelectionsPerSecond(), 0.001);
+        assertEquals(4, firstColony.getIterationTime().getSeconds());
+    }
+
     @Test
     public void testSolverConfiguration() {
         assertEquals(getEnvironment(), getProblemSolver().getEnvironment());
@@ -1,13 +1,17 @@
 package isula.aco;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 
+import isula.aco.exception.ConfigurationException;
 import isula.aco.test.DummyFactory;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.IntStream;
 
 
@@ -111,4 +115,80 @@ public class AntColonyTest {
             }
         }
     }
+
+    @Test
+    public void testBuildSolutionsInParallel() {
+        this.dummyColony.buildColony(this.environment);
+        this.dummyColony.addAntPolicies(AntColonyTest::createNodeSelectionPolicy);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(NUMBER_OF_ANTS);
+        try {
+            this.dummyColony.setConstructionExecutor(executorService);
+            this.dummyColony.buildSolutions(this.environment,
+                    DummyFactory.createDummyConfigurationProvider(), null);
+        } finally {
+            executorService.shutdown();
+        }
+
+        List<Ant<Integer, Environment>> hive = this.dummyColony.getHive();
+        for (Ant<Integer, Environment> ant : hive) {
+            assertEquals(SOLUTION_LENGTH, ant.getSolution().size());
+
+            AntPolicy<Integer, Environment> nodeSelectionPolicy = ant.getAntPolicies(
+                    AntPolicyType.NODE_SELECTION, 1).get(0);
+            assertEquals(ant, nodeSelectionPolicy.getAnt());
+        }
+
+        assertNotSame(hive.get(0).getAntPolicies(AntPolicyType.NODE_SELECTION, 1).get(0),
+                hive.get(1).getAntPolicies(AntPolicyType.NODE_SELECTION, 1).get(0));
+    }
+
+    @Test
+    public void testPoliciesRegisteredBeforeBuildColony() {
+        this.dummyColony.addAntPolicies(AntColonyTest::createNodeSelectionPolicy);
+        this.dummyColony.buildColony(this.environment);
+
+        List<Ant<Integer, Environment>> hive = this.dummyColony.getHive();
+        assertEquals(NUMBER_OF_ANTS, hive.size());
+        for (Ant<Integer, Environment> ant : hive) {
+            AntPolicy<Integer, Environment> nodeSelectionPolicy = ant.getAntPolicies(
+                    AntPolicyType.NODE_SELECTION, 1).get(0);
+            assertEquals(ant, nodeSelectionPolicy.getAnt());
+        }
+        assertNotSame(hive.get(0).getAntPolicies(AntPolicyType.NODE_SELECTION, 1).get(0),
+                hive.get(1).getAntPolicies(AntPolicyType.NODE_SELECTION, 1).get(0));
+
+        this.dummyColony.buildSolutions(this.environment,
+                DummyFactory.createDummyConfigurationProvider(), null);
+        for (Ant<Integer, Environment> ant : hive) {
+            assertEquals(SOLUTION_LENGTH, ant.getSolution().size());
+        }
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testParallelConstructionWithSharedPolicies() {
+        this.dummyColony.buildColony(this.environment);
+        this.dummyColony.addAntPolicies(createNodeSelectionPolicy());
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            this.dummyColony.setConstructionExecutor(executorService);
+            this.dummyColony.buildSolutions(this.environment,
+                    DummyFactory.createDummyConfigurationProvider(), null);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private static AntPolicy<Integer, Environment> createNodeSelectionPolicy() {
+        return new AntPolicy<>(AntPolicyType.NODE_SELECTION) {
+
+            @Override
+            public boolean applyPolicy(Environment environment,
+                                       ConfigurationProvider configurationProvider) {
+                this.getAnt().visitNode(SAMPLE_NODE, environment);
+                return true;
+            }
+        };
+    }
 }
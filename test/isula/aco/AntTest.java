@@ -6,14 +6,23 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import isula.aco.algorithms.antsystem.OnlinePheromoneUpdate;
+import isula.aco.algorithms.antsystem.RandomNodeSelection;
+import isula.aco.exception.ConfigurationException;
 import isula.aco.exception.InvalidInputException;
 import isula.aco.exception.SolutionConstructionException;
 import isula.aco.test.DummyFactory;
 
 import org.junit.Before;
 import org.junit.Test;
+import smalltsp.SmallTspAnt;
+import smalltsp.SmallTspConfiguration;
+import smalltsp.SmallTspEnvironment;
+import tsp.AntForTsp;
+import tsp.TspEnvironment;
+import tsp.TspHelper;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 
@@ -69,6 +78,29 @@ public class AntTest {
         assertFalse(this.dummyAnt.isNodeVisited(3));
     }
 
+    @Test
+    public void testVisitNodeWithComponentIndexer() {
+        this.dummyAnt.setComponentIndexer(ComponentIndexer.forIntegers(SAMPLE_PROBLEM_GRAPH.length + 1));
+
+        assertTrue(this.dummyAnt.isNodeVisited(0));
+        assertTrue(this.dummyAnt.isNodeVisited(2));
+        assertFalse(this.dummyAnt.isNodeVisited(3));
+
+        this.dummyAnt.visitNode(3, null);
+        assertTrue(this.dummyAnt.isNodeVisited(3));
+        assertTrue(this.dummyAnt.getVisited().isEmpty());
+
+        this.dummyAnt.clear();
+        assertFalse(this.dummyAnt.isNodeVisited(0));
+        assertFalse(this.dummyAnt.isNodeVisited(3));
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testVisitNodeWithoutIndex() {
+        this.dummyAnt.setComponentIndexer(ComponentIndexer.forIntegers(SAMPLE_PROBLEM_GRAPH.length + 1));
+        this.dummyAnt.visitNode(SAMPLE_PROBLEM_GRAPH.length + 1, null);
+    }
+
     @Test
     public void testClear() {
         this.dummyAnt.clear();
@@ -83,6 +115,53 @@ public class AntTest {
         }
     }
 
+    @Test
+    public void testSolutionCostIsCached() throws InvalidInputException {
+        Environment environment = DummyFactory.createDummyEnvironment(SAMPLE_PROBLEM_GRAPH, 3, 3);
+        long evaluations = this.dummyAnt.getSolutionEvaluations();
+
+        this.dummyAnt.getSolutionCost(environment);
+        this.dummyAnt.getSolutionCost(environment);
+        assertEquals(evaluations + 1, this.dummyAnt.getSolutionEvaluations());
+
+        this.dummyAnt.visitNode(3, environment);
+        this.dummyAnt.getSolutionCost(environment);
+        assertEquals(evaluations + 2, this.dummyAnt.getSolutionEvaluations());
+
+        this.dummyAnt.clear();
+        this.dummyAnt.getSolutionCost(environment);
+        this.dummyAnt.setSolution(new ArrayList<>());
+        this.dummyAnt.getSolutionCost(environment);
+        this.dummyAnt.invalidateSolutionCost();
+        this.dummyAnt.getSolutionCost(environment);
+        assertEquals(evaluations + 5, this.dummyAnt.getSolutionEvaluations());
+    }
+
+    @Test
+    public void testIncrementalCost() {
+        TspEnvironment environment = new TspEnvironment(TspHelper.getSampleProblem());
+        List<String> cities = environment.getAllCities();
+        AntForTsp ant = new AntForTsp(cities);
+
+        for (String city : cities) {
+            ant.visitNode(city, environment);
+        }
+        double expectedCost = TspHelper.calculateDistance(cities, environment.getDistanceMap());
+        double closingCost = environment.getDistanceMap().get(cities.get(cities.size() - 1)).get(cities.get(0));
+
+        assertEquals(expectedCost, ant.getSolutionCost(environment), 0.001);
+        assertEquals(expectedCost - closingCost, ant.getPartialSolutionCost(environment), 0.001);
+
+        List<String> reversedRoute = new ArrayList<>(cities);
+        Collections.reverse(reversedRoute);
+        ant.setSolution(reversedRoute);
+        assertEquals(TspHelper.calculateDistance(reversedRoute, environment.getDistanceMap()),
+                ant.getSolutionCost(environment), 0.001);
+
+        ant.clear();
+        assertEquals(0.0, ant.getPartialSolutionCost(environment), 0.001);
+    }
+
     @Test
     public void testGetSolutionAsString() {
         String expectedString = " 0 1 2";
@@ -101,6 +180,71 @@ public class AntTest {
         assertEquals(0, this.dummyAnt.getAntPolicies(AntPolicyType.NODE_SELECTION, -1).size());
     }
 
+    @Test(expected = ConfigurationException.class)
+    public void testCompilePoliciesWithoutNodeSelection() {
+        this.dummyAnt.addPolicy(onlinePheromoneUpdatePolicy);
+        this.dummyAnt.compilePolicies();
+    }
+
+    @Test
+    public void testCompilePoliciesBindsSharedPolicies() {
+        RandomNodeSelection<Integer, Environment> nodeSelectionPolicy = new RandomNodeSelection<>();
+        Ant<Integer, Environment> anotherAnt = DummyFactory.createDummyAnt(0, 1, null);
+
+        this.dummyAnt.addPolicy(nodeSelectionPolicy);
+        this.dummyAnt.addPolicy(onlinePheromoneUpdatePolicy);
+        anotherAnt.addPolicy(nodeSelectionPolicy);
+        anotherAnt.addPolicy(onlinePheromoneUpdatePolicy);
+
+        this.dummyAnt.compilePolicies();
+        assertEquals(this.dummyAnt, nodeSelectionPolicy.getAnt());
+        assertEquals(this.dummyAnt, onlinePheromoneUpdatePolicy.getAnt());
+
+        anotherAnt.compilePolicies();
+        assertEquals(anotherAnt, nodeSelectionPolicy.getAnt());
+        assertEquals(anotherAnt, onlinePheromoneUpdatePolicy.getAnt());
+    }
+
+    @Test
+    public void testInterleavedAntsSharingPolicies() {
+        SmallTspEnvironment environment = new SmallTspEnvironment();
+        environment.setProblemRepresentation(SmallTspEnvironment.SAMPLE_PROBLEM);
+        environment.populatePheromoneMatrix(1.0);
+        ConfigurationProvider configurationProvider = new SmallTspConfiguration();
+
+        RandomNodeSelection<Integer, SmallTspEnvironment> nodeSelectionPolicy = new RandomNodeSelection<>();
+        List<Ant<Integer, SmallTspEnvironment>> appliedTo = new ArrayList<>();
+        AntPolicy<Integer, SmallTspEnvironment> afterNodeSelectionPolicy =
+                new AntPolicy<>(AntPolicyType.AFTER_NODE_SELECTION) {
+                    @Override
+                    public boolean applyPolicy(SmallTspEnvironment environment,
+                                               ConfigurationProvider configurationProvider) {
+                        appliedTo.add(getAnt());
+                        return true;
+                    }
+                };
+
+        List<SmallTspAnt> ants = List.of(new SmallTspAnt(), new SmallTspAnt());
+        for (SmallTspAnt ant : ants) {
+            ant.addPolicy(nodeSelectionPolicy);
+            ant.addPolicy(afterNodeSelectionPolicy);
+            ant.visitNode(0, environment);
+        }
+
+        // Lockstep construction: each ant selects a node in turn, outside AntColony.
+        for (int step = 1; step < SmallTspEnvironment.SAMPLE_PROBLEM.length; step++) {
+            for (SmallTspAnt ant : ants) {
+                ant.selectNextNode(environment, configurationProvider);
+                assertEquals(step + 1, ant.getSolution().size());
+                assertEquals(ant, appliedTo.get(appliedTo.size() - 1));
+            }
+        }
+
+        for (SmallTspAnt ant : ants) {
+            assertEquals(SmallTspEnvironment.SAMPLE_PROBLEM.length, ant.getSolution().stream().distinct().count());
+        }
+    }
+
     @Test
     public void testDoAfterSolutionIsReady() throws InvalidInputException {
 
@@ -0,0 +1,88 @@
+package isula.aco;
+
+import isula.aco.algorithms.antsystem.OfflinePheromoneUpdate;
+import isula.aco.algorithms.antsystem.PerformEvaporation;
+import isula.aco.algorithms.antsystem.RandomNodeSelection;
+import isula.aco.algorithms.antsystem.StartPheromoneMatrix;
+import org.junit.Test;
+import tsp.AntColonyForTsp;
+import tsp.TspConfiguration;
+import tsp.TspEnvironment;
+import tsp.TspHelper;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CancellationTokenTest {
+
+    @Test
+    public void testCancel() {
+        CancellationToken cancellationToken = new CancellationToken();
+        assertFalse(cancellationToken.isCancelled());
+        assertNull(cancellationToken.getRemainingTime());
+
+        CancellationToken childToken = cancellationToken.createChild(Duration.ofHours(1));
+        assertFalse(childToken.isCancelled());
+        assertTrue(childToken.getRemainingTime().compareTo(Duration.ofHours(1)) <= 0);
+
+        cancellationToken.cancel();
+        assertTrue(cancellationToken.isCancelled());
+        assertTrue(childToken.isCancelled());
+        assertEquals(Duration.ZERO, childToken.getRemainingTime());
+    }
+
+    @Test
+    public void testDeadline() {
+        assertTrue(CancellationToken.withTimeout(Duration.ZERO).isCancelled());
+
+        CancellationToken cancellationToken = CancellationToken.withTimeout(Duration.ofHours(1));
+        CancellationToken childToken = cancellationToken.createChild(Duration.ZERO);
+        assertTrue(childToken.isCancelled());
+        assertFalse(cancellationToken.isCancelled());
+    }
+
+    @Test
+    public void testCancelDuringConstruction() {
+        TspEnvironment environment = new TspEnvironment(TspHelper.getSampleProblem());
+        TspConfiguration configuration = new TspConfiguration(environment);
+        int numberOfCities = environment.getAllCities().size();
+        int numberOfAnts = configuration.getNumberOfAnts();
+
+        AcoProblemSolver<String, TspEnvironment> solver = new AcoProblemSolver<>();
+        solver.initialize(environment, new AntColonyForTsp(numberOfAnts), configuration);
+        solver.addDaemonActions(new StartPheromoneMatrix<>(), new PerformEvaporation<>(),
+                new OfflinePheromoneUpdate<>());
+
+        // The token is cancelled in the middle of the third iteration.
+        CancellationToken cancellationToken = new CancellationToken();
+        long selectionsBeforeCancelling = 2L * numberOfAnts * (numberOfCities - 1) + numberOfCities / 2;
+        solver.getAntColony().setCancellationCheckInterval(1);
+        solver.getAntColony().addAntPolicies(new RandomNodeSelection<>(), new AntPolicy<>(
+                AntPolicyType.AFTER_NODE_SELECTION) {
+
+            private long selections;
+
+            @Override
+            public boolean applyPolicy(TspEnvironment environment, ConfigurationProvider configurationProvider) {
+                selections += 1;
+                if (selections == selectionsBeforeCancelling) {
+                    cancellationToken.cancel();
+                }
+                return true;
+            }
+        });
+        solver.setCancellationToken(cancellationToken);
+        solver.solveProblem();
+
+        assertEquals(2L * numberOfAnts, solver.getMetrics().getGeneratedSolutions());
+        assertNotNull(solver.getBestSolution());
+        assertEquals(numberOfCities, solver.getBestSolution().size());
+        assertEquals(TspHelper.calculateDistance(solver.getBestSolution(), environment.getDistanceMap()),
+                solver.getBestSolutionCost(), 0.001);
+    }
+}
@@ -2,6 +2,7 @@ package isula.aco;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import isula.aco.test.DummyFactory;
@@ -9,6 +10,11 @@ import isula.aco.test.DummyFactory;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 public class EnvironmentTest {
 
     private static final double DELTA = 0.001;
@@ -73,6 +79,38 @@ public class EnvironmentTest {
         }
     }
 
+    @Test
+    public void testConcurrentPheromoneUpdates() throws InterruptedException {
+        int numberOfThreads = 4;
+        int depositsPerThread = 10000;
+
+        this.dummyEnvironment.setConcurrentPheromoneUpdates(true);
+        this.dummyEnvironment.populatePheromoneMatrix(0.0);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads);
+        for (int thread = 0; thread < numberOfThreads; thread++) {
+            executorService.execute(() -> {
+                for (int deposit = 0; deposit < depositsPerThread; deposit++) {
+                    this.dummyEnvironment.updatePheromoneValue(1, 2, pheromoneValue -> pheromoneValue + 1.0);
+                }
+            });
+        }
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(numberOfThreads * depositsPerThread, this.dummyEnvironment.getPheromoneValue(1, 2), DELTA);
+        assertEquals(0.0, this.dummyEnvironment.getPheromoneValue(1, 1), DELTA);
+
+        this.dummyEnvironment.applyFactorToPheromoneMatrix(0.5);
+        assertEquals(numberOfThreads * depositsPerThread / 2.0, this.dummyEnvironment.getPheromoneValue(1, 2),
+                DELTA);
+
+        this.dummyEnvironment.applyFactorToPheromoneMatrix(0.5, 1.0);
+        assertEquals(numberOfThreads * depositsPerThread / 4.0, this.dummyEnvironment.getPheromoneValue(1, 2),
+                DELTA);
+        assertEquals(1.0, this.dummyEnvironment.getPheromoneValue(1, 1), DELTA);
+    }
+
     @Test
     public void testToString() {
         String environmentAsString = this.dummyEnvironment.toString();
@@ -96,5 +134,40 @@ public class EnvironmentTest {
                         this.dummyEnvironment.getPheromoneMatrix()[i][j], DELTA);
             }
         }
+
+        pheromoneMatrix[1][2] = 4 * SAMPLE_PHEROMONE;
+        this.dummyEnvironment.applyFactorToPheromoneMatrix(0.5, 1.5 * SAMPLE_PHEROMONE);
+        assertEquals(2 * SAMPLE_PHEROMONE, pheromoneMatrix[1][2], DELTA);
+        assertEquals(1.5 * SAMPLE_PHEROMONE, pheromoneMatrix[0][0], DELTA);
+    }
+
+    @Test
+    public void testChoiceInformation() {
+        double[][] heuristicMatrix = new double[MATRIX_ROWS][MATRIX_COLUMNS];
+        for (double[] heuristicRow : heuristicMatrix) {
+            Arrays.fill(heuristicRow, 3.0);
+        }
+
+        ConfigurationProvider configurationProvider = DummyFactory.createDummyConfigurationProvider();
+        this.dummyEnvironment.populatePheromoneMatrix(SAMPLE_PHEROMONE);
+        this.dummyEnvironment.setHeuristicMatrix(heuristicMatrix);
+        assertTrue(this.dummyEnvironment.isChoiceInformationEnabled());
+
+        this.dummyEnvironment.updateChoiceInformation(configurationProvider);
+        assertEquals(3.0 * SAMPLE_PHEROMONE, this.dummyEnvironment.getChoiceInformation()[1][2], DELTA);
+
+        this.dummyEnvironment.applyFactorToPheromoneMatrix(2);
+        this.dummyEnvironment.updateChoiceInformation(configurationProvider);
+        assertEquals(3.0 * 2 * SAMPLE_PHEROMONE, this.dummyEnvironment.getChoiceInformation()[1][2], DELTA);
+
+        double[][] previousChoiceInformation = this.dummyEnvironment.getChoiceInformation();
+        this.dummyEnvironment.getPheromoneMatrix()[2][0] = 4.0;
+        this.dummyEnvironment.invalidateChoiceInformation(2);
+        this.dummyEnvironment.updateChoiceInformation(configurationProvider);
+        assertEquals(3.0 * 4.0, this.dummyEnvironment.getChoiceInformation()[2][0], DELTA);
+        assertEquals(3.0 * 2 * SAMPLE_PHEROMONE, this.dummyEnvironment.getChoiceInformation()[2][1], DELTA);
+
+        assertEquals(3.0 * 2 * SAMPLE_PHEROMONE, previousChoiceInformation[2][0], DELTA);
+        assertSame(previousChoiceInformation[1], this.dummyEnvironment.getChoiceInformation()[1]);
     }
 }
@@ -0,0 +1,92 @@
+package isula.aco;
+
+import isula.aco.exception.ConfigurationException;
+import isula.aco.test.DummyFactory;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FlatPheromoneMatrixTest {
+
+    private static final double DELTA = 0.001;
+
+    @Test
+    public void testCellAccess() {
+        FlatPheromoneMatrix pheromoneMatrix = new FlatPheromoneMatrix(new double[][]{{1, 2, 3}, {4, 5, 6}});
+
+        assertEquals(2, pheromoneMatrix.getRows());
+        assertEquals(3, pheromoneMatrix.getColumns());
+        assertEquals(6.0, pheromoneMatrix.get(1, 2), DELTA);
+        assertEquals(4, pheromoneMatrix.getIndex(1, 1));
+
+        pheromoneMatrix.set(0, 1, 7.0);
+        assertEquals(7.0, pheromoneMatrix.getValues()[1], DELTA);
+        assertEquals(9.0, pheromoneMatrix.update(0, 1, pheromoneValue -> pheromoneValue + 2), DELTA);
+
+        double[] row = new double[3];
+        pheromoneMatrix.copyRow(1, row);
+        assertEquals(Arrays.toString(new double[]{4, 5, 6}), Arrays.toString(row));
+    }
+
+    @Test
+    public void testBulkOperations() {
+        PheromoneMatrix flatMatrix = new FlatPheromoneMatrix(3, 4);
+        PheromoneMatrix arrayMatrix = new ArrayPheromoneMatrix(new double[3][4]);
+
+        for (PheromoneMatrix pheromoneMatrix : new PheromoneMatrix[]{flatMatrix, arrayMatrix}) {
+            pheromoneMatrix.fill(2.0);
+            pheromoneMatrix.scale(0.5);
+            pheromoneMatrix.transform(pheromoneValue -> pheromoneValue + 1);
+            pheromoneMatrix.set(2, 3, 0.0);
+        }
+
+        assertEquals(Arrays.deepToString(arrayMatrix.toArray()), Arrays.deepToString(flatMatrix.toArray()));
+        assertEquals(2.0, flatMatrix.get(1, 1), DELTA);
+
+        PheromoneMatrix matrixCopy = flatMatrix.copy();
+        matrixCopy.set(1, 1, 5.0);
+        assertEquals(2.0, flatMatrix.get(1, 1), DELTA);
+    }
+
+    @Test
+    public void testParallelBulkOperations() {
+        // Large enough to be split across the fork-join pool.
+        int size = 300;
+        PheromoneMatrix flatMatrix = new FlatPheromoneMatrix(size, size);
+        PheromoneMatrix arrayMatrix = new ArrayPheromoneMatrix(new double[size][size]);
+
+        for (PheromoneMatrix pheromoneMatrix : new PheromoneMatrix[]{flatMatrix, arrayMatrix}) {
+            pheromoneMatrix.fill(1.0);
+            pheromoneMatrix.set(0, 0, 10.0);
+            pheromoneMatrix.scaleAndClamp(0.5, 0.6);
+            pheromoneMatrix.add(1.0);
+
+            assertEquals(6.0, pheromoneMatrix.get(0, 0), DELTA);
+            assertEquals(1.6, pheromoneMatrix.get(size - 1, size - 1), DELTA);
+            assertEquals(1.6, pheromoneMatrix.get(size / 2, 7), DELTA);
+        }
+    }
+
+    @Test
+    public void testEnvironmentWithFlatMatrix() throws Exception {
+        Environment environment = DummyFactory.createDummyEnvironment(new double[3][4], 3, 4);
+        assertTrue(environment.getPheromones() instanceof ArrayPheromoneMatrix);
+
+        environment.setPheromones(new FlatPheromoneMatrix(3, 4));
+        environment.populatePheromoneMatrix(1.0);
+        environment.applyFactorToPheromoneMatrix(0.5);
+        assertEquals(0.5, environment.getPheromoneValue(2, 3), DELTA);
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testArrayViewOfFlatMatrix() throws Exception {
+        Environment environment = DummyFactory.createDummyEnvironment(new double[3][4], 3, 4);
+        environment.setPheromones(new FlatPheromoneMatrix(3, 4));
+
+        // Writes on a copy would be silently lost.
+        environment.getPheromoneMatrix();
+    }
+}
@@ -0,0 +1,113 @@
+package isula.aco;
+
+import integration.BruteForceTspSolver;
+import isula.aco.algorithms.antsystem.OfflinePheromoneUpdate;
+import isula.aco.algorithms.antsystem.PerformEvaporation;
+import isula.aco.algorithms.antsystem.RandomNodeSelection;
+import isula.aco.algorithms.antsystem.StartPheromoneMatrix;
+import isula.aco.exception.ConfigurationException;
+import org.junit.Test;
+import tsp.AntColonyForTsp;
+import tsp.TspConfiguration;
+import tsp.TspEnvironment;
+import tsp.TspHelper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LazyEvaporationPheromoneMatrixTest {
+
+    private static final double DELTA = 0.000001;
+    private static final int ROWS = 5;
+    private static final int COLUMNS = 6;
+
+    @Test
+    public void testMaxMinEvaporation() {
+        PheromoneMatrix eagerMatrix = new ArrayPheromoneMatrix(new double[ROWS][COLUMNS]);
+        LazyEvaporationPheromoneMatrix lazyMatrix = new LazyEvaporationPheromoneMatrix(
+                new FlatPheromoneMatrix(ROWS, COLUMNS));
+
+        double evaporationRatio = 0.8;
+        double minimumValue = 0.05;
+        eagerMatrix.fill(1.0);
+        lazyMatrix.fill(1.0);
+
+        Random random = new Random(7);
+        for (int iteration = 0; iteration < 200; iteration++) {
+            eagerMatrix.scaleAndClamp(evaporationRatio, minimumValue);
+            lazyMatrix.scaleAndClamp(evaporationRatio, minimumValue);
+
+            int row = random.nextInt(ROWS);
+            int column = random.nextInt(COLUMNS);
+            double deposit = random.nextDouble();
+            eagerMatrix.update(row, column, pheromoneValue -> pheromoneValue + deposit);
+            lazyMatrix.update(row, column, pheromoneValue -> pheromoneValue + deposit);
+
+            assertMatricesEqual(eagerMatrix, lazyMatrix);
+        }
+
+        // A change of minimum materializes the pending evaporation.
+        eagerMatrix.scaleAndClamp(evaporationRatio, 0.1);
+        lazyMatrix.scaleAndClamp(evaporationRatio, 0.1);
+        assertMatricesEqual(eagerMatrix, lazyMatrix);
+    }
+
+    @Test
+    public void testAntSystemEvaporation() {
+        PheromoneMatrix eagerMatrix = new ArrayPheromoneMatrix(new double[ROWS][COLUMNS]);
+        LazyEvaporationPheromoneMatrix lazyMatrix = new LazyEvaporationPheromoneMatrix(
+                new ArrayPheromoneMatrix(new double[ROWS][COLUMNS]));
+        eagerMatrix.fill(1.0);
+        lazyMatrix.fill(1.0);
+
+        // Enough iterations to reset the decay scalar a few times.
+        for (int iteration = 0; iteration < 5000; iteration++) {
+            eagerMatrix.scale(0.5);
+            lazyMatrix.scale(0.5);
+            eagerMatrix.set(1, 2, 1.0);
+            lazyMatrix.set(1, 2, 1.0);
+        }
+
+        assertMatricesEqual(eagerMatrix, lazyMatrix);
+        assertMatricesEqual(eagerMatrix, lazyMatrix.copy());
+    }
+
+    @Test
+    public void testEnvironmentWithLazyEvaporation() {
+        Map<String, Map<String, Integer>> distanceMap = TspHelper.getSampleProblem();
+        TspEnvironment environment = new TspEnvironment(distanceMap);
+        environment.enableLazyEvaporation();
+        assertTrue(environment.isLazyEvaporationEnabled());
+
+        TspConfiguration configuration = new TspConfiguration(environment);
+        AcoProblemSolver<String, TspEnvironment> solver = new AcoProblemSolver<>();
+        solver.initialize(environment, new AntColonyForTsp(configuration.getNumberOfAnts()), configuration);
+        solver.addDaemonActions(new StartPheromoneMatrix<>(), new PerformEvaporation<>(),
+                new OfflinePheromoneUpdate<>());
+        solver.getAntColony().addAntPolicies(new RandomNodeSelection<>());
+        solver.solveProblem();
+
+        List<List<String>> optimalRoutes = new BruteForceTspSolver().findOptimalRoutes(distanceMap);
+        double optimalCost = TspHelper.calculateDistance(optimalRoutes.get(0), distanceMap);
+        assertEquals(optimalCost, solver.getBestSolutionCost(), DELTA);
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testLazyEvaporationWithConcurrentUpdates() {
+        TspEnvironment environment = new TspEnvironment(TspHelper.getSampleProblem());
+        environment.setConcurrentPheromoneUpdates(true);
+        environment.enableLazyEvaporation();
+    }
+
+    private static void assertMatricesEqual(PheromoneMatrix expected, PheromoneMatrix actual) {
+        for (int row = 0; row < ROWS; row++) {
+            for (int column = 0; column < COLUMNS; column++) {
+                assertEquals(expected.get(row, column), actual.get(row, column), DELTA);
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package isula.aco;
+
+import integration.BruteForceTspSolver;
+import isula.aco.algorithms.antsystem.OfflinePheromoneUpdate;
+import isula.aco.algorithms.antsystem.PerformEvaporation;
+import isula.aco.algorithms.antsystem.RandomNodeSelection;
+import isula.aco.algorithms.antsystem.StartPheromoneMatrix;
+import isula.aco.exception.ConfigurationException;
+import org.junit.Test;
+import tsp.AntColonyForTsp;
+import tsp.TspConfiguration;
+import tsp.TspEnvironment;
+import tsp.TspHelper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelAcoProblemSolverTest {
+
+    private static final int NUMBER_OF_COLONIES = 3;
+    private static final double MARKER = 42.0;
+
+    @Test
+    public void testMigrationTopologies() {
+        assertArrayEquals(new int[]{2}, MigrationTopology.RING.getSourceIslands(0, NUMBER_OF_COLONIES, new Random()));
+        assertArrayEquals(new int[]{0}, MigrationTopology.RING.getSourceIslands(1, NUMBER_OF_COLONIES, new Random()));
+        assertArrayEquals(new int[]{0, 2},
+                MigrationTopology.FULLY_CONNECTED.getSourceIslands(1, NUMBER_OF_COLONIES, new Random()));
+        assertEquals(0, MigrationTopology.RING.getSourceIslands(0, 1, new Random()).length);
+
+        Random random = new Random(0);
+        for (int migration = 0; migration < 100; migration++) {
+            int[] sourceIslands = MigrationTopology.RANDOM.getSourceIslands(1, NUMBER_OF_COLONIES, random);
+            assertEquals(1, sourceIslands.length);
+            assertTrue(sourceIslands[0] != 1);
+        }
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testInvalidMigrationInterval() {
+        new ParallelAcoProblemSolver<String, TspEnvironment>().enableIslandModel(0, MigrationTopology.RING, 0.0);
+    }
+
+    @Test
+    public void testIslandModel() {
+        Map<String, Map<String, Integer>> distanceMap = TspHelper.getSampleProblem();
+        TspConfiguration configuration = new TspConfiguration(new TspEnvironment(distanceMap));
+
+        ParallelAcoProblemSolver<String, TspEnvironment> solver = new ParallelAcoProblemSolver<>();
+        solver.initialize(() -> new TspEnvironment(distanceMap),
+                config -> new AntColonyForTsp(config.getNumberOfAnts()), configuration, null, NUMBER_OF_COLONIES);
+        solver.enableIslandModel(10, MigrationTopology.RING, 0.5);
+
+        solveAndVerify(solver, distanceMap);
+    }
+
+    @Test
+    public void testMigrantReplacesWorstAnt() {
+        Map<String, Map<String, Integer>> distanceMap = TspHelper.getSampleProblem();
+        TspConfiguration configuration = new TspConfiguration(new TspEnvironment(distanceMap));
+
+        ParallelAcoProblemSolver<String, TspEnvironment> solver = new ParallelAcoProblemSolver<>();
+        solver.initialize(() -> new TspEnvironment(distanceMap),
+                config -> new AntColonyForTsp(config.getNumberOfAnts()), configuration, null, 2);
+        solver.enableIslandModel(1, MigrationTopology.RING, 0.0);
+        solver.prepareMigration();
+
+        List<String> optimalRoute = new BruteForceTspSolver().findOptimalRoutes(distanceMap).get(0);
+        List<String> worstRoute = List.of("Buenos Aires", "Denver", "Caracas", "Edmonton", "Houston");
+        List<String> otherRoute = List.of("Buenos Aires", "Caracas", "Denver", "Edmonton", "Houston");
+
+        // Island 1 finds the optimal route, and publishes it.
+        AntColony<String, TspEnvironment> sourceColony = solver.getAntColonies().get(1);
+        TspEnvironment sourceEnvironment = solver.getEnvironments().get(1);
+        sourceColony.getHive().forEach(ant -> ant.replaceSolution(optimalRoute, sourceEnvironment));
+        PerformanceTracker<String, TspEnvironment> sourceTracker = new PerformanceTracker<>();
+        sourceTracker.updateIterationPerformance(sourceColony, 0, Duration.ZERO, sourceEnvironment);
+        solver.afterIteration(sourceColony, sourceEnvironment, 0, sourceTracker);
+
+        // Island 0 receives it from its ring neighbour.
+        AntColony<String, TspEnvironment> targetColony = solver.getAntColonies().get(0);
+        TspEnvironment targetEnvironment = solver.getEnvironments().get(0);
+        List<Ant<String, TspEnvironment>> hive = targetColony.getHive();
+        hive.forEach(ant -> ant.replaceSolution(otherRoute, targetEnvironment));
+        PerformanceTracker<String, TspEnvironment> targetTracker = new PerformanceTracker<>();
+        targetTracker.updateIterationPerformance(targetColony, 0, Duration.ZERO, targetEnvironment);
+        solver.afterIteration(targetColony, targetEnvironment, 0, targetTracker);
+
+        Ant<String, TspEnvironment> worstAnt = hive.get(hive.size() - 1);
+        worstAnt.replaceSolution(worstRoute, targetEnvironment);
+        solver.afterSolutionConstruction(targetColony, targetEnvironment, 1);
+
+        assertEquals(optimalRoute, worstAnt.getSolution());
+        assertEquals(otherRoute, hive.get(0).getSolution());
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testSharedEnvironmentRejectsBlending() {
+        Map<String, Map<String, Integer>> distanceMap = TspHelper.getSampleProblem();
+        TspEnvironment sharedEnvironment = new TspEnvironment(distanceMap);
+
+        ParallelAcoProblemSolver<String, TspEnvironment> solver = new ParallelAcoProblemSolver<>();
+        solver.initializeWithSharedEnvironment(sharedEnvironment,
+                config -> new AntColonyForTsp(config.getNumberOfAnts()), new TspConfiguration(sharedEnvironment),
+                null, NUMBER_OF_COLONIES);
+        solver.enableIslandModel(10, MigrationTopology.RING, 0.5);
+        solver.prepareMigration();
+    }
+
+    @Test
+    public void testSharedEnvironment() {
+        Map<String, Map<String, Integer>> distanceMap = TspHelper.getSampleProblem();
+        TspEnvironment sharedEnvironment = new TspEnvironment(distanceMap);
+        TspConfiguration configuration = new TspConfiguration(sharedEnvironment);
+
+        ExecutorService constructionExecutor = Executors.newFixedThreadPool(2);
+        try {
+            ParallelAcoProblemSolver<String, TspEnvironment> solver = new ParallelAcoProblemSolver<>();
+            solver.initializeWithSharedEnvironment(sharedEnvironment,
+                    config -> new AntColonyForTsp(config.getNumberOfAnts()), configuration, null,
+                    NUMBER_OF_COLONIES);
+            solver.getAntColonies().forEach(antColony -> antColony.setConstructionExecutor(constructionExecutor));
+            assertTrue(sharedEnvironment.isConcurrentPheromoneUpdates());
+
+            solveAndVerify(solver, distanceMap);
+        } finally {
+            constructionExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSharedEnvironmentIsInitializedOnce() {
+        Map<String, Map<String, Integer>> distanceMap = TspHelper.getSampleProblem();
+        TspEnvironment sharedEnvironment = new TspEnvironment(distanceMap);
+        TspConfiguration configuration = new TspConfiguration(sharedEnvironment);
+
+        ParallelAcoProblemSolver<String, TspEnvironment> solver = new ParallelAcoProblemSolver<>();
+        solver.initializeWithSharedEnvironment(sharedEnvironment,
+                config -> new AntColonyForTsp(config.getNumberOfAnts()), configuration, null, NUMBER_OF_COLONIES);
+
+        // Each colony deposits a marker after its iterations: a later initialization would wipe the markers of the
+        // colonies that started earlier.
+        List<DaemonActionType> appliedActions = Collections.synchronizedList(new ArrayList<>());
+        solver.addDaemonAction(() -> new DaemonAction<>(DaemonActionType.INITIAL_CONFIGURATION) {
+            @Override
+            public void applyDaemonAction(ConfigurationProvider configurationProvider) {
+                appliedActions.add(getAcoPhase());
+                getEnvironment().populatePheromoneMatrix(configurationProvider.getInitialPheromoneValue());
+            }
+        });
+        solver.addDaemonAction(() -> new DaemonAction<>(DaemonActionType.AFTER_ITERATION_CONSTRUCTION) {
+            @Override
+            public void applyDaemonAction(ConfigurationProvider configurationProvider) {
+                appliedActions.add(getAcoPhase());
+                getEnvironment().updatePheromoneValue(0, getAntColony().getColonyIndex(), pheromone -> MARKER);
+            }
+        });
+        solver.getAntColonies().forEach(antColony -> antColony.addAntPolicies(RandomNodeSelection::new));
+
+        solver.solveProblem();
+
+        assertEquals(NUMBER_OF_COLONIES, Collections.frequency(appliedActions, DaemonActionType.INITIAL_CONFIGURATION));
+        assertEquals(NUMBER_OF_COLONIES - 1, appliedActions.lastIndexOf(DaemonActionType.INITIAL_CONFIGURATION));
+        for (int colonyIndex = 0; colonyIndex < NUMBER_OF_COLONIES; colonyIndex++) {
+            assertEquals(MARKER, sharedEnvironment.getPheromones().get(0, colonyIndex), 0.0);
+        }
+    }
+
+    private static void solveAndVerify(ParallelAcoProblemSolver<String, TspEnvironment> solver,
+                                       Map<String, Map<String, Integer>> distanceMap) {
+        solver.addDaemonAction(StartPheromoneMatrix::new);
+        solver.addDaemonAction(PerformEvaporation::new);
+        solver.addDaemonAction(OfflinePheromoneUpdate::new);
+        solver.getAntColonies().forEach(antColony -> antColony.addAntPolicies(RandomNodeSelection::new));
+
+        solver.solveProblem();
+
+        List<List<String>> optimalRoutes = new BruteForceTspSolver().findOptimalRoutes(distanceMap);
+        double optimalCost = TspHelper.calculateDistance(optimalRoutes.get(0), distanceMap);
+        assertEquals(optimalCost, solver.getBestSolutionCost(), 0.001);
+        assertArrayEquals(distanceMap.keySet().stream().sorted().toArray(),
+                solver.getBestSolution().stream().sorted().toArray());
+    }
+}
@@ -4,9 +4,18 @@ import isula.aco.exception.InvalidInputException;
 import isula.aco.test.BaseTestForIsula;
 import isula.aco.test.DummyFactory;
 import org.junit.Test;
+import smalltsp.SmallTspAnt;
+import smalltsp.SmallTspEnvironment;
 
 import javax.naming.ConfigurationException;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class PerformanceTrackerTest extends BaseTestForIsula {
 
@@ -23,4 +32,116 @@ public class PerformanceTrackerTest extends BaseTestForIsula {
         performanceTracker.getBestSolution().add(-1);
         performanceTracker.getBestSolution().clear();
     }
+
+    @Test
+    public void testBestSolutionAsString() throws ConfigurationException {
+        PerformanceTracker<Integer, Environment> performanceTracker = getProblemSolver().kickOffColony(getAntColony(),
+                this.getEnvironment(), Instant.now());
+
+        String expectedString = getAntColony().getHive().get(0)
+                .getSolutionAsString(performanceTracker.getBestSolution());
+        assertEquals(expectedString, performanceTracker.getBestSolutionAsString());
+        assertTrue(performanceTracker.isStateValidation());
+    }
+
+    @Test
+    public void testBestSolutionAsStringIsLazy() {
+        SmallTspEnvironment environment = new SmallTspEnvironment();
+        environment.setProblemRepresentation(SmallTspEnvironment.SAMPLE_PROBLEM);
+
+        AtomicInteger formattedSolutions = new AtomicInteger();
+        AntColony<Integer, SmallTspEnvironment> antColony = new AntColony<>(1) {
+            @Override
+            protected Ant<Integer, SmallTspEnvironment> createAnt(SmallTspEnvironment environment) {
+                return new SmallTspAnt() {
+                    @Override
+                    public boolean isSolutionReady(SmallTspEnvironment environment) {
+                        return true;
+                    }
+
+                    @Override
+                    public String getSolutionAsString(List<Integer> solution) {
+                        formattedSolutions.incrementAndGet();
+                        return "Route: " + solution;
+                    }
+                };
+            }
+        };
+        antColony.buildColony(environment);
+        antColony.getHive().get(0).setSolution(new ArrayList<>(List.of(0, 1, 2, 3, 4)));
+
+        PerformanceTracker<Integer, SmallTspEnvironment> performanceTracker = new PerformanceTracker<>();
+        performanceTracker.updateIterationPerformance(antColony, 0, Duration.ZERO, environment);
+        antColony.clearAntSolutions();
+        assertEquals(0, formattedSolutions.get());
+
+        assertEquals("Route: [0, 1, 2, 3, 4]", performanceTracker.getBestSolutionAsString());
+        assertEquals("Route: [0, 1, 2, 3, 4]", performanceTracker.getBestSolutionAsString());
+        assertEquals(1, formattedSolutions.get());
+    }
+
+    @Test
+    public void testBestSolutionAsStringFromOverride() {
+        SmallTspEnvironment environment = new SmallTspEnvironment();
+        environment.setProblemRepresentation(SmallTspEnvironment.SAMPLE_PROBLEM);
+
+        AntColony<Integer, SmallTspEnvironment> antColony = new AntColony<>(1) {
+            @Override
+            protected Ant<Integer, SmallTspEnvironment> createAnt(SmallTspEnvironment environment) {
+                return new SmallTspAnt() {
+                    @Override
+                    public boolean isSolutionReady(SmallTspEnvironment environment) {
+                        return true;
+                    }
+
+                    @Override
+                    public String getSolutionAsString() {
+                        return "Route: " + getSolution();
+                    }
+                };
+            }
+        };
+        antColony.buildColony(environment);
+        antColony.getHive().get(0).setSolution(new ArrayList<>(List.of(0, 1, 2, 3, 4)));
+
+        PerformanceTracker<Integer, SmallTspEnvironment> performanceTracker = new PerformanceTracker<>();
+        performanceTracker.updateIterationPerformance(antColony, 0, Duration.ZERO, environment);
+        antColony.clearAntSolutions();
+
+        assertEquals("Route: [0, 1, 2, 3, 4]", performanceTracker.getBestSolutionAsString());
+    }
+
+    @Test
+    public void testSolutionEvaluationsAfterRestore() {
+        SmallTspEnvironment environment = new SmallTspEnvironment();
+        environment.setProblemRepresentation(SmallTspEnvironment.SAMPLE_PROBLEM);
+
+        AntColony<Integer, SmallTspEnvironment> antColony = new AntColony<>(1) {
+            @Override
+            protected Ant<Integer, SmallTspEnvironment> createAnt(SmallTspEnvironment environment) {
+                return new SmallTspAnt() {
+                    @Override
+                    public boolean isSolutionReady(SmallTspEnvironment environment) {
+                        return true;
+                    }
+                };
+            }
+        };
+        antColony.buildColony(environment);
+        antColony.getHive().get(0).setSolution(new ArrayList<>(List.of(0, 1, 2, 3, 4)));
+
+        PerformanceTracker<Integer, SmallTspEnvironment> performanceTracker = new PerformanceTracker<>();
+        performanceTracker.restore(null, 0.0, null, 10, 45, 0);
+        assertEquals(45, performanceTracker.getSolutionEvaluations());
+
+        performanceTracker.updateIterationPerformance(antColony, 1, Duration.ZERO, environment);
+        long antEvaluations = antColony.getHive().get(0).getSolutionEvaluations();
+        assertTrue(antEvaluations > 0);
+        assertEquals(45 + antEvaluations, performanceTracker.getSolutionEvaluations());
+        assertEquals(11, performanceTracker.getGeneratedSolutions());
+
+        PerformanceMetrics metrics = performanceTracker.getMetrics();
+        assertEquals(1, metrics.getGeneratedSolutions());
+        assertEquals(antEvaluations, metrics.getSolutionEvaluations());
+    }
 }
\ No newline at end of file
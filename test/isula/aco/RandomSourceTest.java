@@ -0,0 +1,79 @@
+package isula.aco;
+
+import isula.aco.algorithms.antsystem.OfflinePheromoneUpdate;
+import isula.aco.algorithms.antsystem.PerformEvaporation;
+import isula.aco.algorithms.antsystem.RandomNodeSelection;
+import isula.aco.algorithms.antsystem.StartPheromoneMatrix;
+import org.junit.Test;
+import tsp.AntColonyForTsp;
+import tsp.TspConfiguration;
+import tsp.TspEnvironment;
+import tsp.TspHelper;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RandomSourceTest {
+
+    @Test
+    public void testStreams() {
+        RandomSource randomSource = new RandomSource(42);
+
+        assertEquals(randomSource.getAntStream(1, 2, 3).nextLong(),
+                new RandomSource(42).getAntStream(1, 2, 3).nextLong());
+
+        long streamValue = randomSource.getAntStream(1, 2, 3).nextLong();
+        assertTrue(streamValue != randomSource.getAntStream(1, 2, 4).nextLong());
+        assertTrue(streamValue != randomSource.getAntStream(1, 3, 3).nextLong());
+        assertTrue(streamValue != randomSource.getAntStream(2, 2, 3).nextLong());
+        assertTrue(streamValue != randomSource.getColonyStream(1, 2).nextLong());
+        assertTrue(streamValue != new RandomSource(43).getAntStream(1, 2, 3).nextLong());
+    }
+
+    @Test
+    public void testReproducibleExecution() {
+        Map<String, Map<String, Integer>> distanceMap = TspHelper.getSampleProblem();
+
+        AcoProblemSolver<String, TspEnvironment> solver = solveWithSeed(distanceMap, 42, null);
+        AcoProblemSolver<String, TspEnvironment> sameSeedSolver = solveWithSeed(distanceMap, 42, null);
+        assertEquals(solver.getBestSolution(), sameSeedSolver.getBestSolution());
+        assertEquals(Arrays.deepToString(solver.getEnvironment().getPheromoneMatrix()),
+                Arrays.deepToString(sameSeedSolver.getEnvironment().getPheromoneMatrix()));
+
+        // The number of threads building solutions doesn't change the results.
+        ExecutorService constructionExecutor = Executors.newFixedThreadPool(3);
+        try {
+            AcoProblemSolver<String, TspEnvironment> parallelSolver = solveWithSeed(distanceMap, 42,
+                    constructionExecutor);
+            assertEquals(solver.getBestSolution(), parallelSolver.getBestSolution());
+            assertEquals(Arrays.deepToString(solver.getEnvironment().getPheromoneMatrix()),
+                    Arrays.deepToString(parallelSolver.getEnvironment().getPheromoneMatrix()));
+        } finally {
+            constructionExecutor.shutdown();
+        }
+    }
+
+    private static AcoProblemSolver<String, TspEnvironment> solveWithSeed(
+            Map<String, Map<String, Integer>> distanceMap, long seed, ExecutorService constructionExecutor) {
+        TspEnvironment environment = new TspEnvironment(distanceMap);
+        TspConfiguration configuration = new TspConfiguration(environment);
+
+        AcoProblemSolver<String, TspEnvironment> solver = new AcoProblemSolver<>();
+        solver.initialize(environment, new AntColonyForTsp(configuration.getNumberOfAnts()), configuration);
+        solver.addDaemonActions(new StartPheromoneMatrix<>(), new PerformEvaporation<>(),
+                new OfflinePheromoneUpdate<>());
+        solver.getAntColony().addAntPolicies(RandomNodeSelection::new);
+        if (constructionExecutor != null) {
+            solver.getAntColony().setConstructionExecutor(constructionExecutor);
+        }
+        solver.setRandomSource(new RandomSource(seed));
+
+        solver.solveProblem();
+        return solver;
+    }
+}
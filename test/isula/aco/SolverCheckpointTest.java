@@ -0,0 +1,188 @@
+package isula.aco;
+
+import isula.aco.algorithms.antsystem.OfflinePheromoneUpdate;
+import isula.aco.algorithms.antsystem.PerformEvaporation;
+import isula.aco.algorithms.antsystem.RandomNodeSelection;
+import isula.aco.algorithms.antsystem.StartPheromoneMatrix;
+import isula.aco.exception.ConfigurationException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import tsp.AntColonyForTsp;
+import tsp.AntForTsp;
+import tsp.TspConfiguration;
+import tsp.TspEnvironment;
+import tsp.TspHelper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SolverCheckpointTest {
+
+    private static final double DELTA = 0.000001;
+
+    private Path checkpointDirectory;
+
+    @Before
+    public void setUp() throws IOException {
+        checkpointDirectory = Files.createTempDirectory("isula-checkpoint");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (var files = Files.walk(checkpointDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        double[][] pheromoneValues = {{0.1, 0.2, 0.3}, {1.1, 1.2, 1.3}, {2.1, 2.2, 2.3}};
+        PheromoneMatrix pheromones = new FlatPheromoneMatrix(pheromoneValues);
+
+        TspEnvironment environment = new TspEnvironment(TspHelper.getSampleProblem());
+        List<String> cities = environment.getAllCities();
+        List<String> bestSolution = List.of(cities.get(0), cities.get(2), cities.get(1));
+
+        PerformanceTracker<String, TspEnvironment> performanceTracker = new PerformanceTracker<>();
+        performanceTracker.restore(bestSolution, 42.0, "solution", 30, 45, 7);
+
+        Path checkpointFile = checkpointDirectory.resolve("checkpoint");
+        SolverCheckpoint.write(checkpointFile, 2, 10, performanceTracker, environment, pheromones,
+                new RandomSource(99));
+
+        SolverCheckpoint checkpoint = SolverCheckpoint.read(checkpointFile);
+        assertEquals(2, checkpoint.getColonyIndex());
+        assertEquals(10, checkpoint.getCompletedIterations());
+        assertEquals(42.0, checkpoint.getBestSolutionCost(), DELTA);
+        assertEquals(Long.valueOf(99), checkpoint.getSeed());
+
+        PheromoneMatrix restoredPheromones = new ArrayPheromoneMatrix(new double[3][3]);
+        checkpoint.restorePheromones(restoredPheromones);
+        assertEquals(Arrays.deepToString(pheromoneValues), Arrays.deepToString(restoredPheromones.toArray()));
+
+        PerformanceTracker<String, TspEnvironment> restoredTracker = new PerformanceTracker<>();
+        checkpoint.restorePerformance(restoredTracker, environment, new AntForTsp(cities));
+        assertEquals(bestSolution, restoredTracker.getBestSolution());
+        assertEquals(30, restoredTracker.getGeneratedSolutions());
+        assertEquals(45, restoredTracker.getSolutionEvaluations());
+        assertEquals(7, restoredTracker.getLastImprovementIteration());
+    }
+
+    @Test
+    public void testPheromonesLargerThanBuffer() throws IOException {
+        int components = 300;
+        PheromoneMatrix pheromones = new FlatPheromoneMatrix(components, components);
+        pheromones.transform(value -> Math.random());
+
+        Path checkpointFile = checkpointDirectory.resolve("dense-checkpoint");
+        SolverCheckpoint.write(checkpointFile, 0, 1, new PerformanceTracker<Integer, Environment>(),
+                ComponentIndexer.forIntegers(components), pheromones, null);
+
+        PheromoneMatrix restoredPheromones = new FlatPheromoneMatrix(components, components);
+        SolverCheckpoint.read(checkpointFile).restorePheromones(restoredPheromones);
+        assertEquals(Arrays.deepToString(pheromones.toArray()), Arrays.deepToString(restoredPheromones.toArray()));
+    }
+
+    @Test
+    public void testSparsePheromones() throws IOException {
+        int components = 100_000;
+        SparsePheromoneMatrix pheromones = new SparsePheromoneMatrix(components, components, 0.5);
+        pheromones.set(0, 1, 2.0);
+        pheromones.set(components - 1, 42, 3.0);
+
+        Path checkpointFile = checkpointDirectory.resolve("sparse-checkpoint");
+        SolverCheckpoint.write(checkpointFile, 0, 1, new PerformanceTracker<Integer, Environment>(),
+                ComponentIndexer.forIntegers(components), pheromones, null);
+        SolverCheckpoint.write(checkpointFile, 0, 2, new PerformanceTracker<Integer, Environment>(),
+                ComponentIndexer.forIntegers(components), pheromones, null);
+
+        // Only the default value and the stored cells are written.
+        assertTrue(Files.size(checkpointFile) < 1024);
+        assertTrue(Files.notExists(checkpointDirectory.resolve("sparse-checkpoint.tmp")));
+
+        SolverCheckpoint checkpoint = SolverCheckpoint.read(checkpointFile);
+        assertEquals(2, checkpoint.getCompletedIterations());
+
+        SparsePheromoneMatrix restoredPheromones = new SparsePheromoneMatrix(components, components, 0.0);
+        restoredPheromones.set(3, 3, 9.0);
+        checkpoint.restorePheromones(restoredPheromones);
+        assertEquals(2, restoredPheromones.getStoredEntries());
+        assertEquals(0.5, restoredPheromones.getDefaultValue(), DELTA);
+        assertEquals(0.5, restoredPheromones.get(3, 3), DELTA);
+        assertEquals(2.0, restoredPheromones.get(0, 1), DELTA);
+        assertEquals(3.0, restoredPheromones.get(components - 1, 42), DELTA);
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testIncompatiblePheromoneMatrix() throws IOException {
+        PerformanceTracker<Integer, TspEnvironment> performanceTracker = new PerformanceTracker<>();
+        Path checkpointFile = checkpointDirectory.resolve("checkpoint");
+        SolverCheckpoint.write(checkpointFile, 0, 1, performanceTracker, ComponentIndexer.forIntegers(3),
+                new FlatPheromoneMatrix(3, 3), null);
+
+        SolverCheckpoint.read(checkpointFile).restorePheromones(new FlatPheromoneMatrix(4, 4));
+    }
+
+    @Test
+    public void testResumeSolver() throws IOException {
+        Map<String, Map<String, Integer>> distanceMap = TspHelper.getSampleProblem();
+        Path checkpointFile = checkpointDirectory.resolve("tsp-checkpoint");
+
+        AcoProblemSolver<String, TspEnvironment> solver = createSolver(new TspEnvironment(distanceMap));
+        solver.enableCheckpoints(checkpointFile, 100);
+        solver.solveProblem();
+
+        SolverCheckpoint checkpoint = SolverCheckpoint.read(checkpointFile);
+        assertEquals(solver.getConfigurationProvider().getNumberOfIterations(), checkpoint.getCompletedIterations());
+        assertEquals(solver.getBestSolutionCost(), checkpoint.getBestSolutionCost(), DELTA);
+
+        // All iterations were completed, so the resumed solver only restores the checkpoint.
+        AcoProblemSolver<String, TspEnvironment> resumedSolver = createSolver(new TspEnvironment(distanceMap));
+        resumedSolver.resumeFromCheckpoint(checkpointFile);
+        resumedSolver.solveProblem();
+
+        assertEquals(solver.getBestSolutionCost(), resumedSolver.getBestSolutionCost(), DELTA);
+        assertEquals(solver.getBestSolution(), resumedSolver.getBestSolution());
+        assertEquals(Arrays.deepToString(solver.getEnvironment().getPheromoneMatrix()),
+                Arrays.deepToString(resumedSolver.getEnvironment().getPheromoneMatrix()));
+    }
+
+    @Test
+    public void testParallelCheckpoints() {
+        Map<String, Map<String, Integer>> distanceMap = TspHelper.getSampleProblem();
+        TspConfiguration configuration = new TspConfiguration(new TspEnvironment(distanceMap));
+        Path checkpointFile = checkpointDirectory.resolve("parallel-checkpoint");
+
+        ParallelAcoProblemSolver<String, TspEnvironment> solver = new ParallelAcoProblemSolver<>();
+        solver.initialize(() -> new TspEnvironment(distanceMap),
+                config -> new AntColonyForTsp(config.getNumberOfAnts()), configuration, null, 2);
+        solver.addDaemonAction(StartPheromoneMatrix::new);
+        solver.addDaemonAction(PerformEvaporation::new);
+        solver.addDaemonAction(OfflinePheromoneUpdate::new);
+        solver.getAntColonies().forEach(antColony -> antColony.addAntPolicies(RandomNodeSelection::new));
+        solver.enableCheckpoints(checkpointFile, 500);
+        solver.solveProblem();
+
+        assertTrue(Files.exists(checkpointDirectory.resolve("parallel-checkpoint.0")));
+        assertTrue(Files.exists(checkpointDirectory.resolve("parallel-checkpoint.1")));
+    }
+
+    private static AcoProblemSolver<String, TspEnvironment> createSolver(TspEnvironment environment) {
+        TspConfiguration configuration = new TspConfiguration(environment);
+        AcoProblemSolver<String, TspEnvironment> solver = new AcoProblemSolver<>();
+        solver.initialize(environment, new AntColonyForTsp(configuration.getNumberOfAnts()), configuration);
+        solver.addDaemonActions(new StartPheromoneMatrix<>(), new PerformEvaporation<>(),
+                new OfflinePheromoneUpdate<>());
+        solver.getAntColony().addAntPolicies(new RandomNodeSelection<>());
+        return solver;
+    }
+}
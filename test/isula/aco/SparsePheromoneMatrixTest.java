@@ -0,0 +1,114 @@
+package isula.aco;
+
+import integration.BruteForceTspSolver;
+import isula.aco.algorithms.antsystem.OfflinePheromoneUpdate;
+import isula.aco.algorithms.antsystem.PerformEvaporation;
+import isula.aco.algorithms.antsystem.RandomNodeSelection;
+import isula.aco.algorithms.antsystem.StartPheromoneMatrix;
+import isula.aco.exception.ConfigurationException;
+import org.junit.Test;
+import tsp.AntColonyForTsp;
+import tsp.TspConfiguration;
+import tsp.TspEnvironment;
+import tsp.TspHelper;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class SparsePheromoneMatrixTest {
+
+    private static final double DELTA = 0.000001;
+
+    @Test
+    public void testDefaultValue() {
+        SparsePheromoneMatrix pheromoneMatrix = new SparsePheromoneMatrix(100_000, 100_000, 0.5);
+        assertEquals(0.5, pheromoneMatrix.get(99_999, 12), DELTA);
+
+        pheromoneMatrix.set(99_999, 12, 2.0);
+        pheromoneMatrix.set(3, 4, 0.5);
+        assertEquals(2.0, pheromoneMatrix.get(99_999, 12), DELTA);
+        assertEquals(0.5, pheromoneMatrix.get(12, 99_999), DELTA);
+        assertEquals(1, pheromoneMatrix.getStoredEntries());
+
+        pheromoneMatrix.update(3, 4, value -> value + 1.0);
+        assertEquals(1.5, pheromoneMatrix.get(3, 4), DELTA);
+        assertEquals(2, pheromoneMatrix.getStoredEntries());
+
+        pheromoneMatrix.fill(1.0);
+        assertEquals(1.0, pheromoneMatrix.get(99_999, 12), DELTA);
+        assertEquals(0, pheromoneMatrix.getStoredEntries());
+    }
+
+    @Test
+    public void testMatchesDenseMatrix() {
+        int rows = 40;
+        int columns = 30;
+        PheromoneMatrix denseMatrix = new FlatPheromoneMatrix(rows, columns);
+        SparsePheromoneMatrix sparseMatrix = new SparsePheromoneMatrix(rows, columns, 0.0);
+        denseMatrix.fill(1.0);
+        sparseMatrix.fill(1.0);
+
+        Random random = new Random(11);
+        for (int iteration = 0; iteration < 100; iteration++) {
+            for (int deposit = 0; deposit < 20; deposit++) {
+                int row = random.nextInt(rows);
+                int column = random.nextInt(columns);
+                double amount = random.nextDouble();
+                denseMatrix.update(row, column, value -> value + amount);
+                sparseMatrix.update(row, column, value -> value + amount);
+            }
+
+            denseMatrix.scaleAndClamp(0.7, 0.2);
+            sparseMatrix.scaleAndClamp(0.7, 0.2);
+        }
+        denseMatrix.add(0.1);
+        sparseMatrix.add(0.1);
+
+        assertEquals(Arrays.deepToString(denseMatrix.toArray()), Arrays.deepToString(sparseMatrix.toArray()));
+        assertEquals(Arrays.deepToString(denseMatrix.toArray()),
+                Arrays.deepToString(sparseMatrix.copy().toArray()));
+
+        // Cells clamped to the minimum have the default value, so they are not stored anymore.
+        assertEquals(0.3, sparseMatrix.getDefaultValue(), DELTA);
+        int storedCells = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                if (denseMatrix.get(row, column) != sparseMatrix.getDefaultValue()) {
+                    storedCells++;
+                }
+            }
+        }
+        assertEquals(storedCells, sparseMatrix.getStoredEntries());
+    }
+
+    @Test
+    public void testEnvironmentWithSparseStorage() {
+        Map<String, Map<String, Integer>> distanceMap = TspHelper.getSampleProblem();
+        TspEnvironment environment = new TspEnvironment(distanceMap);
+        int numberOfCities = environment.getNumberOfComponents();
+        environment.setPheromones(new SparsePheromoneMatrix(numberOfCities, numberOfCities, 0.0));
+
+        TspConfiguration configuration = new TspConfiguration(environment);
+        AcoProblemSolver<String, TspEnvironment> solver = new AcoProblemSolver<>();
+        solver.initialize(environment, new AntColonyForTsp(configuration.getNumberOfAnts()), configuration);
+        solver.addDaemonActions(new StartPheromoneMatrix<>(), new PerformEvaporation<>(),
+                new OfflinePheromoneUpdate<>());
+        solver.getAntColony().addAntPolicies(new RandomNodeSelection<>());
+        solver.solveProblem();
+
+        List<List<String>> optimalRoutes = new BruteForceTspSolver().findOptimalRoutes(distanceMap);
+        double optimalCost = TspHelper.calculateDistance(optimalRoutes.get(0), distanceMap);
+        assertEquals(optimalCost, solver.getBestSolutionCost(), DELTA);
+    }
+
+    @Test(expected = ConfigurationException.class)
+    public void testSparseStorageWithConcurrentUpdates() {
+        TspEnvironment environment = new TspEnvironment(TspHelper.getSampleProblem());
+        environment.setConcurrentPheromoneUpdates(true);
+        environment.setPheromones(new SparsePheromoneMatrix(10, 10, 0.0));
+    }
+}
@@ -0,0 +1,67 @@
+package isula.aco;
+
+import isula.aco.algorithms.antsystem.OfflinePheromoneUpdate;
+import isula.aco.algorithms.antsystem.PerformEvaporation;
+import isula.aco.algorithms.antsystem.RandomNodeSelection;
+import isula.aco.algorithms.antsystem.StartPheromoneMatrix;
+import org.junit.After;
+import org.junit.Test;
+import tsp.AntColonyForTsp;
+import tsp.TspConfiguration;
+import tsp.TspEnvironment;
+import tsp.TspHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TraceTest {
+
+    @After
+    public void tearDown() {
+        Trace.setSink(TraceSink.logging());
+    }
+
+    @Test
+    public void testDisabledSink() {
+        Trace.setSink(null);
+
+        assertFalse(Trace.isEnabled(AntColony.class));
+        Trace.trace(AntColony.class, () -> {
+            throw new IllegalStateException("Messages shouldn't be built when the sink is disabled.");
+        });
+    }
+
+    @Test
+    public void testCustomSink() {
+        List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        Trace.setSink(new TraceSink() {
+
+            @Override
+            public boolean isEnabled(Class<?> source) {
+                return source.equals(OfflinePheromoneUpdate.class);
+            }
+
+            @Override
+            public void trace(Class<?> source, String message) {
+                messages.add(message);
+            }
+        });
+
+        TspEnvironment environment = new TspEnvironment(TspHelper.getSampleProblem());
+        TspConfiguration configuration = new TspConfiguration(environment);
+        AcoProblemSolver<String, TspEnvironment> solver = new AcoProblemSolver<>();
+        solver.initialize(environment, new AntColonyForTsp(configuration.getNumberOfAnts()), configuration);
+        solver.addDaemonActions(new StartPheromoneMatrix<>(), new PerformEvaporation<>(),
+                new OfflinePheromoneUpdate<>());
+        solver.getAntColony().addAntPolicies(new RandomNodeSelection<>());
+        solver.solveProblem();
+
+        assertFalse(messages.isEmpty());
+        assertTrue(messages.stream().allMatch(message -> message.startsWith("Performing offline pheromone update")
+                || message.startsWith("Pheromone matrix after update")));
+    }
+}
@@ -0,0 +1,45 @@
+package isula.aco.algorithms;
+
+import isula.aco.exception.SolutionConstructionException;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+public class RouletteWheelSamplerTest {
+
+    private final RouletteWheelSampler sampler = new RouletteWheelSampler();
+
+    @Test
+    public void testSampleWithLinearScan() {
+        double[] weights = {0.0, 1.0, 0.0, 3.0};
+
+        assertEquals(1, sampler.sample(weights, weights.length, 0.0));
+        assertEquals(1, sampler.sample(weights, weights.length, 0.24));
+        assertEquals(3, sampler.sample(weights, weights.length, 0.25));
+        assertEquals(3, sampler.sample(weights, weights.length, 0.99));
+    }
+
+    @Test
+    public void testSampleWithBinarySearch() {
+        double[] weights = new double[40];
+        Arrays.fill(weights, 0, 20, 1.0);
+
+        assertEquals(0, sampler.sample(weights, weights.length, 0.0));
+        assertEquals(10, sampler.sample(weights, weights.length, 0.5));
+        assertEquals(19, sampler.sample(weights, weights.length, 0.999));
+    }
+
+    @Test
+    public void testSampleOnlyConsidersNumberOfWeights() {
+        double[] weights = {1.0, 1.0, 100.0};
+
+        assertEquals(1, sampler.sample(weights, 2, 0.75));
+    }
+
+    @Test(expected = SolutionConstructionException.class)
+    public void testSampleWithoutPositiveWeights() {
+        sampler.sample(new double[]{0.0, 0.0}, 2, 0.5);
+    }
+}
@@ -6,14 +6,18 @@ import smalltsp.SmallTspAnt;
 import smalltsp.SmallTspConfiguration;
 import smalltsp.SmallTspEnvironment;
 
+import java.util.List;
 import java.util.Map;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
 import static smalltsp.SmallTspEnvironment.SAMPLE_PROBLEM;
 
 public class RandomNodeSelectionTest {
 
+    // The deprecated map-based methods are still supported.
     @Test
+    @SuppressWarnings("deprecation")
     public void getComponentsWithProbabilities() {
 
         SmallTspAnt ant = new SmallTspAnt();
@@ -50,4 +54,109 @@ public class RandomNodeSelectionTest {
 
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void overriddenComponentsWithProbabilities() {
+
+        SmallTspAnt ant = new SmallTspAnt();
+
+        RandomNodeSelection<Integer, SmallTspEnvironment> antPolicy = new RandomNodeSelection<>() {
+            @Override
+            public Map<Integer, Double> getComponentsWithProbabilities(SmallTspEnvironment environment,
+                                                                      ConfigurationProvider configurationProvider) {
+                return Map.of(4, 1.0);
+            }
+        };
+        antPolicy.setAnt(ant);
+
+        SmallTspEnvironment environment = new SmallTspEnvironment();
+        environment.setProblemRepresentation(SAMPLE_PROBLEM);
+
+        ConfigurationProvider configuration = new SmallTspConfiguration();
+
+        StartPheromoneMatrix<Integer, SmallTspEnvironment> daemonAction = new StartPheromoneMatrix<>();
+        daemonAction.setEnvironment(environment);
+        daemonAction.applyDaemonAction(configuration);
+
+        ant.visitNode(0, environment);
+        antPolicy.applyPolicy(environment, configuration);
+
+        assertEquals(List.of(0, 4), ant.getSolution());
+    }
+
+    @Test
+    public void computeNeighbourhoodProbabilities() {
+
+        SmallTspAnt ant = new SmallTspAnt();
+
+        RandomNodeSelection<Integer, SmallTspEnvironment> antPolicy = new RandomNodeSelection<>();
+        antPolicy.setAnt(ant);
+
+        SmallTspEnvironment environment = new SmallTspEnvironment();
+        environment.setProblemRepresentation(SAMPLE_PROBLEM);
+
+        ConfigurationProvider configuration = new SmallTspConfiguration();
+
+        StartPheromoneMatrix<Integer, SmallTspEnvironment> daemonAction = new StartPheromoneMatrix<>();
+        daemonAction.setEnvironment(environment);
+        daemonAction.applyDaemonAction(configuration);
+
+        ant.visitNode(0, environment);
+        ant.visitNode(3, environment);
+        List<Integer> neighbourhood = ant.getNeighbourhood(environment);
+        int feasibleComponents = antPolicy.computeNeighbourhoodProbabilities(environment, configuration,
+                neighbourhood);
+
+        assertEquals(3, feasibleComponents);
+
+        double[] probabilities = antPolicy.getProbabilities();
+        double deltaForComparison = 0.001;
+        assertEquals(0.0, probabilities[0], deltaForComparison);
+        assertEquals(0.2147, probabilities[1], deltaForComparison);
+        assertEquals(0.5965, probabilities[2], deltaForComparison);
+        assertEquals(0.0, probabilities[3], deltaForComparison);
+        assertEquals(0.1887, probabilities[4], deltaForComparison);
+
+        Integer nextComponent = antPolicy.sampleNextComponent(environment, configuration, neighbourhood,
+                feasibleComponents);
+        assertTrue(List.of(1, 2, 4).contains(nextComponent));
+    }
+
+    @Test
+    public void computeNeighbourhoodProbabilitiesWithChoiceInformation() {
+
+        SmallTspAnt ant = new SmallTspAnt();
+
+        RandomNodeSelection<Integer, SmallTspEnvironment> antPolicy = new RandomNodeSelection<>();
+        antPolicy.setAnt(ant);
+
+        SmallTspEnvironment environment = new SmallTspEnvironment();
+        environment.setProblemRepresentation(SAMPLE_PROBLEM);
+
+        double[][] heuristicMatrix = new double[SAMPLE_PROBLEM.length][SAMPLE_PROBLEM.length];
+        for (int i = 0; i < SAMPLE_PROBLEM.length; i++) {
+            for (int j = 0; j < SAMPLE_PROBLEM.length; j++) {
+                heuristicMatrix[i][j] = i == j ? 0.0 : 1.0 / SAMPLE_PROBLEM[i][j];
+            }
+        }
+        environment.setHeuristicMatrix(heuristicMatrix);
+
+        ConfigurationProvider configuration = new SmallTspConfiguration();
+
+        StartPheromoneMatrix<Integer, SmallTspEnvironment> daemonAction = new StartPheromoneMatrix<>();
+        daemonAction.setEnvironment(environment);
+        daemonAction.applyDaemonAction(configuration);
+
+        ant.visitNode(0, environment);
+        List<Integer> neighbourhood = ant.getNeighbourhood(environment);
+        antPolicy.computeNeighbourhoodProbabilities(environment, configuration, neighbourhood);
+
+        double[] probabilities = antPolicy.getProbabilities();
+        double deltaForComparison = 0.001;
+        assertEquals(0.3299, probabilities[1], deltaForComparison);
+        assertEquals(0.2291, probabilities[2], deltaForComparison);
+        assertEquals(0.2727, probabilities[3], deltaForComparison);
+        assertEquals(0.1683, probabilities[4], deltaForComparison);
+    }
+}
@@ -0,0 +1,94 @@
+package isula.aco.algorithms.candidatelist;
+
+import isula.aco.ComponentIndexer;
+import isula.aco.ConfigurationProvider;
+import isula.aco.algorithms.antsystem.StartPheromoneMatrix;
+import org.junit.Before;
+import org.junit.Test;
+import smalltsp.SmallTspAnt;
+import smalltsp.SmallTspConfiguration;
+import smalltsp.SmallTspEnvironment;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static smalltsp.SmallTspEnvironment.SAMPLE_PROBLEM;
+
+public class CandidateListNodeSelectionTest {
+
+    private static final int NUMBER_OF_CANDIDATES = 2;
+
+    private SmallTspAnt ant;
+    private CandidateListEnvironment environment;
+    private CandidateListNodeSelection<Integer, SmallTspEnvironment> antPolicy;
+    private ConfigurationProvider configuration;
+
+    @Before
+    public void setUp() {
+        CandidateList candidateList = CandidateList.fromLowestCosts(SAMPLE_PROBLEM.length, NUMBER_OF_CANDIDATES,
+                (component, candidate) -> SAMPLE_PROBLEM[component][candidate]);
+
+        SmallTspEnvironmentWithCandidates environmentWithCandidates = new SmallTspEnvironmentWithCandidates(
+                candidateList);
+        environmentWithCandidates.setProblemRepresentation(SAMPLE_PROBLEM);
+        this.environment = environmentWithCandidates;
+
+        this.configuration = new SmallTspConfiguration();
+        StartPheromoneMatrix<Integer, SmallTspEnvironment> daemonAction = new StartPheromoneMatrix<>();
+        daemonAction.setEnvironment(environmentWithCandidates);
+        daemonAction.applyDaemonAction(configuration);
+
+        this.ant = new SmallTspAnt();
+        this.ant.setComponentIndexer(ComponentIndexer.forIntegers(SAMPLE_PROBLEM.length));
+
+        this.antPolicy = new CandidateListNodeSelection<>();
+        this.antPolicy.setAnt(ant);
+    }
+
+    @Test
+    public void testCandidateList() {
+        CandidateList candidateList = environment.getCandidateList();
+
+        assertEquals(1, candidateList.getCandidate(0, 0));
+        assertEquals(3, candidateList.getCandidate(0, 1));
+        assertEquals(4, candidateList.getCandidate(1, 0));
+        assertEquals(0, candidateList.getCandidate(1, 1));
+
+        assertEquals(1, candidateList.getCandidateRank(0, 3));
+        assertEquals(-1, candidateList.getCandidateRank(0, 2));
+    }
+
+    @Test
+    public void testApplyPolicy() {
+        SmallTspEnvironment smallTspEnvironment = (SmallTspEnvironment) environment;
+
+        ant.visitNode(0, smallTspEnvironment);
+        antPolicy.applyPolicy(smallTspEnvironment, configuration);
+        assertTrue(List.of(1, 3).contains(ant.getSolution().get(1)));
+
+        ant.clear();
+        ant.visitNode(0, smallTspEnvironment);
+        ant.visitNode(1, smallTspEnvironment);
+        antPolicy.applyPolicy(smallTspEnvironment, configuration);
+        assertEquals(4, (int) ant.getSolution().get(2));
+
+        antPolicy.applyPolicy(smallTspEnvironment, configuration);
+        assertTrue(List.of(2, 3).contains(ant.getSolution().get(3)));
+    }
+
+    private static class SmallTspEnvironmentWithCandidates extends SmallTspEnvironment
+            implements CandidateListEnvironment {
+
+        private final CandidateList candidateList;
+
+        SmallTspEnvironmentWithCandidates(CandidateList candidateList) {
+            this.candidateList = candidateList;
+        }
+
+        @Override
+        public CandidateList getCandidateList() {
+            return candidateList;
+        }
+    }
+}
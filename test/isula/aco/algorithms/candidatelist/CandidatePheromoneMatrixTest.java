@@ -0,0 +1,61 @@
+package isula.aco.algorithms.candidatelist;
+
+import isula.aco.Environment;
+import isula.aco.test.DummyFactory;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+public class CandidatePheromoneMatrixTest {
+
+    private static final double DELTA = 0.001;
+    private static final double NON_CANDIDATE_VALUE = 0.1;
+
+    // Candidates of component 0: 1 and 3. Candidates of component 1: 4 and 0.
+    private final CandidateList candidateList = new CandidateList(5, 2,
+            new int[]{1, 3, 4, 0, 3, 0, 2, 0, 1, 2});
+
+    @Test
+    public void testCellAccess() {
+        CandidatePheromoneMatrix pheromoneMatrix = new CandidatePheromoneMatrix(candidateList, NON_CANDIDATE_VALUE);
+        pheromoneMatrix.fill(1.0);
+
+        assertEquals(5, pheromoneMatrix.getRows());
+        assertEquals(5, pheromoneMatrix.getColumns());
+        assertEquals(1.0, pheromoneMatrix.get(0, 3), DELTA);
+        assertEquals(NON_CANDIDATE_VALUE, pheromoneMatrix.get(0, 2), DELTA);
+
+        pheromoneMatrix.set(0, 3, 2.0);
+        assertEquals(3.0, pheromoneMatrix.update(0, 3, pheromoneValue -> pheromoneValue + 1), DELTA);
+        assertEquals(1.0, pheromoneMatrix.get(1, 0), DELTA);
+
+        // Non-candidate edges keep their fixed value.
+        pheromoneMatrix.set(0, 2, 5.0);
+        assertEquals(NON_CANDIDATE_VALUE, pheromoneMatrix.update(0, 2, pheromoneValue -> pheromoneValue + 1), DELTA);
+        pheromoneMatrix.scale(0.5);
+        assertEquals(1.5, pheromoneMatrix.getVolatile(0, 3), DELTA);
+        assertEquals(NON_CANDIDATE_VALUE, pheromoneMatrix.getVolatile(0, 2), DELTA);
+
+        double[] row = new double[5];
+        pheromoneMatrix.copyRow(0, row);
+        assertEquals(Arrays.toString(new double[]{0.1, 0.5, 0.1, 1.5, 0.1}), Arrays.toString(row));
+        assertEquals(Arrays.toString(row), Arrays.toString(pheromoneMatrix.toArray()[0]));
+
+        CandidatePheromoneMatrix matrixCopy = pheromoneMatrix.copy();
+        pheromoneMatrix.set(0, 3, 0.0);
+        assertEquals(1.5, matrixCopy.get(0, 3), DELTA);
+    }
+
+    @Test
+    public void testEnvironmentWithCandidateMatrix() throws Exception {
+        Environment environment = DummyFactory.createDummyEnvironment(new double[5][5], 5, 5);
+        environment.setPheromones(new CandidatePheromoneMatrix(candidateList, NON_CANDIDATE_VALUE));
+
+        environment.populatePheromoneMatrix(1.0);
+        environment.applyFactorToPheromoneMatrix(0.5, 0.2);
+        assertEquals(0.5, environment.getPheromoneValue(1, 4), DELTA);
+        assertEquals(NON_CANDIDATE_VALUE, environment.getPheromoneValue(1, 2), DELTA);
+    }
+}
@@ -0,0 +1,137 @@
+package isula.aco.algorithms.localsearch;
+
+import isula.aco.ComponentIndexer;
+import org.junit.Before;
+import org.junit.Test;
+import smalltsp.SmallTspAnt;
+import smalltsp.SmallTspEnvironment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LocalSearchPolicyTest {
+
+    private static final int NUMBER_OF_CITIES = 60;
+
+    private SmallTspEnvironment environment;
+    private SmallTspAnt ant;
+    private List<Integer> initialSolution;
+
+    @Before
+    public void setUp() {
+        Random random = new Random(42);
+        int[] xCoordinates = new int[NUMBER_OF_CITIES];
+        int[] yCoordinates = new int[NUMBER_OF_CITIES];
+        for (int city = 0; city < NUMBER_OF_CITIES; city++) {
+            xCoordinates[city] = random.nextInt(1000);
+            yCoordinates[city] = random.nextInt(1000);
+        }
+
+        int[][] distances = new int[NUMBER_OF_CITIES][NUMBER_OF_CITIES];
+        for (int from = 0; from < NUMBER_OF_CITIES; from++) {
+            for (int to = 0; to < NUMBER_OF_CITIES; to++) {
+                distances[from][to] = (int) Math.round(Math.hypot(xCoordinates[from] - xCoordinates[to],
+                        yCoordinates[from] - yCoordinates[to]));
+            }
+        }
+
+        this.environment = new SmallTspEnvironment();
+        this.environment.setProblemRepresentation(distances);
+
+        this.initialSolution = new ArrayList<>();
+        for (int city = 0; city < NUMBER_OF_CITIES; city++) {
+            initialSolution.add(city);
+        }
+        Collections.shuffle(initialSolution, random);
+
+        this.ant = new SmallTspAnt();
+        this.ant.setComponentIndexer(ComponentIndexer.forIntegers(NUMBER_OF_CITIES));
+        this.ant.replaceSolution(initialSolution, environment);
+    }
+
+    private double applyLocalSearch(LocalSearchPolicy<Integer, SmallTspEnvironment> localSearch) {
+        double initialCost = ant.getSolutionCost(environment);
+
+        localSearch.setAnt(ant);
+        localSearch.applyPolicy(environment, null);
+
+        List<Integer> solution = ant.getSolution();
+        assertEquals(NUMBER_OF_CITIES, solution.size());
+        assertEquals(NUMBER_OF_CITIES, new HashSet<>(solution).size());
+        assertTrue(ant.isNodeVisited(solution.get(0)));
+
+        double improvedCost = ant.getSolutionCost(environment);
+        assertEquals(ant.getSolutionCost(environment, new ArrayList<>(solution)), improvedCost, 0.001);
+        assertTrue(improvedCost < initialCost);
+        return improvedCost;
+    }
+
+    @Test
+    public void testTwoOpt() {
+        applyLocalSearch(new TwoOptLocalSearch<>(NUMBER_OF_CITIES - 1) {
+            @Override
+            protected double getDistance(int fromIndex, int toIndex, SmallTspEnvironment environment) {
+                return environment.getProblemRepresentation()[fromIndex][toIndex];
+            }
+        });
+
+        // With complete neighbour lists, no 2-opt move can improve the result.
+        int[][] distances = environment.getProblemRepresentation();
+        List<Integer> solution = ant.getSolution();
+        for (int first = 0; first < NUMBER_OF_CITIES; first++) {
+            for (int second = first + 2; second < NUMBER_OF_CITIES; second++) {
+                int firstStart = solution.get(first);
+                int firstEnd = solution.get(first + 1);
+                int secondStart = solution.get(second);
+                int secondEnd = solution.get((second + 1) % NUMBER_OF_CITIES);
+
+                int gain = distances[firstStart][firstEnd] + distances[secondStart][secondEnd] -
+                        distances[firstStart][secondStart] - distances[firstEnd][secondEnd];
+                assertTrue(gain <= 0);
+            }
+        }
+    }
+
+    @Test
+    public void testTwoHalfOpt() {
+        applyLocalSearch(new TwoHalfOptLocalSearch<>() {
+            @Override
+            protected double getDistance(int fromIndex, int toIndex, SmallTspEnvironment environment) {
+                return environment.getProblemRepresentation()[fromIndex][toIndex];
+            }
+        });
+    }
+
+    @Test
+    public void testOrOpt() {
+        applyLocalSearch(new OrOptLocalSearch<>() {
+            @Override
+            protected double getDistance(int fromIndex, int toIndex, SmallTspEnvironment environment) {
+                return environment.getProblemRepresentation()[fromIndex][toIndex];
+            }
+        });
+    }
+
+    @Test
+    public void testSmallSolutionIsUnchanged() {
+        List<Integer> smallSolution = List.of(0, 1, 2, 3);
+        ant.replaceSolution(smallSolution, environment);
+
+        TwoOptLocalSearch<Integer, SmallTspEnvironment> localSearch = new TwoOptLocalSearch<>() {
+            @Override
+            protected double getDistance(int fromIndex, int toIndex, SmallTspEnvironment environment) {
+                return environment.getProblemRepresentation()[fromIndex][toIndex];
+            }
+        };
+        localSearch.setAnt(ant);
+        localSearch.applyPolicy(environment, null);
+
+        assertEquals(smallSolution, ant.getSolution());
+    }
+}
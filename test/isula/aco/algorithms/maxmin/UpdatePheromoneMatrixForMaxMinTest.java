@@ -0,0 +1,82 @@
+package isula.aco.algorithms.maxmin;
+
+import isula.aco.Ant;
+import isula.aco.AntColony;
+import org.junit.Test;
+import smalltsp.SmallTspAnt;
+import smalltsp.SmallTspConfiguration;
+import smalltsp.SmallTspEnvironment;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleUnaryOperator;
+
+import static org.junit.Assert.assertEquals;
+import static smalltsp.SmallTspEnvironment.SAMPLE_PROBLEM;
+
+public class UpdatePheromoneMatrixForMaxMinTest {
+
+    private static final double DELTA = 0.001;
+
+    @Test
+    public void testDepositOnBestSolution() {
+        SmallTspEnvironment environment = new SmallTspEnvironment();
+        environment.setProblemRepresentation(SAMPLE_PROBLEM);
+        environment.populatePheromoneMatrix(1.0);
+        environment.getPheromones().set(3, 2, 2.5);
+
+        AtomicInteger atomicUpdates = new AtomicInteger();
+        AntColony<Integer, SmallTspEnvironment> antColony = new AntColony<>(1) {
+            @Override
+            protected Ant<Integer, SmallTspEnvironment> createAnt(SmallTspEnvironment environment) {
+                return new SmallTspAnt() {
+                    @Override
+                    public boolean isSolutionReady(SmallTspEnvironment environment) {
+                        return true;
+                    }
+
+                    @Override
+                    public void updatePheromoneTrailValue(Integer solutionComponent, Integer positionInSolution,
+                                                          SmallTspEnvironment environment,
+                                                          DoubleUnaryOperator update) {
+                        atomicUpdates.incrementAndGet();
+                        super.updatePheromoneTrailValue(solutionComponent, positionInSolution, environment, update);
+                    }
+                };
+            }
+        };
+        antColony.buildColony(environment);
+        antColony.getHive().get(0).setSolution(List.of(0, 3, 2, 4, 1));
+
+        UpdatePheromoneMatrixForMaxMin<Integer, SmallTspEnvironment> pheromoneUpdate =
+                new UpdatePheromoneMatrixForMaxMin<>() {
+                    @Override
+                    protected double getNewPheromoneValue(Ant<Integer, SmallTspEnvironment> ant,
+                                                          int positionInSolution, Integer solutionComponent,
+                                                          MaxMinConfigurationProvider configurationProvider) {
+                        return ant.getPheromoneTrailValue(solutionComponent, positionInSolution, environment) + 0.4;
+                    }
+                };
+        pheromoneUpdate.setAntColony(antColony);
+        pheromoneUpdate.setEnvironment(environment);
+        pheromoneUpdate.applyDaemonAction(new MaxMinConfiguration());
+
+        assertEquals(5, atomicUpdates.get());
+        assertEquals(0.9, environment.getPheromones().get(0, 3), DELTA);
+        assertEquals(1.2, environment.getPheromones().get(3, 2), DELTA);
+        assertEquals(0.5, environment.getPheromones().get(0, 1), DELTA);
+    }
+
+    private static class MaxMinConfiguration extends SmallTspConfiguration implements MaxMinConfigurationProvider {
+
+        @Override
+        public double getMaximumPheromoneValue() {
+            return 1.2;
+        }
+
+        @Override
+        public double getMinimumPheromoneValue() {
+            return 0.1;
+        }
+    }
+}
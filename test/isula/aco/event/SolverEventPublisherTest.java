@@ -0,0 +1,128 @@
+package isula.aco.event;
+
+import isula.aco.AcoProblemSolver;
+import isula.aco.algorithms.antsystem.OfflinePheromoneUpdate;
+import isula.aco.algorithms.antsystem.PerformEvaporation;
+import isula.aco.algorithms.antsystem.RandomNodeSelection;
+import isula.aco.algorithms.antsystem.StartPheromoneMatrix;
+import org.junit.Test;
+import tsp.AntColonyForTsp;
+import tsp.TspConfiguration;
+import tsp.TspEnvironment;
+import tsp.TspHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SolverEventPublisherTest {
+
+    @Test
+    public void testSolverEvents() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AcoProblemSolver<String, TspEnvironment> solver = createSolver();
+            solver.setEventPublisher(new SolverEventPublisher(executor, 2048));
+
+            List<SolverEvent> events = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch completion = new CountDownLatch(1);
+            solver.getEventPublisher().subscribe(new Flow.Subscriber<>() {
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(SolverEvent event) {
+                    events.add(event);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                    completion.countDown();
+                }
+            });
+
+            solver.solveProblem();
+            assertTrue(completion.await(10, TimeUnit.SECONDS));
+
+            int numberOfIterations = solver.getConfigurationProvider().getNumberOfIterations();
+            long iterationEvents = events.stream().filter(event -> event instanceof IterationFinishedEvent).count();
+            assertEquals(numberOfIterations, iterationEvents);
+
+            SolverEvent lastEvent = events.get(events.size() - 1);
+            assertTrue(lastEvent instanceof ColonyFinishedEvent);
+            assertEquals(numberOfIterations, lastEvent.getIteration());
+            assertEquals(solver.getBestSolutionCost(), ((ColonyFinishedEvent) lastEvent).getBestSolutionCost(),
+                    0.001);
+
+            double previousBestCost = Double.MAX_VALUE;
+            for (SolverEvent event : events) {
+                if (event instanceof NewBestSolutionEvent) {
+                    double solutionCost = ((NewBestSolutionEvent<?>) event).getSolutionCost();
+                    assertTrue(solutionCost < previousBestCost);
+                    previousBestCost = solutionCost;
+                }
+            }
+            assertEquals(solver.getBestSolutionCost(), previousBestCost, 0.001);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSlowSubscriber() {
+        AcoProblemSolver<String, TspEnvironment> solver = createSolver();
+        SolverEventPublisher eventPublisher = new SolverEventPublisher(Runnable::run, 4);
+        solver.setEventPublisher(eventPublisher);
+
+        // This subscriber never requests events, so its buffer fills up.
+        eventPublisher.subscribe(new Flow.Subscriber<>() {
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+            }
+
+            @Override
+            public void onNext(SolverEvent event) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        solver.solveProblem();
+        assertTrue(eventPublisher.getDroppedEvents() > 0);
+        assertTrue(eventPublisher.isClosed());
+    }
+
+    private static AcoProblemSolver<String, TspEnvironment> createSolver() {
+        TspEnvironment environment = new TspEnvironment(TspHelper.getSampleProblem());
+        TspConfiguration configuration = new TspConfiguration(environment);
+
+        AcoProblemSolver<String, TspEnvironment> solver = new AcoProblemSolver<>();
+        solver.initialize(environment, new AntColonyForTsp(configuration.getNumberOfAnts()), configuration);
+        solver.addDaemonActions(new StartPheromoneMatrix<>(), new PerformEvaporation<>(),
+                new OfflinePheromoneUpdate<>());
+        solver.getAntColony().addAntPolicies(new RandomNodeSelection<>());
+        return solver;
+    }
+}
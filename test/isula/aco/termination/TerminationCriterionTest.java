@@ -0,0 +1,95 @@
+package isula.aco.termination;
+
+import isula.aco.AcoProblemSolver;
+import isula.aco.Environment;
+import isula.aco.exception.ConfigurationException;
+import isula.aco.exception.InvalidInputException;
+import isula.aco.test.BaseTestForIsula;
+import isula.aco.test.DummyFactory;
+import isula.aco.tuning.BasicConfigurationProvider;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TerminationCriterionTest extends BaseTestForIsula {
+
+    private static final int NUMBER_OF_ITERATIONS = 100;
+
+    public TerminationCriterionTest() throws InvalidInputException, ConfigurationException {
+        super(createConfigurationProvider());
+    }
+
+    private static BasicConfigurationProvider createConfigurationProvider() {
+        BasicConfigurationProvider configurationProvider = new BasicConfigurationProvider(
+                DummyFactory.createDummyConfigurationProvider());
+        configurationProvider.setNumberOfIterations(NUMBER_OF_ITERATIONS);
+        return configurationProvider;
+    }
+
+    private long solveAndCountSolutions(TerminationCriterion<Integer, Environment> terminationCriterion) {
+        AcoProblemSolver<Integer, Environment> problemSolver = getProblemSolver();
+        problemSolver.setTerminationCriterion(terminationCriterion);
+        return problemSolver.kickOffColony(getAntColony(), getEnvironment(), null).getGeneratedSolutions();
+    }
+
+    @Test
+    public void testWithoutCriterion() {
+        assertEquals(NUMBER_OF_ITERATIONS, solveAndCountSolutions(null));
+    }
+
+    @Test
+    public void testStagnation() {
+        // The dummy ant always produces solutions with the same cost: the first iteration is the only improvement.
+        int iterationsWithoutImprovement = 5;
+        assertEquals(iterationsWithoutImprovement + 1,
+                solveAndCountSolutions(new StagnationCriterion<>(iterationsWithoutImprovement)));
+    }
+
+    @Test
+    public void testTargetCost() {
+        assertEquals(1, solveAndCountSolutions(new TargetCostCriterion<>(SOLUTION_COST)));
+        assertEquals(NUMBER_OF_ITERATIONS, solveAndCountSolutions(new TargetCostCriterion<>(SOLUTION_COST - 1)));
+    }
+
+    @Test
+    public void testEvaluationBudget() {
+        long maximumEvaluations = 20;
+        long generatedSolutions = solveAndCountSolutions(new EvaluationBudgetCriterion<>(maximumEvaluations));
+
+        long evaluations = getAntColony().getHive().get(0).getSolutionEvaluations();
+        assertTrue(generatedSolutions < NUMBER_OF_ITERATIONS);
+        assertTrue(evaluations >= maximumEvaluations);
+    }
+
+    @Test
+    public void testBranchingFactor() {
+        BranchingFactorCriterion<Integer, Environment> criterion = new BranchingFactorCriterion<>(0.05, 2.0);
+
+        double[][] uniformMatrix = {{1.0, 1.0, 1.0, 1.0}, {1.0, 1.0, 1.0, 1.0}};
+        assertEquals(4.0, criterion.getAverageBranchingFactor(uniformMatrix), 0.001);
+
+        double[][] convergedMatrix = {{1.0, 0.1, 0.1, 0.1}, {0.1, 1.0, 1.0, 0.1}};
+        assertEquals(1.5, criterion.getAverageBranchingFactor(convergedMatrix), 0.001);
+
+        double[][] raggedMatrix = {{1.0, 0.1}, {1.0, 1.0, 1.0, 0.1}};
+        assertEquals(2.0, criterion.getAverageBranchingFactor(raggedMatrix), 0.001);
+
+        // Without pheromone updates, the matrix keeps its initial uniform values.
+        assertEquals(NUMBER_OF_ITERATIONS, solveAndCountSolutions(criterion));
+        assertEquals(10, solveAndCountSolutions(new BranchingFactorCriterion<>(0.05, 4.0, 10)));
+    }
+
+    @Test
+    public void testCombination() {
+        TerminationCriterion<Integer, Environment> stagnation = new StagnationCriterion<>(5);
+        TerminationCriterion<Integer, Environment> unreachableTarget = new TargetCostCriterion<>(SOLUTION_COST - 1);
+
+        assertEquals(6, solveAndCountSolutions(stagnation.or(unreachableTarget)));
+        assertEquals(NUMBER_OF_ITERATIONS, solveAndCountSolutions(stagnation.and(unreachableTarget)));
+
+        assertEquals("(" + stagnation + " OR " + unreachableTarget + ")", stagnation.or(unreachableTarget).toString());
+        assertEquals("((" + stagnation + " AND " + unreachableTarget + ") OR " + stagnation + ")",
+                stagnation.and(unreachableTarget).or(stagnation).toString());
+    }
+}
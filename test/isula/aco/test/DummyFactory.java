@@ -139,7 +139,7 @@ public class DummyFactory {
             @Override
             public Double getPheromoneTrailValue(Integer solutionComponent,
                                                  Integer positionInSolution, Environment environment) {
-                return environment.getPheromoneMatrix()[solutionComponent][positionInSolution];
+                return environment.getPheromones().get(solutionComponent, positionInSolution);
             }
 
             @Override
@@ -152,8 +152,7 @@ public class DummyFactory {
             public void setPheromoneTrailValue(Integer solutionComponent,
                                                Integer positionInSolution, Environment environment, Double value) {
 
-                double[][] pheromoneMatrix = environment.getPheromoneMatrix();
-                pheromoneMatrix[solutionComponent][positionInSolution] = value;
+                environment.getPheromones().set(solutionComponent, positionInSolution, value);
 
             }
 
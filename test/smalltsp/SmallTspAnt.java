@@ -60,7 +60,7 @@ public class SmallTspAnt extends Ant<Integer, SmallTspEnvironment> {
 
         if (positionInSolution > 0) {
             int previousComponent = this.getSolution().get(positionInSolution - 1);
-            return environment.getPheromoneMatrix()[previousComponent][solutionComponent];
+            return environment.getPheromones().get(previousComponent, solutionComponent);
         }
 
         return 0.0;
@@ -68,14 +68,29 @@ public class SmallTspAnt extends Ant<Integer, SmallTspEnvironment> {
     }
 
 
+    @Override
+    public double getChoiceInformationValue(Integer solutionComponent, Integer positionInSolution,
+                                            SmallTspEnvironment environment) {
+        int previousComponent = this.getSolution().get(positionInSolution - 1);
+        return environment.getChoiceInformation()[previousComponent][solutionComponent];
+    }
+
     @Override
     public void setPheromoneTrailValue(Integer solutionComponent, Integer positionInSolution,
                                        SmallTspEnvironment environment, Double value) {
 
         if (positionInSolution > 0) {
             int previousComponent = this.getSolution().get(positionInSolution - 1);
-            environment.getPheromoneMatrix()[previousComponent][solutionComponent] = value;
+            environment.getPheromones().set(previousComponent, solutionComponent, value);
         }
 
     }
+
+    @Override
+    public void invalidateChoiceInformation(Integer solutionComponent, Integer positionInSolution,
+                                            SmallTspEnvironment environment) {
+        if (positionInSolution > 0) {
+            environment.invalidateChoiceInformation(this.getSolution().get(positionInSolution - 1));
+        }
+    }
 }
@@ -12,6 +12,8 @@ public class AntColonyForTsp extends isula.aco.AntColony<String, TspEnvironment>
 
     @Override
     protected Ant<String, TspEnvironment> createAnt(TspEnvironment environment) {
-        return new AntForTsp(environment.getAllCities());
+        AntForTsp ant = new AntForTsp(environment.getAllCities());
+        ant.setComponentIndexer(environment);
+        return ant;
     }
 }
@@ -3,13 +3,12 @@ package tsp;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.function.DoubleUnaryOperator;
 import java.util.stream.Collectors;
 
 public class AntForTsp extends isula.aco.Ant<String, TspEnvironment> {
 
     private final List<String> citiesToVisit;
-    private final Random random = new Random();
 
     public AntForTsp(List<String> citiesToVisit) {
         super();
@@ -21,7 +20,7 @@ public class AntForTsp extends isula.aco.Ant<String, TspEnvironment> {
     public void clear() {
         super.clear();
 
-        int selectedIndex = random.nextInt(this.citiesToVisit.size());
+        int selectedIndex = getRandom().nextInt(this.citiesToVisit.size());
         String initialCity = citiesToVisit.get(selectedIndex);
         this.visitNode(initialCity, null);
     }
@@ -36,6 +35,27 @@ public class AntForTsp extends isula.aco.Ant<String, TspEnvironment> {
         return TspHelper.calculateDistance(solution, tspEnvironment.getDistanceMap());
     }
 
+    @Override
+    public boolean supportsIncrementalCost() {
+        return true;
+    }
+
+    @Override
+    protected double getCostIncrement(String city, int positionInSolution, TspEnvironment tspEnvironment) {
+        if (positionInSolution == 0) {
+            return 0.0;
+        }
+
+        String lastCity = this.getSolution().get(positionInSolution - 1);
+        return tspEnvironment.getDistanceMap().get(lastCity).get(city);
+    }
+
+    @Override
+    protected double getClosingCost(TspEnvironment tspEnvironment) {
+        List<String> solution = this.getSolution();
+        return tspEnvironment.getDistanceMap().get(solution.get(solution.size() - 1)).get(solution.get(0));
+    }
+
     @Override
     public Double getHeuristicValue(String candidateCity, Integer positionInSolution, TspEnvironment tspEnvironment) {
 
@@ -67,4 +87,12 @@ public class AntForTsp extends isula.aco.Ant<String, TspEnvironment> {
         String lastCity = this.getSolution().get(getCurrentIndex() - 1);
         environment.setPheromoneTrailValue(lastCity, city, pheromoneValue);
     }
+
+    @Override
+    public void updatePheromoneTrailValue(String city, Integer cityIndex, TspEnvironment environment,
+                                          DoubleUnaryOperator update) {
+
+        String lastCity = this.getSolution().get(getCurrentIndex() - 1);
+        environment.updatePheromoneTrailValue(lastCity, city, update);
+    }
 }
@@ -1,14 +1,17 @@
 package tsp;
 
+import isula.aco.ComponentIndexer;
 import isula.aco.Environment;
+import isula.aco.PheromoneMatrix;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
 import java.util.stream.IntStream;
 
-public class TspEnvironment extends Environment {
+public class TspEnvironment extends Environment implements ComponentIndexer<String> {
 
     private final Map<String, Map<String, Integer>> distanceMap;
     private final List<String> allCities;
@@ -36,21 +39,41 @@ public class TspEnvironment extends Environment {
         return new double[cities][cities];
     }
 
+    @Override
+    public int getNumberOfComponents() {
+        return this.allCities.size();
+    }
+
+    @Override
+    public int getIndex(String city) {
+        return this.cityToIndex.getOrDefault(city, -1);
+    }
+
+    @Override
+    public String getComponent(int index) {
+        return this.allCities.get(index);
+    }
+
     public Map<String, Map<String, Integer>> getDistanceMap() {
         return distanceMap;
     }
 
     public Double getPheromoneTrailValue(String lastCity, String city) {
-        double[][] pheromoneMatrix = this.getPheromoneMatrix();
-
-        return pheromoneMatrix[this.cityToIndex.get(lastCity)][this.cityToIndex.get(city)];
+        return this.getPheromones().get(this.cityToIndex.get(lastCity), this.cityToIndex.get(city));
     }
 
     public void setPheromoneTrailValue(String lastCity, String city, Double pheromoneValue) {
-        double[][] pheromoneMatrix = this.getPheromoneMatrix();
-        pheromoneMatrix[this.cityToIndex.get(lastCity)][this.cityToIndex.get(city)] = pheromoneValue;
-        pheromoneMatrix[this.cityToIndex.get(city)][this.cityToIndex.get(lastCity)] = pheromoneValue;
+        PheromoneMatrix pheromoneMatrix = this.getPheromones();
+        pheromoneMatrix.set(this.cityToIndex.get(lastCity), this.cityToIndex.get(city), pheromoneValue);
+        pheromoneMatrix.set(this.cityToIndex.get(city), this.cityToIndex.get(lastCity), pheromoneValue);
+
+    }
 
+    public void updatePheromoneTrailValue(String lastCity, String city, DoubleUnaryOperator update) {
+        int lastCityIndex = this.cityToIndex.get(lastCity);
+        int cityIndex = this.cityToIndex.get(city);
+        this.updatePheromoneValue(lastCityIndex, cityIndex, update);
+        this.updatePheromoneValue(cityIndex, lastCityIndex, update);
     }
 
 